@@ -0,0 +1,43 @@
+package com.example.scoreprediction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request work around a prediction: query string parsing and building the
+ * JSON response by string concatenation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HttpPathBenchmark {
+
+    private final URI uri = URI.create("/predict?league=39&season=2023&team1=1&team2=2");
+    private final int prediction = (9 << 16) | 4;
+
+    @Benchmark
+    public Map<String, String> parseQueryParams() {
+        return WebServer.parseQueryParams(uri);
+    }
+
+    @Benchmark
+    public byte[] predictJson() {
+        return WebServer.predictJson("39", "2023", 1, 2, "Manchester City", "Arsenal", prediction)
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.scoreprediction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One million season run-outs of the 20-team fixture with half a season (190
+ * matches) left to play, on all cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SimulationBenchmark {
+
+    private StandingsSnapshot snapshot;
+    private FixturesSnapshot remaining;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = SimulationBenchmark.class.getResourceAsStream("/fixtures/league-20.json")) {
+            if (in == null) {
+                throw new IOException("Missing fixture league-20");
+            }
+            snapshot = StandingsParser.parse(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        int n = snapshot.groupSize(0);
+        int m = n * (n - 1) / 2;
+        int[] ids = new int[m];
+        long[] timestamps = new long[m];
+        byte[] state = new byte[m];
+        int[] home = new int[m];
+        int[] away = new int[m];
+        int[] goals = new int[m];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                ids[k] = k + 1;
+                timestamps[k] = k;
+                state[k] = FixturesSnapshot.SCHEDULED;
+                home[k] = snapshot.teamId(snapshot.row(0, (k & 1) == 0 ? i : j));
+                away[k] = snapshot.teamId(snapshot.row(0, (k & 1) == 0 ? j : i));
+                goals[k] = -1;
+                k++;
+            }
+        }
+        remaining = new FixturesSnapshot(ids, timestamps, state, new boolean[m], home, away, new String[m], new String[m], goals, goals);
+    }
+
+    @Benchmark
+    public SeasonSimulator.Result simulateMillionRuns() {
+        return SeasonSimulator.simulate(snapshot, 0, remaining, 1_000_000, 42);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.scoreprediction;
+
+import com.google.gson.Gson;
+import com.google.gson.internal.LinkedTreeMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parse and predict over the recorded-shape fixtures in src/jmh/resources:
+ * the old Gson tree + LinkedTreeMap path against the streaming parser and
+ * {@link PredictionEngine}. Run with {@code -prof gc} to see allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StandingsBenchmark {
+
+    @Param({"league-20", "ucl-groups-32", "worldcup-48"})
+    String fixture;
+
+    private final Gson gson = new Gson();
+    private String body;
+    private ArrayList<LinkedTreeMap<String, Object>> legacyStanding;
+    private StandingsSnapshot snapshot;
+    private PoissonModel poisson;
+    private int size;
+    private int pair;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        try (InputStream in = StandingsBenchmark.class.getResourceAsStream("/fixtures/" + fixture + ".json")) {
+            if (in == null) {
+                throw new IOException("Missing fixture " + fixture);
+            }
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        FullResponse fullResponse = gson.fromJson(body, FullResponse.class);
+        legacyStanding = (ArrayList<LinkedTreeMap<String, Object>>) fullResponse.getResponse().get(0).getLeague().getStandings()[0];
+        snapshot = StandingsParser.parse(body);
+        size = snapshot.groupSize(0);
+        poisson = PoissonModel.fit(snapshot, 0);
+    }
+
+    @Benchmark
+    public FullResponse gsonFullResponse() {
+        return gson.fromJson(body, FullResponse.class);
+    }
+
+    @Benchmark
+    public StandingsSnapshot streamingParse() throws IOException {
+        return StandingsParser.parse(body);
+    }
+
+    @Benchmark
+    public int legacyPredict() {
+        int p = pair++;
+        return LegacyPredict.predict(legacyStanding, p % size, (p / size) % size);
+    }
+
+    @Benchmark
+    public int enginePredict() {
+        int p = pair++;
+        return PredictionEngine.predict(snapshot, snapshot.row(0, p % size), snapshot.row(0, (p / size) % size));
+    }
+
+    @Benchmark
+    public double poissonPredict() {
+        int p = pair++;
+        return poisson.predict(p % size, (p / size) % size, false).team1Win();
+    }
+
+    /** The LinkedTreeMap/toDouble scoring PredictHandler used before the snapshot and engine existed. */
+    static final class LegacyPredict {
+
+        @SuppressWarnings("unchecked")
+        static int predict(ArrayList<LinkedTreeMap<String, Object>> standing, int team1Idx, int team2Idx) {
+            LinkedTreeMap<String, Object> allOfTeam1 = (LinkedTreeMap<String, Object>) standing.get(team1Idx).get("all");
+            LinkedTreeMap<String, Object> allOfTeam2 = (LinkedTreeMap<String, Object>) standing.get(team2Idx).get("all");
+            LinkedTreeMap<String, Object> goalsOfTeam1 = (LinkedTreeMap<String, Object>) ((LinkedTreeMap<?, ?>) standing.get(team1Idx).get("all")).get("goals");
+            LinkedTreeMap<String, Object> goalsOfTeam2 = (LinkedTreeMap<String, Object>) ((LinkedTreeMap<?, ?>) standing.get(team2Idx).get("all")).get("goals");
+
+            double playedTeam1 = toDouble(allOfTeam1.get("played"));
+            double playedTeam2 = toDouble(allOfTeam2.get("played"));
+            double winTeam1 = toDouble(allOfTeam1.get("win"));
+            double winTeam2 = toDouble(allOfTeam2.get("win"));
+            double drawTeam1 = toDouble(allOfTeam1.get("draw"));
+            double drawTeam2 = toDouble(allOfTeam2.get("draw"));
+            double loseTeam1 = toDouble(allOfTeam1.get("lose"));
+            double loseTeam2 = toDouble(allOfTeam2.get("lose"));
+            double goalsForTeam1 = toDouble(goalsOfTeam1.get("for"));
+            double goalsForTeam2 = toDouble(goalsOfTeam2.get("for"));
+            double goalsAgainstTeam1 = toDouble(goalsOfTeam1.get("against"));
+            double goalsAgainstTeam2 = toDouble(goalsOfTeam2.get("against"));
+            double pointsTeam1 = toDouble(standing.get(team1Idx).get("points"));
+            double pointsTeam2 = toDouble(standing.get(team2Idx).get("points"));
+
+            int totalPointsTeam1 = 0;
+            int totalPointsTeam2 = 0;
+
+            if (playedTeam1 == playedTeam2) { totalPointsTeam1++; totalPointsTeam2++; }
+            if (playedTeam1 > playedTeam2) { totalPointsTeam2++; }
+            if (playedTeam1 < playedTeam2) { totalPointsTeam1++; }
+
+            if (winTeam1 == winTeam2) { totalPointsTeam1++; totalPointsTeam2++; }
+            if (winTeam1 > winTeam2) { totalPointsTeam1++; }
+            if (winTeam1 < winTeam2) { totalPointsTeam2++; }
+
+            if (drawTeam1 == drawTeam2) { totalPointsTeam1++; totalPointsTeam2++; }
+            if (drawTeam1 > drawTeam2) { totalPointsTeam2++; }
+            if (drawTeam1 < drawTeam2) { totalPointsTeam1++; }
+
+            if (loseTeam1 > loseTeam2) { totalPointsTeam2++; }
+            if (loseTeam1 < loseTeam2) { totalPointsTeam1++; }
+
+            if (goalsForTeam1 == goalsForTeam2) {
+                if (goalsForTeam1 > 20 || goalsForTeam2 > 20) { totalPointsTeam1 += 3; totalPointsTeam2 += 3; }
+                else { totalPointsTeam1 += 2; totalPointsTeam2 += 2; }
+            }
+            if (goalsForTeam1 > goalsForTeam2) { totalPointsTeam1 += (goalsForTeam1 > 20 ? 3 : 2); }
+            if (goalsForTeam1 < goalsForTeam2) { totalPointsTeam2 += (goalsForTeam2 > 20 ? 3 : 2); }
+
+            if (goalsAgainstTeam1 == goalsAgainstTeam2) {
+                if (goalsAgainstTeam1 < 8 || goalsAgainstTeam2 < 8) { totalPointsTeam1 += 2; totalPointsTeam2 += 2; }
+                else { totalPointsTeam1++; totalPointsTeam2++; }
+            }
+            if (goalsAgainstTeam1 > goalsAgainstTeam2) { totalPointsTeam2 += (goalsAgainstTeam2 < 8 ? 2 : 1); }
+            if (goalsAgainstTeam1 < goalsAgainstTeam2) { totalPointsTeam1 += (goalsAgainstTeam1 < 8 ? 2 : 1); }
+
+            if (pointsTeam1 == pointsTeam2) { totalPointsTeam1 += 3; totalPointsTeam2 += 3; }
+            if (pointsTeam1 > pointsTeam2) { totalPointsTeam1 += 3; }
+            if (pointsTeam1 < pointsTeam2) { totalPointsTeam2 += 3; }
+
+            return (totalPointsTeam1 << 16) | totalPointsTeam2;
+        }
+
+        private static double toDouble(Object o) {
+            if (o == null) return 0d;
+            if (o instanceof Number) return ((Number) o).doubleValue();
+            try {
+                return Double.parseDouble(o.toString());
+            } catch (Exception e) {
+                return 0d;
+            }
+        }
+    }
+}
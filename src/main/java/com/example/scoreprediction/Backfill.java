@@ -0,0 +1,243 @@
+package com.example.scoreprediction;
+
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Headless bulk fetch of standings for many leagues and seasons into the
+ * {@link SnapshotStore}:
+ * <pre>
+ *   java -jar score-prediction.jar backfill --leagues 39,140,2 --seasons 2012-2023 \
+ *        [--parallelism 4] [--rpm 30] [--store data/standings.store] [--refresh]
+ * </pre>
+ * Leagues and seasons are comma-separated values or {@code a-b} ranges. Pairs
+ * already in the store are skipped, so an interrupted run picks up where it
+ * stopped; {@code --refresh} fetches everything again. Requests run on
+ * {@code parallelism} threads and are paced to {@code rpm} per minute, in the
+ * lowest {@link UpstreamScheduler} lane; once the upstream quota sheds a request
+ * the run stops fetching. Progress and the final throughput go to stdout.
+ */
+public final class Backfill {
+
+    static final class Options {
+        List<String> leagues = new ArrayList<>();
+        List<String> seasons = new ArrayList<>();
+        int parallelism = 4;
+        int requestsPerMinute = 30;
+        String store = Config.string("STANDINGS_STORE_FILE", "data/standings.store");
+        boolean refresh;
+    }
+
+    /** What one run did. */
+    static final class Report {
+        final int total;
+        final int skipped;
+        final int stored;
+        final int empty;
+        final int failed;
+        final long bytes;
+        final long elapsedNanos;
+
+        Report(int total, int skipped, int stored, int empty, int failed, long bytes, long elapsedNanos) {
+            this.total = total;
+            this.skipped = skipped;
+            this.stored = stored;
+            this.empty = empty;
+            this.failed = failed;
+            this.bytes = bytes;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double requestsPerSecond() {
+            int fetched = stored + empty + failed;
+            return elapsedNanos == 0 ? 0 : fetched * 1e9 / elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d pairs: %d stored, %d empty, %d failed, %d already stored; %.1f KB in %.1f s (%.2f req/s)",
+                    total, stored, empty, failed, skipped, bytes / 1024.0, elapsedNanos / 1e9, requestsPerSecond());
+        }
+    }
+
+    private Backfill() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        try {
+            options = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: backfill --leagues 39,140|1-5 --seasons 2015-2023 [--parallelism 4] [--rpm 30] [--store file] [--refresh]");
+            System.exit(2);
+            return;
+        }
+        String apiKey = System.getenv("API_FOOTBALL_KEY");
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("API_FOOTBALL_KEY is not set");
+        }
+        try (SnapshotStore store = SnapshotStore.open(Paths.get(options.store),
+                Config.intValue("STANDINGS_STORE_MAX_KEYS", 4096))) {
+            System.out.println(run(options, store, apiKey, System.out));
+        }
+    }
+
+    static Options parse(String[] args) {
+        Options o = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--leagues":
+                    o.leagues = expand(value(args, ++i, arg));
+                    break;
+                case "--seasons":
+                    o.seasons = expand(value(args, ++i, arg));
+                    break;
+                case "--parallelism":
+                    o.parallelism = positive(value(args, ++i, arg), arg);
+                    break;
+                case "--rpm":
+                    o.requestsPerMinute = positive(value(args, ++i, arg), arg);
+                    break;
+                case "--store":
+                    o.store = value(args, ++i, arg);
+                    break;
+                case "--refresh":
+                    o.refresh = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        if (o.leagues.isEmpty() || o.seasons.isEmpty()) {
+            throw new IllegalArgumentException("--leagues and --seasons are required");
+        }
+        return o;
+    }
+
+    /** {@code "39,140,1-3"} to {@code [39, 140, 1, 2, 3]}, without duplicates. */
+    static List<String> expand(String spec) {
+        Set<String> values = new LinkedHashSet<>();
+        for (String part : spec.split(",")) {
+            String p = part.trim();
+            if (p.isEmpty()) {
+                continue;
+            }
+            int dash = p.indexOf('-', 1);
+            if (dash > 0) {
+                int from = Integer.parseInt(p.substring(0, dash).trim());
+                int to = Integer.parseInt(p.substring(dash + 1).trim());
+                for (int v = Math.min(from, to); v <= Math.max(from, to); v++) {
+                    values.add(String.valueOf(v));
+                }
+            } else {
+                values.add(p);
+            }
+        }
+        return new ArrayList<>(values);
+    }
+
+    static Report run(Options options, SnapshotStore store, String apiKey, PrintStream out) throws InterruptedException {
+        List<String[]> pending = new ArrayList<>();
+        int skipped = 0;
+        for (String league : options.leagues) {
+            for (String season : options.seasons) {
+                if (!options.refresh && store.latest(league, season) != null) {
+                    skipped++;
+                } else {
+                    pending.add(new String[] {league, season});
+                }
+            }
+        }
+        int total = pending.size() + skipped;
+        out.printf("backfill: %d pairs, %d already stored, %d to fetch (parallelism %d, %d req/min)%n",
+                total, skipped, pending.size(), options.parallelism, options.requestsPerMinute);
+
+        // evenly paced: one request every 60/rpm seconds, no bursts that could trip the upstream window
+        TokenBucket pace = new TokenBucket(1, options.requestsPerMinute, 1, TimeUnit.MINUTES);
+        AtomicInteger stored = new AtomicInteger();
+        AtomicInteger empty = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        AtomicLong bytes = new AtomicLong();
+        AtomicBoolean quotaExhausted = new AtomicBoolean();
+        long start = System.nanoTime();
+
+        ExecutorService workers = Executors.newFixedThreadPool(options.parallelism);
+        try {
+            for (String[] pair : pending) {
+                workers.execute(() -> {
+                    String league = pair[0];
+                    String season = pair[1];
+                    try {
+                        if (quotaExhausted.get()) {
+                            throw new UpstreamScheduler.QuotaExceededException(UpstreamScheduler.Lane.BACKFILL, 0);
+                        }
+                        pace.acquire();
+                        UpstreamClient.Raw raw = UpstreamClient.shared().getRaw(WebServer.standingsUrl(league, season),
+                                apiKey, WebServer.API_HOST, UpstreamScheduler.Lane.BACKFILL);
+                        bytes.addAndGet(raw.body.length);
+                        StandingsPayload payload = StandingsPayload.of(raw);
+                        if (payload.snapshot.isEmpty()) {
+                            // no table for this pair (or an error payload): nothing worth keeping
+                            empty.incrementAndGet();
+                        } else {
+                            store.append(league, season, System.currentTimeMillis(), payload.gzipBody());
+                            stored.incrementAndGet();
+                        }
+                    } catch (UpstreamScheduler.QuotaExceededException e) {
+                        // the rest would be shed too; a later run picks them up
+                        failed.incrementAndGet();
+                        if (quotaExhausted.compareAndSet(false, true)) {
+                            out.printf("backfill: %s, stopping; retry in %d s%n", e.getMessage(), e.getRetryAfterSeconds());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failed.incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                        out.printf("backfill: %s/%s failed: %s%n", league, season, e.getMessage());
+                    }
+                    int n = done.incrementAndGet();
+                    if (n % 10 == 0 || n == pending.size()) {
+                        double seconds = (System.nanoTime() - start) / 1e9;
+                        out.printf("backfill: %d/%d fetched, %.2f req/s%n", n, pending.size(), n / Math.max(seconds, 1e-9));
+                    }
+                });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        }
+        return new Report(total, skipped, stored.get(), empty.get(), failed.get(), bytes.get(), System.nanoTime() - start);
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return args[i];
+    }
+
+    private static int positive(String value, String option) {
+        try {
+            int v = Integer.parseInt(value);
+            if (v > 0) {
+                return v;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " must be a positive integer");
+    }
+}
@@ -0,0 +1,436 @@
+package com.example.scoreprediction;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless standings and prediction report over a job file:
+ * <pre>
+ *   java -jar score-prediction.jar batch jobs.txt [--format text|csv|json] [--out report.txt] [--parallelism 8]
+ * </pre>
+ * Each non-blank line of the job file that does not start with {@code #} is
+ * <pre>
+ *   leagues seasons [group=A] [team1:team2 ...]
+ * </pre>
+ * where leagues and seasons take the {@link Backfill#expand} syntax
+ * ({@code 39,140} or {@code 2020-2023}) and the line stands for every
+ * combination. A team is a table position, {@code #id} for an api-sports id,
+ * or a name or unique name prefix with {@code _} for spaces.
+ *
+ * Every (league, season) is fetched once, however many lines name it. Jobs
+ * are rendered in parallel and written in file order through one buffered
+ * writer: the table (or the named group) followed by the predictions.
+ * {@code csv} writes one row per table line or prediction under a single
+ * header; {@code json} writes one JSON object per job and line.
+ */
+public final class Batch {
+
+    enum Format {
+        TEXT, CSV, JSON
+    }
+
+    static final class Options {
+        String jobFile;
+        Format format = Format.TEXT;
+        String out;
+        int parallelism = 8;
+    }
+
+    /** One (league, season) of a job line. */
+    static final class Job {
+        final String league;
+        final String season;
+        final String group;
+        final List<String[]> pairs;
+
+        Job(String league, String season, String group, List<String[]> pairs) {
+            this.league = league;
+            this.season = season;
+            this.group = group;
+            this.pairs = pairs;
+        }
+    }
+
+    static final String CSV_HEADER = "record,league,season,group,position,team_id,team,played,win,draw,lose,"
+            + "goals_for,goals_against,goals_diff,points,opponent_id,opponent,score,opponent_score,result,error\n";
+
+    private Batch() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options;
+        List<Job> jobs;
+        try {
+            options = parse(args);
+            jobs = jobs(Files.readAllLines(Paths.get(options.jobFile), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: batch <jobfile> [--format text|csv|json] [--out file] [--parallelism 8]");
+            System.exit(2);
+            return;
+        }
+        String apiKey = System.getenv("API_FOOTBALL_KEY");
+        if (apiKey == null || apiKey.isBlank()) {
+            throw new IllegalStateException("API_FOOTBALL_KEY is not set");
+        }
+        UpstreamCache.Loader<StandingsPayload> loader = (league, season) -> StandingsPayload.of(
+                UpstreamClient.shared().getRaw(WebServer.standingsUrl(league, season), apiKey, WebServer.API_HOST));
+        long start = System.nanoTime();
+        Writer out = options.out == null
+                ? new OutputStreamWriter(System.out, StandardCharsets.UTF_8)
+                : Files.newBufferedWriter(Paths.get(options.out), StandardCharsets.UTF_8);
+        try (BufferedWriter writer = new BufferedWriter(out, 1 << 16)) {
+            run(jobs, options, loader, writer);
+        }
+        System.err.printf("batch: %d jobs in %.1f s%n", jobs.size(), (System.nanoTime() - start) / 1e9);
+    }
+
+    static Options parse(String[] args) {
+        Options o = new Options();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--format":
+                    String format = value(args, ++i, arg);
+                    try {
+                        o.format = Format.valueOf(format.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unknown format " + format + " (expected text, csv or json)");
+                    }
+                    break;
+                case "--out":
+                    o.out = value(args, ++i, arg);
+                    break;
+                case "--parallelism":
+                    o.parallelism = positive(value(args, ++i, arg), arg);
+                    break;
+                default:
+                    if (arg.startsWith("--") || o.jobFile != null) {
+                        throw new IllegalArgumentException("Unknown option " + arg);
+                    }
+                    o.jobFile = arg;
+            }
+        }
+        if (o.jobFile == null) {
+            throw new IllegalArgumentException("A job file is required");
+        }
+        return o;
+    }
+
+    static List<Job> jobs(List<String> lines) {
+        List<Job> jobs = new ArrayList<>();
+        for (int n = 0; n < lines.size(); n++) {
+            String line = lines.get(n).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\s+");
+            if (fields.length < 2) {
+                throw new IllegalArgumentException("Line " + (n + 1) + ": expected leagues and seasons");
+            }
+            String group = null;
+            List<String[]> pairs = new ArrayList<>();
+            for (int i = 2; i < fields.length; i++) {
+                String field = fields[i];
+                int colon = field.indexOf(':');
+                if (field.startsWith("group=")) {
+                    group = field.substring("group=".length()).replace('_', ' ');
+                } else if (colon > 0 && colon < field.length() - 1) {
+                    pairs.add(new String[] {field.substring(0, colon), field.substring(colon + 1)});
+                } else {
+                    throw new IllegalArgumentException("Line " + (n + 1) + ": expected group=X or team1:team2, got " + field);
+                }
+            }
+            for (String league : Backfill.expand(fields[0])) {
+                for (String season : Backfill.expand(fields[1])) {
+                    jobs.add(new Job(league, season, group, pairs));
+                }
+            }
+        }
+        return jobs;
+    }
+
+    static void run(List<Job> jobs, Options options, UpstreamCache.Loader<StandingsPayload> loader, Writer out)
+            throws IOException, InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(options.parallelism);
+        try {
+            Map<UpstreamCache.Key, CompletableFuture<StandingsPayload>> snapshots = new LinkedHashMap<>();
+            List<CompletableFuture<String>> reports = new ArrayList<>(jobs.size());
+            for (Job job : jobs) {
+                CompletableFuture<StandingsPayload> payload = snapshots.computeIfAbsent(
+                        new UpstreamCache.Key(job.league, job.season),
+                        key -> CompletableFuture.supplyAsync(() -> {
+                            try {
+                                return loader.load(key.league, key.season);
+                            } catch (Exception e) {
+                                throw new IllegalStateException(e.getMessage() == null ? e.toString() : e.getMessage(), e);
+                            }
+                        }, workers));
+                reports.add(payload.handleAsync((p, failure) -> render(job, p, failure, options.format), workers));
+            }
+            if (options.format == Format.CSV) {
+                out.write(CSV_HEADER);
+            }
+            for (CompletableFuture<String> report : reports) {
+                out.write(report.join());
+            }
+            out.flush();
+        } finally {
+            workers.shutdownNow();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    static String render(Job job, StandingsPayload payload, Throwable failure, Format format) {
+        StringBuilder sb = new StringBuilder(4096);
+        String error = null;
+        if (failure != null) {
+            Throwable cause = failure.getCause() != null ? failure.getCause() : failure;
+            error = "fetch failed: " + cause.getMessage();
+        } else if (payload.snapshot.isEmpty()) {
+            error = "no standings";
+        }
+        StandingsSnapshot snapshot = error == null ? payload.snapshot : null;
+        int group = -1;
+        if (snapshot != null && job.group != null) {
+            group = snapshot.groupIndex(job.group);
+            if (group < 0) {
+                error = "unknown group " + job.group;
+            }
+        }
+        if (error != null) {
+            switch (format) {
+                case TEXT:
+                    sb.append('\n').append(job.league).append('/').append(job.season).append(": ").append(error).append('\n');
+                    break;
+                case CSV:
+                    sb.append("error,").append(job.league).append(',').append(job.season).append(",,,,,,,,,,,,,,,,,,")
+                            .append(csv(error)).append('\n');
+                    break;
+                default:
+                    sb.append("{\"league\":\"").append(WebServer.escape(job.league))
+                            .append("\",\"season\":\"").append(WebServer.escape(job.season))
+                            .append("\",\"error\":\"").append(WebServer.escape(error)).append("\"}\n");
+            }
+            return sb.toString();
+        }
+
+        if (format == Format.JSON) {
+            sb.append("{\"league\":\"").append(WebServer.escape(job.league))
+                    .append("\",\"season\":\"").append(WebServer.escape(job.season))
+                    .append("\",\"standings\":[");
+        } else if (format == Format.TEXT) {
+            sb.append('\n');
+            appendTextHeader(sb, snapshot);
+        }
+        int from = group < 0 ? 0 : group;
+        int to = group < 0 ? snapshot.groupCount() : group + 1;
+        for (int g = from; g < to; g++) {
+            switch (format) {
+                case TEXT:
+                    appendTextTable(sb, snapshot, g);
+                    break;
+                case CSV:
+                    appendCsvTable(sb, job, snapshot, g);
+                    break;
+                default:
+                    appendJsonTable(sb, snapshot, g, g > from);
+            }
+        }
+
+        if (format == Format.JSON) {
+            sb.append("],\"predictions\":[");
+        } else if (format == Format.TEXT && !job.pairs.isEmpty()) {
+            sb.append('\n');
+        }
+        for (int i = 0; i < job.pairs.size(); i++) {
+            String[] pair = job.pairs.get(i);
+            String team1 = pair[0].replace('_', ' ');
+            String team2 = pair[1].replace('_', ' ');
+            try {
+                int[] rows = WebServer.resolvePair(snapshot, group,
+                        team1.startsWith("#") ? null : team1, team1.startsWith("#") ? team1.substring(1) : null,
+                        team2.startsWith("#") ? null : team2, team2.startsWith("#") ? team2.substring(1) : null);
+                appendPrediction(sb, job, snapshot, rows[0], rows[1], rows[2], format, i > 0);
+            } catch (WebServer.TeamLookupException e) {
+                String message = pair[0] + ":" + pair[1] + ": " + e.getMessage();
+                switch (format) {
+                    case TEXT:
+                        sb.append(message).append('\n');
+                        break;
+                    case CSV:
+                        sb.append("error,").append(job.league).append(',').append(job.season).append(",,,,,,,,,,,,,,,,,,")
+                                .append(csv(message)).append('\n');
+                        break;
+                    default:
+                        if (i > 0) sb.append(',');
+                        sb.append("{\"error\":\"").append(WebServer.escape(message)).append("\"}");
+                }
+            }
+        }
+        if (format == Format.JSON) {
+            sb.append("]}\n");
+        }
+        return sb.toString();
+    }
+
+    private static void appendPrediction(StringBuilder sb, Job job, StandingsSnapshot snapshot,
+                                         int row1, int row2, int group, Format format, boolean comma) {
+        int prediction = PredictionEngine.predict(snapshot, row1, row2);
+        int result = PredictionEngine.result(prediction);
+        String name1 = String.valueOf(snapshot.teamName(row1));
+        String name2 = String.valueOf(snapshot.teamName(row2));
+        int first = snapshot.row(group, 0);
+        switch (format) {
+            case TEXT:
+                sb.append(name1).append(" (").append(PredictionEngine.score1(prediction)).append(") vs ")
+                        .append(name2).append(" (").append(PredictionEngine.score2(prediction)).append("): ")
+                        .append(result == PredictionEngine.TEAM1 ? name1 : result == PredictionEngine.TEAM2 ? name2 : "draw")
+                        .append('\n');
+                break;
+            case CSV:
+                sb.append("prediction,").append(job.league).append(',').append(job.season).append(',')
+                        .append(csv(snapshot.groupName(group))).append(',').append(row1 - first + 1).append(',')
+                        .append(snapshot.teamId(row1)).append(',').append(csv(name1)).append(",,,,,,,,,")
+                        .append(snapshot.teamId(row2)).append(',').append(csv(name2)).append(',')
+                        .append(PredictionEngine.score1(prediction)).append(',')
+                        .append(PredictionEngine.score2(prediction)).append(',')
+                        .append(PredictionEngine.resultName(result)).append(",\n");
+                break;
+            default:
+                if (comma) sb.append(',');
+                sb.append(WebServer.predictJson(job.league, job.season, row1 - first + 1, row2 - first + 1,
+                        name1, name2, prediction));
+        }
+    }
+
+    /** The league lines {@link LeagueRequest#setLiga} has always printed before its tables. */
+    static void appendTextHeader(StringBuilder sb, StandingsSnapshot s) {
+        sb.append('\n')
+                .append("id: ").append(s.getLeagueId()).append('\n')
+                .append(s.getSeason()).append('\n')
+                .append(s.getCountry()).append('\n')
+                .append(s.getLeagueName()).append('\n');
+    }
+
+    /**
+     * One group as a fixed-width table: the columns start where the
+     * {@code printf} chains of the interactive CLI put them.
+     */
+    static void appendTextTable(StringBuilder sb, StandingsSnapshot s, int group) {
+        int id = s.getLeagueId();
+        if (s.groupCount() > 1 || id == 1 || id == 2 || id == 3) {
+            sb.append('\n').append(s.groupName(group)).append('\n');
+        }
+        sb.append('\n')
+                .append("rank    team             PL    W     L     D    SC      AG    GD    PO\n")
+                .append("-----------------------------------------------------------------------\n");
+        StandingsSnapshot.Split all = s.all();
+        int end = s.row(group, s.groupSize(group));
+        for (int row = s.row(group, 0); row < end; row++) {
+            String rank = String.valueOf(s.rank(row));
+            String name = String.valueOf(s.teamName(row));
+            if (name.length() > 17) {
+                name = name.substring(0, 17);
+            }
+            sb.append(' ').append(rank).append("    ").append(name);
+            pad(sb, all.played(row), Math.max(1, 21 - name.length() - rank.length()));
+            pad(sb, all.win(row), 6);
+            pad(sb, all.lose(row), 6);
+            pad(sb, all.draw(row), 6);
+            pad(sb, all.goalsFor(row), 6);
+            pad(sb, all.goalsAgainst(row), 8);
+            pad(sb, s.goalsDiff(row), 6);
+            pad(sb, s.points(row), 6);
+            sb.append('\n');
+        }
+    }
+
+    private static void appendCsvTable(StringBuilder sb, Job job, StandingsSnapshot s, int group) {
+        StandingsSnapshot.Split all = s.all();
+        String groupName = csv(s.groupName(group));
+        int first = s.row(group, 0);
+        int end = s.row(group, s.groupSize(group));
+        for (int row = first; row < end; row++) {
+            sb.append("standing,").append(job.league).append(',').append(job.season).append(',')
+                    .append(groupName).append(',').append(s.rank(row)).append(',')
+                    .append(s.teamId(row)).append(',').append(csv(s.teamName(row))).append(',')
+                    .append(all.played(row)).append(',').append(all.win(row)).append(',')
+                    .append(all.draw(row)).append(',').append(all.lose(row)).append(',')
+                    .append(all.goalsFor(row)).append(',').append(all.goalsAgainst(row)).append(',')
+                    .append(s.goalsDiff(row)).append(',').append(s.points(row)).append(",,,,,,\n");
+        }
+    }
+
+    private static void appendJsonTable(StringBuilder sb, StandingsSnapshot s, int group, boolean comma) {
+        StandingsSnapshot.Split all = s.all();
+        String groupName = WebServer.escape(String.valueOf(s.groupName(group)));
+        int end = s.row(group, s.groupSize(group));
+        for (int row = s.row(group, 0); row < end; row++) {
+            if (comma || row > s.row(group, 0)) sb.append(',');
+            sb.append("{\"group\":\"").append(groupName)
+                    .append("\",\"rank\":").append(s.rank(row))
+                    .append(",\"id\":").append(s.teamId(row))
+                    .append(",\"name\":\"").append(WebServer.escape(String.valueOf(s.teamName(row))))
+                    .append("\",\"played\":").append(all.played(row))
+                    .append(",\"win\":").append(all.win(row))
+                    .append(",\"draw\":").append(all.draw(row))
+                    .append(",\"lose\":").append(all.lose(row))
+                    .append(",\"goalsFor\":").append(all.goalsFor(row))
+                    .append(",\"goalsAgainst\":").append(all.goalsAgainst(row))
+                    .append(",\"goalsDiff\":").append(s.goalsDiff(row))
+                    .append(",\"points\":").append(s.points(row))
+                    .append('}');
+        }
+    }
+
+    private static void pad(StringBuilder sb, int value, int width) {
+        int start = sb.length();
+        sb.append(value);
+        int length = sb.length() - start;
+        for (int i = length; i < width; i++) {
+            sb.insert(start, ' ');
+        }
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) {
+            throw new IllegalArgumentException(option + " needs a value");
+        }
+        return args[i];
+    }
+
+    private static int positive(String value, String option) {
+        try {
+            int v = Integer.parseInt(value);
+            if (v > 0) {
+                return v;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " must be a positive integer");
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.scoreprediction;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code POST /predict/batch}: many team pairs, possibly across leagues, in one
+ * round trip.
+ *
+ * The body is a JSON array of {@code {league, season, team1, team2[, group]}}.
+ * Pairs are grouped by (league, season) so each standings snapshot is loaded
+ * once; snapshots load in parallel and each pair is evaluated as soon as its
+ * snapshot is ready. Results are streamed back as a JSON array in input order,
+ * one element per pair, either a prediction or {@code {"index":i,"error":...}}.
+ */
+class BatchPredictHandler implements HttpHandler {
+
+    static final class Item {
+        String league;
+        String season;
+        Integer team1;
+        Integer team2;
+        String group;
+    }
+
+    private static final int MAX_ITEMS = Config.intValue("BATCH_MAX_ITEMS", 1000);
+
+    private static final AtomicInteger loaderThreads = new AtomicInteger();
+    private static final ExecutorService loaders = Executors.newFixedThreadPool(
+            Config.intValue("BATCH_PARALLELISM", 8), r -> {
+                Thread t = new Thread(r, "batch-loader-" + loaderThreads.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final Gson gson = new Gson();
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        WebServer.addCorsAndContentType(exchange.getResponseHeaders());
+
+        if (!"POST".equalsIgnoreCase(exchange.getRequestMethod())) {
+            WebServer.sendJson(exchange, 405, "{\"error\":\"Method Not Allowed\"}");
+            return;
+        }
+
+        Item[] items;
+        try (Reader reader = new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8)) {
+            items = gson.fromJson(reader, Item[].class);
+        } catch (JsonParseException e) {
+            WebServer.sendJson(exchange, 400, "{\"error\":\"Body must be a JSON array of {league, season, team1, team2}\"}");
+            return;
+        }
+        if (items == null || items.length == 0) {
+            WebServer.sendJson(exchange, 400, "{\"error\":\"Body must be a non-empty JSON array\"}");
+            return;
+        }
+        if (items.length > MAX_ITEMS) {
+            WebServer.sendJson(exchange, 413, "{\"error\":\"At most " + MAX_ITEMS + " pairs per batch\"}");
+            return;
+        }
+
+        List<CompletableFuture<String>> results = evaluate(items);
+
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write('[');
+            for (int i = 0; i < results.size(); i++) {
+                if (i > 0) {
+                    os.write(',');
+                }
+                os.write(results.get(i).join().getBytes(StandardCharsets.UTF_8));
+                os.flush();
+            }
+            os.write(']');
+        }
+    }
+
+    private List<CompletableFuture<String>> evaluate(Item[] items) {
+        Map<UpstreamCache.Key, CompletableFuture<UpstreamCache.Entry<StandingsPayload>>> snapshots = new LinkedHashMap<>();
+        List<CompletableFuture<String>> results = new ArrayList<>(items.length);
+        for (int i = 0; i < items.length; i++) {
+            Item item = items[i];
+            int index = i;
+            String invalid = validate(item);
+            if (invalid != null) {
+                results.add(CompletableFuture.completedFuture(error(index, invalid)));
+                continue;
+            }
+            UpstreamCache.Key key = new UpstreamCache.Key(item.league, item.season);
+            CompletableFuture<UpstreamCache.Entry<StandingsPayload>> snapshot = snapshots.computeIfAbsent(key,
+                    k -> CompletableFuture.supplyAsync(() -> load(k), loaders));
+            results.add(snapshot
+                    .thenApply(entry -> predict(index, item, entry.value.snapshot))
+                    .exceptionally(t -> error(index, message(t))));
+        }
+        return results;
+    }
+
+    private static UpstreamCache.Entry<StandingsPayload> load(UpstreamCache.Key key) {
+        try {
+            return WebServer.standingsCache.getEntry(key.league, key.season);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    private static String validate(Item item) {
+        if (item == null || item.league == null || item.league.isBlank()
+                || item.season == null || item.season.isBlank()
+                || item.team1 == null || item.team2 == null) {
+            return "Missing required fields: league, season, team1, team2";
+        }
+        if (item.team1 <= 0 || item.team2 <= 0) {
+            return "team1 and team2 must be positive (1-based)";
+        }
+        return null;
+    }
+
+    private static String predict(int index, Item item, StandingsSnapshot snapshot) {
+        if (snapshot.isEmpty()) {
+            return error(index, "Unexpected API response");
+        }
+        int group = 0;
+        if (item.group != null && !item.group.isBlank()) {
+            group = snapshot.groupIndex(item.group);
+            if (group < 0) {
+                return error(index, "Unknown group: " + item.group);
+            }
+        }
+        int size = snapshot.groupSize(group);
+        if (item.team1 > size || item.team2 > size) {
+            return error(index, "team1 and team2 must be between 1 and " + size);
+        }
+        int row1 = snapshot.row(group, item.team1 - 1);
+        int row2 = snapshot.row(group, item.team2 - 1);
+        int prediction = PredictionEngine.predict(snapshot, row1, row2);
+        String json = WebServer.predictJson(item.league.trim(), item.season.trim(), item.team1, item.team2,
+                String.valueOf(snapshot.teamName(row1)), String.valueOf(snapshot.teamName(row2)), prediction);
+        return "{\"index\":" + index + "," + json.substring(1);
+    }
+
+    private static String error(int index, String message) {
+        return "{\"index\":" + index + ",\"error\":\"" + WebServer.escape(message) + "\"}";
+    }
+
+    private static String message(Throwable t) {
+        Throwable cause = t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+        return cause.getMessage() == null ? "Internal Server Error" : cause.getMessage();
+    }
+}
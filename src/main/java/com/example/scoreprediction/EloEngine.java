@@ -0,0 +1,64 @@
+package com.example.scoreprediction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link EloRatings} per (league, season), brought up to date with the
+ * latest fixtures on use and saved under {@code dir} whenever new results were
+ * applied, so a restart resumes from the saved ratings instead of replaying
+ * the season. With {@code dir == null} ratings are kept in memory only.
+ */
+final class EloEngine {
+
+    private final Path dir;
+    private final ConcurrentHashMap<UpstreamCache.Key, EloRatings> ratings = new ConcurrentHashMap<>();
+
+    EloEngine(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * {rating of home, rating of away, P(home win), P(draw), P(away win)} after
+     * applying any new results in {@code fixtures}.
+     */
+    double[] predict(String league, String season, FixturesSnapshot fixtures, int homeId, int awayId) throws IOException {
+        EloRatings r = update(league, season, fixtures);
+        synchronized (r) {
+            double[] outcome = r.outcome(homeId, awayId);
+            return new double[] {r.rating(homeId), r.rating(awayId), outcome[0], outcome[1], outcome[2]};
+        }
+    }
+
+    EloRatings update(String league, String season, FixturesSnapshot fixtures) throws IOException {
+        UpstreamCache.Key key = new UpstreamCache.Key(league, season);
+        EloRatings r;
+        try {
+            r = ratings.computeIfAbsent(key, k -> {
+                try {
+                    return dir == null ? new EloRatings() : EloRatings.load(file(k));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        synchronized (r) {
+            if (r.ingest(fixtures) > 0 && dir != null) {
+                r.save(file(key));
+            }
+        }
+        return r;
+    }
+
+    private Path file(UpstreamCache.Key key) {
+        return dir.resolve("elo-" + safe(key.league) + "-" + safe(key.season) + ".bin");
+    }
+
+    private static String safe(String s) {
+        return s.replaceAll("[^A-Za-z0-9_.-]", "_");
+    }
+}
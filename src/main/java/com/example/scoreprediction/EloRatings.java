@@ -0,0 +1,244 @@
+package com.example.scoreprediction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/**
+ * Elo ratings of one league and season, built from its completed fixtures.
+ *
+ * Ratings live in primitive arrays indexed through an open-addressing map of
+ * api-sports team ids; processed fixture ids are kept in a second such set.
+ * {@link #ingest} walks a fixtures snapshot in kick-off order and applies
+ * every finished match it has not seen before, so each match costs O(1) once
+ * and a new matchday only touches the new results. The whole state can be
+ * written to and read back from a small binary file.
+ *
+ * Updates follow the World Football Elo scheme: home advantage
+ * {@value #HOME_ADVANTAGE} points, K = {@value #K}, scaled up for wins by two
+ * goals or more. Not thread-safe; {@link EloEngine} serialises access.
+ */
+public final class EloRatings {
+
+    static final double INITIAL = 1500;
+    static final double HOME_ADVANTAGE = 65;
+    static final double K = 20;
+    // draw probability at equal strength; shrinks linearly as one side becomes the favourite
+    static final double MAX_DRAW = 0.3;
+
+    private static final int MAGIC = 0x454C4F31; // "ELO1"
+    private static final int EMPTY = 0;
+
+    // open addressing: teamKeys holds the team id (0 = free cell, api-sports ids are positive), teamSlots its array slot
+    private int[] teamKeys = new int[64];
+    private int[] teamSlots = new int[64];
+    private int teams;
+    private int[] teamIds = new int[32];
+    private double[] rating = new double[32];
+    private int[] games = new int[32];
+
+    private int[] fixtureKeys = new int[1024];
+    private int fixtures;
+
+    // the snapshot last ingested, so an unchanged fixtures list is not rescanned
+    private FixturesSnapshot lastIngested;
+
+    public int teamCount() {
+        return teams;
+    }
+
+    public int processedCount() {
+        return fixtures;
+    }
+
+    /** Rating of {@code teamId}, or {@link #INITIAL} for a team without results. */
+    public double rating(int teamId) {
+        int slot = slot(teamId);
+        return slot < 0 ? INITIAL : rating[slot];
+    }
+
+    public int games(int teamId) {
+        int slot = slot(teamId);
+        return slot < 0 ? 0 : games[slot];
+    }
+
+    /** Applies every finished, not yet processed fixture in order; returns how many. */
+    public int ingest(FixturesSnapshot snapshot) {
+        if (snapshot == lastIngested) {
+            return 0;
+        }
+        int applied = 0;
+        for (int i = 0; i < snapshot.size(); i++) {
+            if (!snapshot.isFinished(i) || snapshot.homeGoals(i) < 0 || snapshot.awayGoals(i) < 0
+                    || snapshot.fixtureId(i) == EMPTY || snapshot.homeId(i) == EMPTY || snapshot.awayId(i) == EMPTY) {
+                continue;
+            }
+            if (!markProcessed(snapshot.fixtureId(i))) {
+                continue;
+            }
+            apply(snapshot.homeId(i), snapshot.awayId(i), snapshot.homeGoals(i), snapshot.awayGoals(i));
+            applied++;
+        }
+        lastIngested = snapshot;
+        return applied;
+    }
+
+    void apply(int homeId, int awayId, int homeGoals, int awayGoals) {
+        int h = slotFor(homeId);
+        int a = slotFor(awayId);
+        double expected = expectedHome(rating[h], rating[a]);
+        double actual = homeGoals > awayGoals ? 1 : homeGoals == awayGoals ? 0.5 : 0;
+        double delta = K * margin(Math.abs(homeGoals - awayGoals)) * (actual - expected);
+        rating[h] += delta;
+        rating[a] -= delta;
+        games[h]++;
+        games[a]++;
+    }
+
+    /** Expected score (win = 1, draw = 1/2) of the home side. */
+    static double expectedHome(double home, double away) {
+        return 1 / (1 + Math.pow(10, (away - home - HOME_ADVANTAGE) / 400));
+    }
+
+    private static double margin(int goals) {
+        if (goals <= 1) return 1;
+        if (goals == 2) return 1.5;
+        return (11.0 + goals) / 8;
+    }
+
+    /** {home win, draw, away win} for {@code homeId} hosting {@code awayId}. */
+    public double[] outcome(int homeId, int awayId) {
+        double e = expectedHome(rating(homeId), rating(awayId));
+        double draw = MAX_DRAW * (1 - Math.abs(2 * e - 1));
+        return new double[] {e - draw / 2, draw, 1 - e - draw / 2};
+    }
+
+    private int slot(int teamId) {
+        int mask = teamKeys.length - 1;
+        for (int i = mix(teamId) & mask; ; i = (i + 1) & mask) {
+            if (teamKeys[i] == EMPTY) return -1;
+            if (teamKeys[i] == teamId) return teamSlots[i];
+        }
+    }
+
+    private int slotFor(int teamId) {
+        int slot = slot(teamId);
+        if (slot >= 0) {
+            return slot;
+        }
+        if (teams == teamIds.length) {
+            teamIds = Arrays.copyOf(teamIds, teams * 2);
+            rating = Arrays.copyOf(rating, teams * 2);
+            games = Arrays.copyOf(games, teams * 2);
+        }
+        slot = teams++;
+        teamIds[slot] = teamId;
+        rating[slot] = INITIAL;
+        if (teams * 2 > teamKeys.length) {
+            rehashTeams(teamKeys.length * 2);
+        } else {
+            insertTeam(teamId, slot);
+        }
+        return slot;
+    }
+
+    private void insertTeam(int teamId, int slot) {
+        int mask = teamKeys.length - 1;
+        int i = mix(teamId) & mask;
+        while (teamKeys[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        teamKeys[i] = teamId;
+        teamSlots[i] = slot;
+    }
+
+    private void rehashTeams(int capacity) {
+        teamKeys = new int[capacity];
+        teamSlots = new int[capacity];
+        for (int s = 0; s < teams; s++) {
+            insertTeam(teamIds[s], s);
+        }
+    }
+
+    /** Adds {@code fixtureId} to the processed set; false if it was there already. */
+    private boolean markProcessed(int fixtureId) {
+        if ((fixtures + 1) * 2 > fixtureKeys.length) {
+            int[] old = fixtureKeys;
+            fixtureKeys = new int[old.length * 2];
+            for (int key : old) {
+                if (key != EMPTY) insertFixture(key);
+            }
+        }
+        return insertFixture(fixtureId);
+    }
+
+    private boolean insertFixture(int fixtureId) {
+        int mask = fixtureKeys.length - 1;
+        for (int i = mix(fixtureId) & mask; ; i = (i + 1) & mask) {
+            if (fixtureKeys[i] == fixtureId) return false;
+            if (fixtureKeys[i] == EMPTY) {
+                fixtureKeys[i] = fixtureId;
+                fixtures++;
+                return true;
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /** Writes the ratings and the processed fixture ids to {@code file}, atomically. */
+    public void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(teams);
+            for (int s = 0; s < teams; s++) {
+                out.writeInt(teamIds[s]);
+                out.writeDouble(rating[s]);
+                out.writeInt(games[s]);
+            }
+            out.writeInt(fixtures);
+            for (int key : fixtureKeys) {
+                if (key != EMPTY) out.writeInt(key);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Reads a file written by {@link #save}, or returns empty ratings if there is none. */
+    public static EloRatings load(Path file) throws IOException {
+        EloRatings r = new EloRatings();
+        if (!Files.exists(file)) {
+            return r;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not an Elo ratings file");
+            }
+            int teams = in.readInt();
+            for (int s = 0; s < teams; s++) {
+                int slot = r.slotFor(in.readInt());
+                r.rating[slot] = in.readDouble();
+                r.games[slot] = in.readInt();
+            }
+            int fixtures = in.readInt();
+            for (int f = 0; f < fixtures; f++) {
+                r.markProcessed(in.readInt());
+            }
+        }
+        return r;
+    }
+}
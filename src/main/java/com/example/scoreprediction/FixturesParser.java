@@ -0,0 +1,323 @@
+package com.example.scoreprediction;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+
+/**
+ * Single-pass streaming parser for the api-sports {@code /fixtures} payload,
+ * in the same style as {@link StandingsParser}: ids, kick-off, status, round
+ * and goals go straight into columns, everything else is skipped.
+ */
+public final class FixturesParser {
+
+    private FixturesParser() {
+    }
+
+    public static FixturesSnapshot parse(String json) throws IOException {
+        return parse(new StringReader(json));
+    }
+
+    public static FixturesSnapshot parse(Reader in) throws IOException {
+        Builder b = new Builder();
+        try (JsonReader reader = new JsonReader(in)) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return FixturesSnapshot.EMPTY;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("response".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                            readFixture(reader, b);
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return b.build();
+    }
+
+    /** api-sports short status codes; live matches still have to be played out. */
+    static byte state(String status) {
+        if (status == null) {
+            return FixturesSnapshot.VOID;
+        }
+        switch (status) {
+            case "FT":
+            case "AET":
+            case "PEN":
+            case "AWD":
+            case "WO":
+                return FixturesSnapshot.FINISHED;
+            case "TBD":
+            case "NS":
+            case "PST":
+            case "1H":
+            case "HT":
+            case "2H":
+            case "ET":
+            case "BT":
+            case "P":
+            case "SUSP":
+            case "INT":
+            case "LIVE":
+                return FixturesSnapshot.SCHEDULED;
+            default:
+                return FixturesSnapshot.VOID;
+        }
+    }
+
+    /**
+     * Whether an api-sports {@code league.round} is past the table: anything
+     * but {@code "Regular Season - n"}, {@code "Group A - n"} and the like.
+     * A missing round counts as part of the table.
+     */
+    static boolean knockout(String round) {
+        if (round == null) {
+            return false;
+        }
+        return !(round.startsWith("Regular Season") || round.startsWith("Group") || round.startsWith("League Stage"));
+    }
+
+    private static void readFixture(JsonReader reader, Builder b) throws IOException {
+        int i = b.beginFixture();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "fixture":
+                    readFixtureInfo(reader, b, i);
+                    break;
+                case "league":
+                    b.knockout[i] = knockout(readRound(reader));
+                    break;
+                case "teams":
+                    readTeams(reader, b, i);
+                    break;
+                case "goals":
+                    readGoals(reader, b, i);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readFixtureInfo(JsonReader reader, Builder b, int i) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    b.fixtureId[i] = StandingsParser.readInt(reader);
+                    break;
+                case "timestamp":
+                    b.timestamp[i] = readLong(reader);
+                    break;
+                case "status":
+                    b.state[i] = state(readStatus(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static String readStatus(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String status = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("short".equals(reader.nextName())) {
+                status = StandingsParser.readString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return status;
+    }
+
+    private static String readRound(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return null;
+        }
+        String round = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("round".equals(reader.nextName())) {
+                round = StandingsParser.readString(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return round;
+    }
+
+    private static void readTeams(JsonReader reader, Builder b, int i) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String side = reader.nextName();
+            if (("home".equals(side) || "away".equals(side)) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                boolean home = "home".equals(side);
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    switch (reader.nextName()) {
+                        case "id":
+                            (home ? b.homeId : b.awayId)[i] = StandingsParser.readInt(reader);
+                            break;
+                        case "name":
+                            (home ? b.homeName : b.awayName)[i] = StandingsParser.readString(reader);
+                            break;
+                        default:
+                            reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readGoals(JsonReader reader, Builder b, int i) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "home":
+                    b.homeGoals[i] = readGoalCount(reader);
+                    break;
+                case "away":
+                    b.awayGoals[i] = readGoalCount(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static int readGoalCount(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return -1;
+        }
+        return StandingsParser.readInt(reader);
+    }
+
+    private static long readLong(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            try {
+                return reader.nextLong();
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        reader.skipValue();
+        return 0;
+    }
+
+    private static final class Builder {
+        int count;
+        int[] fixtureId = new int[64];
+        long[] timestamp = new long[64];
+        byte[] state = new byte[64];
+        boolean[] knockout = new boolean[64];
+        int[] homeId = new int[64];
+        int[] awayId = new int[64];
+        String[] homeName = new String[64];
+        String[] awayName = new String[64];
+        int[] homeGoals = new int[64];
+        int[] awayGoals = new int[64];
+
+        int beginFixture() {
+            if (count == fixtureId.length) {
+                int capacity = count * 2;
+                fixtureId = Arrays.copyOf(fixtureId, capacity);
+                timestamp = Arrays.copyOf(timestamp, capacity);
+                state = Arrays.copyOf(state, capacity);
+                knockout = Arrays.copyOf(knockout, capacity);
+                homeId = Arrays.copyOf(homeId, capacity);
+                awayId = Arrays.copyOf(awayId, capacity);
+                homeName = Arrays.copyOf(homeName, capacity);
+                awayName = Arrays.copyOf(awayName, capacity);
+                homeGoals = Arrays.copyOf(homeGoals, capacity);
+                awayGoals = Arrays.copyOf(awayGoals, capacity);
+            }
+            state[count] = FixturesSnapshot.VOID;
+            homeGoals[count] = -1;
+            awayGoals[count] = -1;
+            return count++;
+        }
+
+        /** Columns sorted by kick-off, then fixture id. */
+        FixturesSnapshot build() {
+            if (count == 0) {
+                return FixturesSnapshot.EMPTY;
+            }
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (x, y) -> timestamp[x] != timestamp[y]
+                    ? Long.compare(timestamp[x], timestamp[y])
+                    : Integer.compare(fixtureId[x], fixtureId[y]));
+            int[] fid = new int[count];
+            long[] ts = new long[count];
+            byte[] st = new byte[count];
+            boolean[] ko = new boolean[count];
+            int[] hid = new int[count];
+            int[] aid = new int[count];
+            String[] hn = new String[count];
+            String[] an = new String[count];
+            int[] hg = new int[count];
+            int[] ag = new int[count];
+            for (int k = 0; k < count; k++) {
+                int i = order[k];
+                fid[k] = fixtureId[i];
+                ts[k] = timestamp[i];
+                st[k] = state[i];
+                ko[k] = knockout[i];
+                hid[k] = homeId[i];
+                aid[k] = awayId[i];
+                hn[k] = homeName[i];
+                an[k] = awayName[i];
+                hg[k] = homeGoals[i];
+                ag[k] = awayGoals[i];
+            }
+            return new FixturesSnapshot(fid, ts, st, ko, hid, aid, hn, an, hg, ag);
+        }
+    }
+}
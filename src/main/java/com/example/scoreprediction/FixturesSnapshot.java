@@ -0,0 +1,95 @@
+package com.example.scoreprediction;
+
+/**
+ * Immutable, column-oriented view of one api-sports {@code /fixtures} payload
+ * (all matches of a league and season), in kick-off order.
+ *
+ * Goals are {@code -1} for matches that have not been played. Knockout
+ * matches (cup rounds after the groups, play-offs after a league's regular
+ * season) are kept but flagged, as they do not count towards a table.
+ */
+public final class FixturesSnapshot {
+
+    static final byte SCHEDULED = 0;
+    static final byte FINISHED = 1;
+    // cancelled, abandoned, ...: neither played out nor still to play
+    static final byte VOID = 2;
+
+    static final FixturesSnapshot EMPTY = new FixturesSnapshot(new int[0], new long[0], new byte[0], new boolean[0],
+            new int[0], new int[0], new String[0], new String[0], new int[0], new int[0]);
+
+    final int[] fixtureId;
+    final long[] timestamp;
+    final byte[] state;
+    final boolean[] knockout;
+    final int[] homeId;
+    final int[] awayId;
+    final String[] homeName;
+    final String[] awayName;
+    final int[] homeGoals;
+    final int[] awayGoals;
+
+    FixturesSnapshot(int[] fixtureId, long[] timestamp, byte[] state, boolean[] knockout, int[] homeId, int[] awayId,
+                     String[] homeName, String[] awayName, int[] homeGoals, int[] awayGoals) {
+        this.fixtureId = fixtureId;
+        this.timestamp = timestamp;
+        this.state = state;
+        this.knockout = knockout;
+        this.homeId = homeId;
+        this.awayId = awayId;
+        this.homeName = homeName;
+        this.awayName = awayName;
+        this.homeGoals = homeGoals;
+        this.awayGoals = awayGoals;
+    }
+
+    public int size() {
+        return fixtureId.length;
+    }
+
+    public boolean isFinished(int i) {
+        return state[i] == FINISHED;
+    }
+
+    public boolean isScheduled(int i) {
+        return state[i] == SCHEDULED;
+    }
+
+    /** Not a group-stage or regular-season match, so not part of any table. */
+    public boolean isKnockout(int i) {
+        return knockout[i];
+    }
+
+    public int fixtureId(int i) {
+        return fixtureId[i];
+    }
+
+    /** Kick-off, epoch seconds. */
+    public long timestamp(int i) {
+        return timestamp[i];
+    }
+
+    public int homeId(int i) {
+        return homeId[i];
+    }
+
+    public int awayId(int i) {
+        return awayId[i];
+    }
+
+    public int homeGoals(int i) {
+        return homeGoals[i];
+    }
+
+    public int awayGoals(int i) {
+        return awayGoals[i];
+    }
+
+    public int scheduledCount() {
+        int count = 0;
+        for (byte s : state) {
+            if (s == SCHEDULED) count++;
+        }
+        return count;
+    }
+}
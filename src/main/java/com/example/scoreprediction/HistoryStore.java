@@ -0,0 +1,305 @@
+package com.example.scoreprediction;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Standings rows of many (league, season) snapshots, for questions across
+ * seasons such as how a team's points per game developed.
+ *
+ * Rows live off-heap, one direct {@link IntBuffer} per column, so millions of
+ * them cost the garbage collector nothing; the buffers double when full. Each
+ * team id maps to the list of its row numbers, so a team query reads only its
+ * own rows, straight from the columns. Adding a snapshot of a (league, season)
+ * already held retires the old rows by zeroing their team id; queries skip
+ * them, and once they make up half the store it is rewritten without them,
+ * so a table refreshed every few minutes does not grow the store. Reads share
+ * a read lock, adds take the write lock.
+ */
+public final class HistoryStore {
+
+    /** One team's rows, oldest season first, as parallel columns. */
+    public static final class TeamHistory {
+        final int teamId;
+        final String teamName;
+        final int size;
+        final int[] league;
+        final int[] season;
+        final int[] rank;
+        final int[] points;
+        final int[] played;
+        final int[] win;
+        final int[] draw;
+        final int[] lose;
+        final int[] goalsFor;
+        final int[] goalsAgainst;
+
+        private TeamHistory(int teamId, String teamName, int size) {
+            this.teamId = teamId;
+            this.teamName = teamName;
+            this.size = size;
+            this.league = new int[size];
+            this.season = new int[size];
+            this.rank = new int[size];
+            this.points = new int[size];
+            this.played = new int[size];
+            this.win = new int[size];
+            this.draw = new int[size];
+            this.lose = new int[size];
+            this.goalsFor = new int[size];
+            this.goalsAgainst = new int[size];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public int season(int i) {
+            return season[i];
+        }
+
+        public int league(int i) {
+            return league[i];
+        }
+
+        public int points(int i) {
+            return points[i];
+        }
+
+        public double pointsPerGame(int i) {
+            return played[i] == 0 ? 0 : (double) points[i] / played[i];
+        }
+
+        public byte[] toJson() {
+            StringBuilder sb = new StringBuilder(128 + size * 200);
+            sb.append("{\"team\":{\"id\":").append(teamId)
+                    .append(",\"name\":");
+            if (teamName == null) {
+                sb.append("null");
+            } else {
+                sb.append('"').append(WebServer.escape(teamName)).append('"');
+            }
+            sb.append("},\"seasons\":[");
+            for (int i = 0; i < size; i++) {
+                if (i > 0) sb.append(',');
+                sb.append("{\"league\":").append(league[i])
+                        .append(",\"season\":").append(season[i])
+                        .append(",\"rank\":").append(rank[i])
+                        .append(",\"played\":").append(played[i])
+                        .append(",\"points\":").append(points[i])
+                        .append(",\"pointsPerGame\":").append(WebServer.round6(pointsPerGame(i)))
+                        .append(",\"win\":").append(win[i])
+                        .append(",\"draw\":").append(draw[i])
+                        .append(",\"lose\":").append(lose[i])
+                        .append(",\"goalsFor\":").append(goalsFor[i])
+                        .append(",\"goalsAgainst\":").append(goalsAgainst[i])
+                        .append('}');
+            }
+            sb.append("]}");
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static final int LEAGUE = 0;
+    private static final int SEASON = 1;
+    private static final int TEAM = 2;
+    private static final int RANK = 3;
+    private static final int POINTS = 4;
+    private static final int PLAYED = 5;
+    private static final int WIN = 6;
+    private static final int DRAW = 7;
+    private static final int LOSE = 8;
+    private static final int GOALS_FOR = 9;
+    private static final int GOALS_AGAINST = 10;
+    private static final int COLUMNS = 11;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // guarded by "lock"
+    private final IntBuffer[] columns = new IntBuffer[COLUMNS];
+    private int capacity;
+    private int rows;
+    private int retired;
+    // (league << 32 | season) -> {first row, end row}
+    private final Map<Long, int[]> snapshots = new HashMap<>();
+    // team id -> row numbers; [0] is the count
+    private final Map<Integer, int[]> teamRows = new HashMap<>();
+    private final Map<Integer, String> teamNames = new HashMap<>();
+
+    public HistoryStore() {
+        this(4096);
+    }
+
+    public HistoryStore(int initialRows) {
+        allocate(Math.max(16, initialRows));
+    }
+
+    /** Adds (or replaces) the rows of one snapshot; empty snapshots are ignored. */
+    public void add(StandingsSnapshot s) {
+        int n = s.rowCount();
+        if (n == 0) {
+            return;
+        }
+        StandingsSnapshot.Split all = s.all();
+        lock.writeLock().lock();
+        try {
+            long key = ((long) s.leagueId << 32) | (s.season & 0xFFFFFFFFL);
+            int[] previous = snapshots.remove(key);
+            if (previous != null) {
+                IntBuffer team = columns[TEAM];
+                for (int row = previous[0]; row < previous[1]; row++) {
+                    team.put(row, 0);
+                }
+                retired += previous[1] - previous[0];
+            }
+            if (retired > 0 && retired * 2 >= rows) {
+                compact();
+            }
+            if (rows + n > capacity) {
+                allocate(Math.max(capacity * 2, rows + n));
+            }
+            int first = rows;
+            for (int r = 0; r < n; r++) {
+                int row = first + r;
+                int teamId = s.teamId(r);
+                columns[LEAGUE].put(row, s.leagueId);
+                columns[SEASON].put(row, s.season);
+                columns[TEAM].put(row, teamId);
+                columns[RANK].put(row, s.rank(r));
+                columns[POINTS].put(row, s.points(r));
+                columns[PLAYED].put(row, all.played(r));
+                columns[WIN].put(row, all.win(r));
+                columns[DRAW].put(row, all.draw(r));
+                columns[LOSE].put(row, all.lose(r));
+                columns[GOALS_FOR].put(row, all.goalsFor(r));
+                columns[GOALS_AGAINST].put(row, all.goalsAgainst(r));
+                index(teamId, row);
+                if (s.teamName(r) != null) {
+                    teamNames.put(teamId, s.teamName(r));
+                }
+            }
+            rows = first + n;
+            snapshots.put(key, new int[] {first, rows});
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(int teamId, int row) {
+        int[] list = teamRows.get(teamId);
+        if (list == null) {
+            list = new int[8];
+        } else if (list[0] + 1 == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+        }
+        list[++list[0]] = row;
+        teamRows.put(teamId, list);
+    }
+
+    private void allocate(int newCapacity) {
+        for (int c = 0; c < COLUMNS; c++) {
+            IntBuffer column = ByteBuffer.allocateDirect(newCapacity * 4).asIntBuffer();
+            if (columns[c] != null) {
+                IntBuffer old = columns[c].duplicate();
+                old.position(0).limit(rows);
+                column.put(old);
+                column.clear();
+            }
+            columns[c] = column;
+        }
+        capacity = newCapacity;
+    }
+
+    /** Rewrites the live rows to the front of the columns, rebuilding the team index. */
+    private void compact() {
+        int to = 0;
+        teamRows.clear();
+        IntBuffer team = columns[TEAM];
+        // in row order, so rows only ever move down
+        int[][] ranges = snapshots.values().toArray(new int[0][]);
+        Arrays.sort(ranges, (a, b) -> Integer.compare(a[0], b[0]));
+        for (int[] range : ranges) {
+            int first = to;
+            for (int row = range[0]; row < range[1]; row++, to++) {
+                if (row != to) {
+                    for (IntBuffer column : columns) {
+                        column.put(to, column.get(row));
+                    }
+                }
+                index(team.get(to), to);
+            }
+            range[0] = first;
+            range[1] = to;
+        }
+        rows = to;
+        retired = 0;
+    }
+
+    /**
+     * Every held row of {@code teamId} with {@code from <= season <= to},
+     * ordered by season and then league; {@code null} for a team never seen.
+     */
+    public TeamHistory team(int teamId, int from, int to) {
+        lock.readLock().lock();
+        try {
+            int[] list = teamRows.get(teamId);
+            if (list == null) {
+                return null;
+            }
+            IntBuffer team = columns[TEAM];
+            IntBuffer season = columns[SEASON];
+            IntBuffer league = columns[LEAGUE];
+            // season, league and row packed so one primitive sort orders them
+            long[] keys = new long[list[0]];
+            int matched = 0;
+            for (int i = 1; i <= list[0]; i++) {
+                int row = list[i];
+                int s = season.get(row);
+                if (team.get(row) == teamId && s >= from && s <= to) {
+                    keys[matched++] = ((long) (s & 0xFFFF) << 48) | ((long) (league.get(row) & 0xFFFF) << 32) | row;
+                }
+            }
+            Arrays.sort(keys, 0, matched);
+            TeamHistory history = new TeamHistory(teamId, teamNames.get(teamId), matched);
+            for (int i = 0; i < matched; i++) {
+                int row = (int) keys[i];
+                history.league[i] = league.get(row);
+                history.season[i] = season.get(row);
+                history.rank[i] = columns[RANK].get(row);
+                history.points[i] = columns[POINTS].get(row);
+                history.played[i] = columns[PLAYED].get(row);
+                history.win[i] = columns[WIN].get(row);
+                history.draw[i] = columns[DRAW].get(row);
+                history.lose[i] = columns[LOSE].get(row);
+                history.goalsFor[i] = columns[GOALS_FOR].get(row);
+                history.goalsAgainst[i] = columns[GOALS_AGAINST].get(row);
+            }
+            return history;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Rows currently answering queries, excluding replaced ones. */
+    public int rowCount() {
+        lock.readLock().lock();
+        try {
+            return rows - retired;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int snapshotCount() {
+        lock.readLock().lock();
+        try {
+            return snapshots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
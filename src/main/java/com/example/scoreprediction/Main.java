@@ -1,8 +1,18 @@
 package com.example.scoreprediction;
 
+import java.util.Arrays;
+
 public class Main {
 
     public static void main(String[] args) throws Exception {
+		if (args.length > 0 && "backfill".equals(args[0])) {
+			Backfill.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+		if (args.length > 0 && "batch".equals(args[0])) {
+			Batch.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
 		// Delegate to the WebServer entry point so API key and handlers are set correctly.
 		WebServer.main(args);
     }
@@ -0,0 +1,240 @@
+package com.example.scoreprediction;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide counters and latency histograms, served at {@code /metrics} in
+ * the Prometheus text format.
+ *
+ * Everything on a request path is a {@link LongAdder}, an atomic array slot or
+ * a {@link LatencyHistogram}, so recording never takes a lock. Cache and quota
+ * figures are not tracked here but read from their owners at scrape time.
+ */
+final class Metrics {
+
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.95, 0.99};
+
+    /** Request counters of one server context. */
+    static final class Endpoint {
+        final String context;
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder inFlight = new LongAdder();
+        // requests per status code; slot 0 counts exchanges that ended without a valid status
+        final AtomicLongArray statuses = new AtomicLongArray(600);
+
+        Endpoint(String context) {
+            this.context = context;
+        }
+
+        void record(int status, long startNanos) {
+            latency.recordSince(startNanos);
+            statuses.incrementAndGet(status >= 100 && status < 600 ? status : 0);
+        }
+    }
+
+    static final LatencyHistogram UPSTREAM_LATENCY = new LatencyHistogram();
+    static final LongAdder UPSTREAM_ERRORS = new LongAdder();
+    static final LatencyHistogram STANDINGS_PARSE = new LatencyHistogram();
+    static final LatencyHistogram FIXTURES_PARSE = new LatencyHistogram();
+
+    private static final Map<String, Endpoint> ENDPOINTS = new ConcurrentHashMap<>();
+
+    private Metrics() {
+    }
+
+    static Endpoint endpoint(String context) {
+        return ENDPOINTS.computeIfAbsent(context, Endpoint::new);
+    }
+
+    /** Wraps {@code handler} so every exchange is counted under {@code context}. */
+    static HttpHandler instrument(String context, HttpHandler handler) {
+        Endpoint endpoint = endpoint(context);
+        return exchange -> {
+            long start = System.nanoTime();
+            endpoint.inFlight.increment();
+            try {
+                handler.handle(exchange);
+            } finally {
+                endpoint.inFlight.decrement();
+                endpoint.record(exchange.getResponseCode(), start);
+            }
+        };
+    }
+
+    static final class Handler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    static String scrape() {
+        StringBuilder sb = new StringBuilder(4096);
+        Endpoint[] endpoints = ENDPOINTS.values().toArray(new Endpoint[0]);
+
+        header(sb, "scoreprediction_http_requests_total", "counter", "HTTP requests by context and status code.");
+        for (Endpoint e : endpoints) {
+            for (int status = 0; status < e.statuses.length(); status++) {
+                long n = e.statuses.get(status);
+                if (n > 0) {
+                    sample(sb, "scoreprediction_http_requests_total",
+                            "context=\"" + e.context + "\",status=\"" + (status == 0 ? "none" : status) + "\"", n);
+                }
+            }
+        }
+        header(sb, "scoreprediction_http_requests_in_flight", "gauge", "HTTP requests being handled.");
+        for (Endpoint e : endpoints) {
+            sample(sb, "scoreprediction_http_requests_in_flight", "context=\"" + e.context + "\"", e.inFlight.sum());
+        }
+        String[] contexts = new String[endpoints.length];
+        LatencyHistogram[] latencies = new LatencyHistogram[endpoints.length];
+        for (int i = 0; i < endpoints.length; i++) {
+            contexts[i] = "context=\"" + endpoints[i].context + "\"";
+            latencies[i] = endpoints[i].latency;
+        }
+        summaries(sb, "scoreprediction_http_request_duration_seconds", "HTTP request latency by context.",
+                contexts, latencies);
+
+        summaries(sb, "scoreprediction_upstream_request_duration_seconds", "api-sports call latency, to response headers.",
+                new String[] {null}, new LatencyHistogram[] {UPSTREAM_LATENCY});
+        header(sb, "scoreprediction_upstream_errors_total", "counter", "api-sports calls that failed without a response.");
+        sample(sb, "scoreprediction_upstream_errors_total", null, UPSTREAM_ERRORS.sum());
+        UpstreamScheduler scheduler = UpstreamClient.shared().scheduler();
+        if (scheduler != null) {
+            header(sb, "scoreprediction_upstream_quota_granted_total", "counter", "Upstream calls let through, by lane.");
+            for (UpstreamScheduler.Lane lane : UpstreamScheduler.Lane.values()) {
+                sample(sb, "scoreprediction_upstream_quota_granted_total", lane(lane), scheduler.grantedCount(lane));
+            }
+            header(sb, "scoreprediction_upstream_quota_shed_total", "counter", "Upstream calls refused for lack of quota, by lane.");
+            for (UpstreamScheduler.Lane lane : UpstreamScheduler.Lane.values()) {
+                sample(sb, "scoreprediction_upstream_quota_shed_total", lane(lane), scheduler.shedCount(lane));
+            }
+            header(sb, "scoreprediction_upstream_quota_available", "gauge", "Upstream calls that could be made right now.");
+            sample(sb, "scoreprediction_upstream_quota_available", null, scheduler.available());
+        }
+
+        summaries(sb, "scoreprediction_parse_duration_seconds", "Time to parse an upstream body.",
+                new String[] {"kind=\"standings\"", "kind=\"fixtures\""},
+                new LatencyHistogram[] {STANDINGS_PARSE, FIXTURES_PARSE});
+
+        caches(sb, WebServer.standingsCache, WebServer.fixturesCache);
+
+        ResponseMemo memo = WebServer.predictMemo;
+        if (memo != null) {
+            header(sb, "scoreprediction_predict_memo_hits_total", "counter", "/predict bodies served from the memo.");
+            sample(sb, "scoreprediction_predict_memo_hits_total", null, memo.hitCount());
+            header(sb, "scoreprediction_predict_memo_misses_total", "counter", "/predict bodies built for the request.");
+            sample(sb, "scoreprediction_predict_memo_misses_total", null, memo.missCount());
+            header(sb, "scoreprediction_predict_memo_bytes", "gauge", "Bytes of /predict bodies held.");
+            sample(sb, "scoreprediction_predict_memo_bytes", null, memo.bytes());
+        }
+        return sb.toString();
+    }
+
+    private static String lane(UpstreamScheduler.Lane lane) {
+        return "lane=\"" + lane.name().toLowerCase() + "\"";
+    }
+
+    private static void caches(StringBuilder sb, UpstreamCache<?> standings, UpstreamCache<?> fixtures) {
+        String[] labels = {"cache=\"standings\"", "cache=\"fixtures\""};
+        UpstreamCache<?>[] caches = {standings, fixtures};
+        header(sb, "scoreprediction_cache_hits_total", "counter", "Cache lookups answered from memory.");
+        for (int i = 0; i < caches.length; i++) {
+            if (caches[i] != null) sample(sb, "scoreprediction_cache_hits_total", labels[i], caches[i].hitCount());
+        }
+        header(sb, "scoreprediction_cache_stale_hits_total", "counter", "Hits on warmed entries, each starting a background refresh.");
+        for (int i = 0; i < caches.length; i++) {
+            if (caches[i] != null) sample(sb, "scoreprediction_cache_stale_hits_total", labels[i], caches[i].staleHitCount());
+        }
+        header(sb, "scoreprediction_cache_misses_total", "counter", "Cache lookups that had to wait for a load.");
+        for (int i = 0; i < caches.length; i++) {
+            if (caches[i] != null) sample(sb, "scoreprediction_cache_misses_total", labels[i], caches[i].missCount());
+        }
+        header(sb, "scoreprediction_cache_loads_total", "counter", "Upstream loads, after collapsing concurrent misses.");
+        for (int i = 0; i < caches.length; i++) {
+            if (caches[i] != null) sample(sb, "scoreprediction_cache_loads_total", labels[i], caches[i].loadCount());
+        }
+        header(sb, "scoreprediction_cache_refresh_ahead_total", "counter", "Hot entries reloaded before they expired.");
+        for (int i = 0; i < caches.length; i++) {
+            if (caches[i] != null) sample(sb, "scoreprediction_cache_refresh_ahead_total", labels[i], caches[i].refreshAheadCount());
+        }
+        header(sb, "scoreprediction_cache_refresh_ahead_skipped_total", "counter", "Expiring entries left to expire: cold, or reload shed or failed.");
+        for (int i = 0; i < caches.length; i++) {
+            if (caches[i] != null) sample(sb, "scoreprediction_cache_refresh_ahead_skipped_total", labels[i], caches[i].refreshAheadSkippedCount());
+        }
+        header(sb, "scoreprediction_cache_hit_ratio", "gauge", "Hits over all lookups since start.");
+        for (int i = 0; i < caches.length; i++) {
+            if (caches[i] != null) {
+                long hits = caches[i].hitCount();
+                long lookups = hits + caches[i].missCount();
+                sb.append("scoreprediction_cache_hit_ratio{").append(labels[i]).append("} ")
+                        .append(lookups == 0 ? 0 : (double) hits / lookups).append('\n');
+            }
+        }
+        header(sb, "scoreprediction_cache_entries", "gauge", "Entries held.");
+        for (int i = 0; i < caches.length; i++) {
+            if (caches[i] != null) sample(sb, "scoreprediction_cache_entries", labels[i], caches[i].size());
+        }
+    }
+
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n')
+                .append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, long value) {
+        sb.append(name);
+        if (labels != null) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ').append(value).append('\n');
+    }
+
+    /**
+     * One summary family (quantiles, sum, count) over all {@code histograms},
+     * then their maxima as a {@code <name>_max} gauge family. A {@code null}
+     * label set means no labels.
+     */
+    private static void summaries(StringBuilder sb, String name, String help, String[] labels, LatencyHistogram[] histograms) {
+        header(sb, name, "summary", help);
+        for (int i = 0; i < histograms.length; i++) {
+            String prefix = labels[i] == null ? "" : labels[i] + ",";
+            String plain = labels[i] == null ? "" : "{" + labels[i] + "}";
+            for (double q : QUANTILES) {
+                sb.append(name).append('{').append(prefix).append("quantile=\"").append(q).append("\"} ")
+                        .append(seconds(histograms[i].percentileNanos(q))).append('\n');
+            }
+            sb.append(name).append("_sum").append(plain).append(' ').append(seconds(histograms[i].sumNanos())).append('\n')
+                    .append(name).append("_count").append(plain).append(' ').append(histograms[i].count()).append('\n');
+        }
+        header(sb, name + "_max", "gauge", "Largest value of " + name + " since start.");
+        for (int i = 0; i < histograms.length; i++) {
+            String plain = labels[i] == null ? "" : "{" + labels[i] + "}";
+            sb.append(name).append("_max").append(plain).append(' ').append(seconds(histograms[i].maxNanos())).append('\n');
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.scoreprediction;
+
+/**
+ * Goal-based scoreline model fitted to one standings group.
+ *
+ * Each team gets home/away attack and defence strengths from its home/away
+ * goals for and against per game, relative to the group average and shrunk
+ * towards it by a few pseudo-games. The expected goals of a match are then
+ * {@code muHome * attackHome[h] * defenceAway[a]} for the home side and
+ * {@code muAway * attackAway[a] * defenceHome[h]} for the away side. Scorelines
+ * are independent Poisson with the Dixon-Coles correction for 0-0, 1-0, 0-1
+ * and 1-1.
+ *
+ * All per-team rates and the {@code 1/k!} table are computed once in
+ * {@link #fit}; {@link #predict} is two {@code exp} calls and an
+ * {@code (MAX_GOALS + 1)^2} loop. Teams are addressed by 0-based position in
+ * the group; the first team of a pair plays at home.
+ */
+public final class PoissonModel {
+
+    static final int MAX_GOALS = 10;
+    // Dixon-Coles low-score dependence; negative values favour draws at 0-0 and 1-1
+    static final double DEFAULT_RHO = -0.1;
+    // pseudo-games of group-average football added to every team's record
+    private static final double PRIOR_GAMES = 3.0;
+    private static final double FALLBACK_HOME_GOALS = 1.5;
+    private static final double FALLBACK_AWAY_GOALS = 1.2;
+
+    private static final double[] INVERSE_FACTORIAL = new double[MAX_GOALS + 1];
+
+    static {
+        INVERSE_FACTORIAL[0] = 1;
+        for (int k = 1; k <= MAX_GOALS; k++) {
+            INVERSE_FACTORIAL[k] = INVERSE_FACTORIAL[k - 1] / k;
+        }
+    }
+
+    /** Outcome of one pair. {@code grid} is filled only when asked for. */
+    public static final class Prediction {
+        final double expectedGoals1;
+        final double expectedGoals2;
+        final double team1Win;
+        final double draw;
+        final double team2Win;
+        final int likelyScore1;
+        final int likelyScore2;
+        final double[] grid;
+
+        Prediction(double expectedGoals1, double expectedGoals2, double team1Win, double draw, double team2Win,
+                   int likelyScore1, int likelyScore2, double[] grid) {
+            this.expectedGoals1 = expectedGoals1;
+            this.expectedGoals2 = expectedGoals2;
+            this.team1Win = team1Win;
+            this.draw = draw;
+            this.team2Win = team2Win;
+            this.likelyScore1 = likelyScore1;
+            this.likelyScore2 = likelyScore2;
+            this.grid = grid;
+        }
+
+        public double team1Win() {
+            return team1Win;
+        }
+
+        public double draw() {
+            return draw;
+        }
+
+        public double team2Win() {
+            return team2Win;
+        }
+
+        /** {@link PredictionEngine#TEAM1}, {@link PredictionEngine#TEAM2} or {@link PredictionEngine#DRAW}, whichever is likeliest. */
+        public int result() {
+            if (team1Win >= draw && team1Win >= team2Win) return PredictionEngine.TEAM1;
+            if (team2Win >= draw) return PredictionEngine.TEAM2;
+            return PredictionEngine.DRAW;
+        }
+
+        /** P(score1 = i, score2 = j) at {@code i * (MAX_GOALS + 1) + j}, or {@code null}. */
+        public double[] grid() {
+            return grid;
+        }
+    }
+
+    final int size;
+    final double muHome;
+    final double muAway;
+    final double rho;
+    final double[] attackHome;
+    final double[] defenceHome;
+    final double[] attackAway;
+    final double[] defenceAway;
+
+    private PoissonModel(int size, double muHome, double muAway, double rho,
+                         double[] attackHome, double[] defenceHome, double[] attackAway, double[] defenceAway) {
+        this.size = size;
+        this.muHome = muHome;
+        this.muAway = muAway;
+        this.rho = rho;
+        this.attackHome = attackHome;
+        this.defenceHome = defenceHome;
+        this.attackAway = attackAway;
+        this.defenceAway = defenceAway;
+    }
+
+    public static PoissonModel fit(StandingsSnapshot s, int group) {
+        return fit(s, group, DEFAULT_RHO);
+    }
+
+    public static PoissonModel fit(StandingsSnapshot s, int group, double rho) {
+        int n = s.groupSize(group);
+        int first = n == 0 ? 0 : s.row(group, 0);
+        StandingsSnapshot.Split home = s.home();
+        StandingsSnapshot.Split away = s.away();
+        long homeGoals = 0;
+        long homeGames = 0;
+        long awayGoals = 0;
+        long awayGames = 0;
+        for (int t = 0; t < n; t++) {
+            homeGoals += home.goalsFor(first + t);
+            homeGames += home.played(first + t);
+            awayGoals += away.goalsFor(first + t);
+            awayGames += away.played(first + t);
+        }
+        // no goals yet (a goalless first matchday) is no average either; strength() divides by it
+        double muHome = homeGoals > 0 ? (double) homeGoals / homeGames : FALLBACK_HOME_GOALS;
+        double muAway = awayGoals > 0 ? (double) awayGoals / awayGames : FALLBACK_AWAY_GOALS;
+
+        double[] attackHome = new double[n];
+        double[] defenceHome = new double[n];
+        double[] attackAway = new double[n];
+        double[] defenceAway = new double[n];
+        for (int t = 0; t < n; t++) {
+            int row = first + t;
+            attackHome[t] = strength(home.goalsFor(row), home.played(row), muHome);
+            defenceHome[t] = strength(home.goalsAgainst(row), home.played(row), muAway);
+            attackAway[t] = strength(away.goalsFor(row), away.played(row), muAway);
+            defenceAway[t] = strength(away.goalsAgainst(row), away.played(row), muHome);
+        }
+        return new PoissonModel(n, muHome, muAway, rho, attackHome, defenceHome, attackAway, defenceAway);
+    }
+
+    private static double strength(int goals, int played, double mu) {
+        return (goals + PRIOR_GAMES * mu) / (played + PRIOR_GAMES) / mu;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Expected goals of {@code home} against {@code away}. */
+    public double homeRate(int home, int away) {
+        return muHome * attackHome[home] * defenceAway[away];
+    }
+
+    /** Expected goals of {@code away} at {@code home}. */
+    public double awayRate(int home, int away) {
+        return muAway * attackAway[away] * defenceHome[home];
+    }
+
+    public Prediction predict(int home, int away, boolean withGrid) {
+        double lambda = homeRate(home, away);
+        double mu = awayRate(home, away);
+        double[] p1 = new double[MAX_GOALS + 1];
+        double[] p2 = new double[MAX_GOALS + 1];
+        pmf(lambda, p1);
+        pmf(mu, p2);
+        double[] grid = withGrid ? new double[(MAX_GOALS + 1) * (MAX_GOALS + 1)] : null;
+
+        double win = 0;
+        double draw = 0;
+        double loss = 0;
+        double best = -1;
+        int best1 = 0;
+        int best2 = 0;
+        for (int i = 0; i <= MAX_GOALS; i++) {
+            for (int j = 0; j <= MAX_GOALS; j++) {
+                double p = p1[i] * p2[j];
+                if (i <= 1 && j <= 1) {
+                    p *= tau(i, j, lambda, mu);
+                }
+                if (i > j) {
+                    win += p;
+                } else if (i == j) {
+                    draw += p;
+                } else {
+                    loss += p;
+                }
+                if (p > best) {
+                    best = p;
+                    best1 = i;
+                    best2 = j;
+                }
+                if (grid != null) {
+                    grid[i * (MAX_GOALS + 1) + j] = p;
+                }
+            }
+        }
+        // scores above MAX_GOALS are cut off; renormalise so the three outcomes sum to one
+        double total = win + draw + loss;
+        return new Prediction(lambda, mu, win / total, draw / total, loss / total, best1, best2, grid);
+    }
+
+    private double tau(int i, int j, double lambda, double mu) {
+        if (i == 0 && j == 0) return 1 - lambda * mu * rho;
+        if (i == 0) return 1 + lambda * rho;
+        if (j == 0) return 1 + mu * rho;
+        return 1 - rho;
+    }
+
+    private static void pmf(double rate, double[] out) {
+        double e = Math.exp(-rate);
+        double power = 1;
+        for (int k = 0; k <= MAX_GOALS; k++) {
+            out[k] = e * power * INVERSE_FACTORIAL[k];
+            power *= rate;
+        }
+    }
+}
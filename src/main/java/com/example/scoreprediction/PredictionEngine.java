@@ -0,0 +1,122 @@
+package com.example.scoreprediction;
+
+/**
+ * The points-based head-to-head heuristic shared by the web server and the CLI.
+ *
+ * Both teams collect points for each of played, win, draw, lose, goals for,
+ * goals against and table points; the team with more points is the predicted
+ * winner. The result is packed into a single int (score1 in the high 16 bits,
+ * score2 in the low 16 bits) so evaluating a pair allocates nothing.
+ */
+public final class PredictionEngine {
+
+    public static final int DRAW = 0;
+    public static final int TEAM1 = 1;
+    public static final int TEAM2 = 2;
+
+    // Scoring more than this many goals is worth an extra point.
+    static final int GOALS_FOR_THRESHOLD = 20;
+    // Conceding fewer than this many goals is worth an extra point.
+    static final int GOALS_AGAINST_THRESHOLD = 8;
+
+    private PredictionEngine() {
+    }
+
+    /** Compares two rows of the same snapshot and returns the packed scores. */
+    public static int predict(StandingsSnapshot snapshot, int row1, int row2) {
+        StandingsSnapshot.Split all = snapshot.all;
+        int score1 = 0;
+        int score2 = 0;
+
+        // PLAYED: fewer games played is better
+        int a = all.played[row1];
+        int b = all.played[row2];
+        if (a == b) { score1++; score2++; }
+        else if (a > b) { score2++; }
+        else { score1++; }
+
+        // WIN
+        a = all.win[row1];
+        b = all.win[row2];
+        if (a == b) { score1++; score2++; }
+        else if (a > b) { score1++; }
+        else { score2++; }
+
+        // DRAW: fewer draws is better
+        a = all.draw[row1];
+        b = all.draw[row2];
+        if (a == b) { score1++; score2++; }
+        else if (a > b) { score2++; }
+        else { score1++; }
+
+        // LOSE: no points when equal
+        a = all.lose[row1];
+        b = all.lose[row2];
+        if (a > b) { score2++; }
+        else if (a < b) { score1++; }
+
+        // GOALS FOR
+        a = all.goalsFor[row1];
+        b = all.goalsFor[row2];
+        if (a == b) {
+            int bonus = a > GOALS_FOR_THRESHOLD ? 3 : 2;
+            score1 += bonus;
+            score2 += bonus;
+        } else if (a > b) {
+            score1 += a > GOALS_FOR_THRESHOLD ? 3 : 2;
+        } else {
+            score2 += b > GOALS_FOR_THRESHOLD ? 3 : 2;
+        }
+
+        // GOALS AGAINST
+        a = all.goalsAgainst[row1];
+        b = all.goalsAgainst[row2];
+        if (a == b) {
+            int bonus = a < GOALS_AGAINST_THRESHOLD ? 2 : 1;
+            score1 += bonus;
+            score2 += bonus;
+        } else if (a > b) {
+            score2 += b < GOALS_AGAINST_THRESHOLD ? 2 : 1;
+        } else {
+            score1 += a < GOALS_AGAINST_THRESHOLD ? 2 : 1;
+        }
+
+        // POINTS
+        a = snapshot.points[row1];
+        b = snapshot.points[row2];
+        if (a == b) { score1 += 3; score2 += 3; }
+        else if (a > b) { score1 += 3; }
+        else { score2 += 3; }
+
+        return (score1 << 16) | score2;
+    }
+
+    public static int score1(int prediction) {
+        return prediction >>> 16;
+    }
+
+    public static int score2(int prediction) {
+        return prediction & 0xFFFF;
+    }
+
+    public static int result(int prediction) {
+        int score1 = score1(prediction);
+        int score2 = score2(prediction);
+        if (score1 == score2) {
+            return DRAW;
+        }
+        return score1 > score2 ? TEAM1 : TEAM2;
+    }
+
+    /** The {@code result} value used in JSON responses: draw, team1 or team2. */
+    public static String resultName(int result) {
+        switch (result) {
+            case TEAM1:
+                return "team1";
+            case TEAM2:
+                return "team2";
+            default:
+                return "draw";
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.scoreprediction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+/**
+ * Every head-to-head prediction of one standings group, row-major:
+ * cell {@code i * size + j} is team {@code i} (team1) against team {@code j}
+ * (team2), with positions in table order. Diagonal cells are left at zero.
+ */
+public final class PredictionMatrix {
+
+    // Below this many teams a sequential loop beats forking the work.
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    final int group;
+    final int size;
+    final int[] predictions;
+
+    private PredictionMatrix(int group, int size, int[] predictions) {
+        this.group = group;
+        this.size = size;
+        this.predictions = predictions;
+    }
+
+    public static PredictionMatrix compute(StandingsSnapshot snapshot, int group) {
+        int n = snapshot.groupSize(group);
+        int first = snapshot.row(group, 0);
+        int[] predictions = new int[n * n];
+        IntStream rows = IntStream.range(0, n);
+        if (n >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(i -> {
+            int base = i * n;
+            for (int j = 0; j < n; j++) {
+                if (i != j) {
+                    predictions[base + j] = PredictionEngine.predict(snapshot, first + i, first + j);
+                }
+            }
+        });
+        return new PredictionMatrix(group, n, predictions);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int prediction(int team1, int team2) {
+        return predictions[team1 * size + team2];
+    }
+
+    /**
+     * Flat-array JSON: {@code score1}, {@code score2} and {@code result}
+     * (0 = draw, 1 = team1, 2 = team2) each hold {@code size * size} numbers.
+     */
+    public byte[] toJson(StandingsSnapshot snapshot, String league, String season, long version) {
+        int n = size;
+        int first = snapshot.row(group, 0);
+        StringBuilder sb = new StringBuilder(256 + n * 24 + n * n * 8);
+        sb.append("{\"league\":\"").append(WebServer.escape(league))
+                .append("\",\"season\":\"").append(WebServer.escape(season))
+                .append("\",\"version\":").append(version)
+                .append(",\"group\":\"").append(WebServer.escape(String.valueOf(snapshot.groupName(group))))
+                .append("\",\"size\":").append(n)
+                .append(",\"teams\":[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            sb.append('"').append(WebServer.escape(String.valueOf(snapshot.teamName(first + i)))).append('"');
+        }
+        sb.append("],\"teamIds\":[");
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(snapshot.teamId(first + i));
+        }
+        sb.append("],\"score1\":[");
+        for (int k = 0; k < predictions.length; k++) {
+            if (k > 0) sb.append(',');
+            sb.append(PredictionEngine.score1(predictions[k]));
+        }
+        sb.append("],\"score2\":[");
+        for (int k = 0; k < predictions.length; k++) {
+            if (k > 0) sb.append(',');
+            sb.append(PredictionEngine.score2(predictions[k]));
+        }
+        sb.append("],\"result\":[");
+        for (int k = 0; k < predictions.length; k++) {
+            if (k > 0) sb.append(',');
+            sb.append(PredictionEngine.result(predictions[k]));
+        }
+        sb.append("]}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.scoreprediction;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Finished response bodies (UTF-8 bytes) per (league, season) and a caller
+ * chosen {@code long} key, such as a team pair, valid for one cache entry
+ * version.
+ *
+ * Each (league, season) has one slot tagged with the version its responses
+ * were built from. {@link #invalidate} drops it as soon as the cache stores a
+ * newer snapshot, and a request that brings a newer version swaps in an empty
+ * slot, so all answers built from the old snapshot go at once. The total size
+ * is bounded by {@code budgetBytes}: when a new body would not fit, whole
+ * slots are dropped, least recently used first, until it does, and a body
+ * that does not fit at all is simply not kept. Hits are a map lookup with no
+ * lock.
+ */
+final class ResponseMemo {
+
+    private static final class Slot {
+        final long version;
+        final ConcurrentHashMap<Long, byte[]> responses = new ConcurrentHashMap<>();
+        // tick of the last hit or store, for picking what to evict
+        volatile long lastUsed;
+        // guarded by "this"
+        long bytes;
+        boolean closed;
+
+        Slot(long version) {
+            this.version = version;
+        }
+    }
+
+    private final long budgetBytes;
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicLong ticks = new AtomicLong();
+    private final ConcurrentHashMap<UpstreamCache.Key, Slot> slots = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    ResponseMemo(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * The memoized body for {@code key}, or the one {@code build} makes, kept
+     * if the budget allows. {@code version} is that of the cache entry the
+     * caller builds from.
+     */
+    byte[] get(String league, String season, long version, long key, Supplier<byte[]> build) {
+        if (budgetBytes <= 0) {
+            return build.get();
+        }
+        UpstreamCache.Key slotKey = new UpstreamCache.Key(league, season);
+        Slot slot = slots.get(slotKey);
+        if (slot != null && slot.version == version) {
+            byte[] body = slot.responses.get(key);
+            if (body != null) {
+                hits.increment();
+                slot.lastUsed = ticks.incrementAndGet();
+                return body;
+            }
+        }
+        misses.increment();
+        byte[] body = build.get();
+        if (slot == null || slot.version < version) {
+            slot = slots.compute(slotKey, (k, current) -> {
+                if (current != null && current.version >= version) {
+                    return current;
+                }
+                if (current != null) {
+                    close(current);
+                }
+                return new Slot(version);
+            });
+        }
+        if (slot.version == version) {
+            remember(slot, key, body);
+        }
+        return body;
+    }
+
+    private void remember(Slot slot, long key, byte[] body) {
+        if (body.length > budgetBytes) {
+            return;
+        }
+        slot.lastUsed = ticks.incrementAndGet();
+        if (usedBytes.get() + body.length > budgetBytes) {
+            makeRoom(body.length, slot);
+        }
+        synchronized (slot) {
+            if (slot.closed || usedBytes.get() + body.length > budgetBytes
+                    || slot.responses.putIfAbsent(key, body) != null) {
+                return;
+            }
+            slot.bytes += body.length;
+            usedBytes.addAndGet(body.length);
+        }
+    }
+
+    /** Drops the least recently used slots other than {@code filling} until {@code needed} more bytes fit. */
+    private void makeRoom(long needed, Slot filling) {
+        while (usedBytes.get() + needed > budgetBytes) {
+            Map.Entry<UpstreamCache.Key, Slot> victim = null;
+            for (Map.Entry<UpstreamCache.Key, Slot> e : slots.entrySet()) {
+                Slot slot = e.getValue();
+                if (slot != filling && (victim == null || slot.lastUsed < victim.getValue().lastUsed)) {
+                    victim = e;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            if (slots.remove(victim.getKey(), victim.getValue())) {
+                close(victim.getValue());
+            }
+        }
+    }
+
+    /** Drops everything built for (league, season), once a newer snapshot of it is stored. */
+    void invalidate(String league, String season) {
+        Slot slot = slots.remove(new UpstreamCache.Key(league, season));
+        if (slot != null) {
+            close(slot);
+        }
+    }
+
+    private void close(Slot slot) {
+        synchronized (slot) {
+            if (!slot.closed) {
+                slot.closed = true;
+                usedBytes.addAndGet(-slot.bytes);
+            }
+        }
+    }
+
+    long hitCount() {
+        return hits.sum();
+    }
+
+    long missCount() {
+        return misses.sum();
+    }
+
+    long bytes() {
+        return usedBytes.get();
+    }
+}
@@ -0,0 +1,362 @@
+package com.example.scoreprediction;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo run of the rest of a season: every remaining fixture is played
+ * out with Poisson-distributed goals, many times over, and the final tables
+ * are counted per position.
+ *
+ * Goal rates are those of {@link PoissonModel} (home/away attack and defence
+ * strengths from the standings), without the Dixon-Coles low-score correction.
+ * Goal CDFs are built once per fixture, so a simulated match is one random
+ * long and two short table scans. Runs are split across the common ForkJoin
+ * pool, each leaf with its own {@link SplittableRandom}; {@link #simulateGroups}
+ * runs all groups of a cup the same way in one go.
+ *
+ * Final tables rank by points, goal difference and goals scored; remaining
+ * ties keep the current table order.
+ */
+public final class SeasonSimulator {
+
+    static final int MAX_GOALS = 10;
+    private static final double TWO_POW_MINUS_32 = 1.0 / (1L << 32);
+    // runs per ForkJoin leaf
+    private static final long LEAF_RUNS = 16_384;
+
+    /** Position counts for every team of the simulated group. */
+    public static final class Result {
+        final StandingsSnapshot snapshot;
+        final int group;
+        final int size;
+        final long runs;
+        final int remainingFixtures;
+        // positionCounts[team * size + position], team and position in current table order
+        final long[] positionCounts;
+        final long[] pointsSum;
+
+        Result(StandingsSnapshot snapshot, int group, long runs, int remainingFixtures, long[] totals) {
+            this.snapshot = snapshot;
+            this.group = group;
+            this.size = snapshot.groupSize(group);
+            this.runs = runs;
+            this.remainingFixtures = remainingFixtures;
+            this.positionCounts = Arrays.copyOf(totals, size * size);
+            this.pointsSum = Arrays.copyOfRange(totals, size * size, size * size + size);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /** Probability that the team now at {@code team} (0-based) finishes at {@code position}. */
+        public double probability(int team, int position) {
+            return (double) positionCounts[team * size + position] / runs;
+        }
+
+        /** Probability of finishing in {@code [from, to)}. */
+        public double probability(int team, int from, int to) {
+            long count = 0;
+            for (int p = Math.max(0, from); p < Math.min(size, to); p++) {
+                count += positionCounts[team * size + p];
+            }
+            return (double) count / runs;
+        }
+
+        public double expectedPoints(int team) {
+            return (double) pointsSum[team] / runs;
+        }
+
+        public byte[] toJson(String league, String season, int europe, int relegation) {
+            int first = snapshot.row(group, 0);
+            StringBuilder sb = new StringBuilder(256 + size * (128 + size * 10));
+            sb.append("{\"league\":\"").append(WebServer.escape(league))
+                    .append("\",\"season\":\"").append(WebServer.escape(season))
+                    .append("\",\"group\":\"").append(WebServer.escape(String.valueOf(snapshot.groupName(group))))
+                    .append("\",\"runs\":").append(runs)
+                    .append(",\"remainingFixtures\":").append(remainingFixtures)
+                    .append(",\"teams\":[");
+            for (int t = 0; t < size; t++) {
+                int row = first + t;
+                if (t > 0) sb.append(',');
+                sb.append("{\"id\":").append(snapshot.teamId(row))
+                        .append(",\"name\":\"").append(WebServer.escape(String.valueOf(snapshot.teamName(row))))
+                        .append("\",\"points\":").append(snapshot.points(row))
+                        .append(",\"expectedPoints\":").append(WebServer.round6(expectedPoints(t)))
+                        .append(",\"title\":").append(WebServer.round6(probability(t, 0)))
+                        .append(",\"europe\":").append(WebServer.round6(probability(t, 0, europe)))
+                        .append(",\"relegation\":").append(WebServer.round6(probability(t, size - relegation, size)))
+                        .append(",\"positions\":[");
+                for (int p = 0; p < size; p++) {
+                    if (p > 0) sb.append(',');
+                    sb.append(WebServer.round6(probability(t, p)));
+                }
+                sb.append("]}");
+            }
+            sb.append("]}");
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Everything a run needs, flattened into arrays shared read-only by all leaves. */
+    private static final class Model {
+        final int n;
+        final int[] points;
+        final int[] goalsDiff;
+        final int[] goalsFor;
+        final int[] home;
+        final int[] away;
+        // homeCdf[f * (MAX_GOALS + 1) + k] = P(home goals <= k) in fixture f
+        final double[] homeCdf;
+        final double[] awayCdf;
+
+        Model(int n, int[] points, int[] goalsDiff, int[] goalsFor, int[] home, int[] away,
+              double[] homeCdf, double[] awayCdf) {
+            this.n = n;
+            this.points = points;
+            this.goalsDiff = goalsDiff;
+            this.goalsFor = goalsFor;
+            this.home = home;
+            this.away = away;
+            this.homeCdf = homeCdf;
+            this.awayCdf = awayCdf;
+        }
+    }
+
+    private SeasonSimulator() {
+    }
+
+    public static Result simulate(StandingsSnapshot snapshot, int group, FixturesSnapshot fixtures, long runs, long seed) {
+        if (runs <= 0) {
+            throw new IllegalArgumentException("runs must be positive");
+        }
+        int n = snapshot.groupSize(group);
+        if (n > 256) {
+            throw new IllegalArgumentException("at most 256 teams per group");
+        }
+        Model model = model(snapshot, group, fixtures);
+        long[] totals = ForkJoinPool.commonPool().invoke(new Runs(model, runs, new SplittableRandom(seed)));
+        return new Result(snapshot, group, runs, model.home.length, totals);
+    }
+
+    /**
+     * Every group of a multi-group competition at once: one run task per
+     * group, all forked side by side on the common pool, each with its own
+     * split of the {@code seed} stream.
+     */
+    public static Result[] simulateGroups(StandingsSnapshot snapshot, FixturesSnapshot fixtures, long runs, long seed) {
+        if (runs <= 0) {
+            throw new IllegalArgumentException("runs must be positive");
+        }
+        int groups = snapshot.groupCount();
+        Model[] models = new Model[groups];
+        Runs[] tasks = new Runs[groups];
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int g = 0; g < groups; g++) {
+            if (snapshot.groupSize(g) > 256) {
+                throw new IllegalArgumentException("at most 256 teams per group");
+            }
+            models[g] = model(snapshot, g, fixtures);
+            tasks[g] = new Runs(models[g], runs, random.split());
+        }
+        ForkJoinPool.commonPool().invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+        Result[] results = new Result[groups];
+        for (int g = 0; g < groups; g++) {
+            results[g] = new Result(snapshot, g, runs, models[g].home.length, tasks[g].join());
+        }
+        return results;
+    }
+
+    /** Qualification odds (top {@code qualify} places) of every team of every group. */
+    public static byte[] groupsJson(String league, String season, int qualify, Result[] results) {
+        StringBuilder sb = new StringBuilder(256 + results.length * 1024);
+        sb.append("{\"league\":\"").append(WebServer.escape(league))
+                .append("\",\"season\":\"").append(WebServer.escape(season))
+                .append("\",\"runs\":").append(results.length == 0 ? 0 : results[0].runs)
+                .append(",\"qualify\":").append(qualify)
+                .append(",\"groups\":[");
+        for (int g = 0; g < results.length; g++) {
+            Result r = results[g];
+            StandingsSnapshot snapshot = r.snapshot;
+            int first = snapshot.row(r.group, 0);
+            if (g > 0) sb.append(',');
+            sb.append("{\"group\":\"").append(WebServer.escape(String.valueOf(snapshot.groupName(r.group))))
+                    .append("\",\"remainingFixtures\":").append(r.remainingFixtures)
+                    .append(",\"teams\":[");
+            for (int t = 0; t < r.size; t++) {
+                int row = first + t;
+                if (t > 0) sb.append(',');
+                sb.append("{\"id\":").append(snapshot.teamId(row))
+                        .append(",\"name\":\"").append(WebServer.escape(String.valueOf(snapshot.teamName(row))))
+                        .append("\",\"points\":").append(snapshot.points(row))
+                        .append(",\"expectedPoints\":").append(WebServer.round6(r.expectedPoints(t)))
+                        .append(",\"first\":").append(WebServer.round6(r.probability(t, 0)))
+                        .append(",\"qualify\":").append(WebServer.round6(r.probability(t, 0, qualify)))
+                        .append(",\"positions\":[");
+                for (int p = 0; p < r.size; p++) {
+                    if (p > 0) sb.append(',');
+                    sb.append(WebServer.round6(r.probability(t, p)));
+                }
+                sb.append("]}");
+            }
+            sb.append("]}");
+        }
+        sb.append("]}");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Model model(StandingsSnapshot s, int group, FixturesSnapshot fixtures) {
+        int n = s.groupSize(group);
+        int first = s.row(group, 0);
+        int[] points = new int[n];
+        int[] goalsDiff = new int[n];
+        int[] goalsFor = new int[n];
+        for (int t = 0; t < n; t++) {
+            int row = first + t;
+            points[t] = s.points(row);
+            goalsDiff[t] = s.goalsDiff(row);
+            goalsFor[t] = s.all().goalsFor(row);
+        }
+        PoissonModel rates = PoissonModel.fit(s, group);
+
+        int m = 0;
+        int[] home = new int[fixtures.size()];
+        int[] away = new int[fixtures.size()];
+        for (int f = 0; f < fixtures.size(); f++) {
+            // knockout games between former group-mates do not count towards the group table
+            if (!fixtures.isScheduled(f) || fixtures.isKnockout(f)) {
+                continue;
+            }
+            int h = position(s, group, fixtures.homeId(f));
+            int a = position(s, group, fixtures.awayId(f));
+            if (h >= 0 && a >= 0 && h != a) {
+                home[m] = h;
+                away[m] = a;
+                m++;
+            }
+        }
+        home = Arrays.copyOf(home, m);
+        away = Arrays.copyOf(away, m);
+
+        double[] homeCdf = new double[m * (MAX_GOALS + 1)];
+        double[] awayCdf = new double[m * (MAX_GOALS + 1)];
+        for (int f = 0; f < m; f++) {
+            poissonCdf(rates.homeRate(home[f], away[f]), homeCdf, f * (MAX_GOALS + 1));
+            poissonCdf(rates.awayRate(home[f], away[f]), awayCdf, f * (MAX_GOALS + 1));
+        }
+        return new Model(n, points, goalsDiff, goalsFor, home, away, homeCdf, awayCdf);
+    }
+
+    private static int position(StandingsSnapshot s, int group, int teamId) {
+        int first = s.row(group, 0);
+        for (int t = 0, n = s.groupSize(group); t < n; t++) {
+            if (s.teamId(first + t) == teamId) {
+                return t;
+            }
+        }
+        return -1;
+    }
+
+    private static void poissonCdf(double lambda, double[] cdf, int offset) {
+        double p = Math.exp(-lambda);
+        double sum = p;
+        cdf[offset] = sum;
+        for (int k = 1; k <= MAX_GOALS; k++) {
+            p *= lambda / k;
+            sum += p;
+            cdf[offset + k] = sum;
+        }
+    }
+
+    private static final class Runs extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final Model model;
+        private final long runs;
+        private final SplittableRandom random;
+
+        Runs(Model model, long runs, SplittableRandom random) {
+            this.model = model;
+            this.runs = runs;
+            this.random = random;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (runs <= LEAF_RUNS) {
+                return play();
+            }
+            long half = runs / 2;
+            Runs left = new Runs(model, half, random.split());
+            left.fork();
+            long[] totals = new Runs(model, runs - half, random).compute();
+            long[] other = left.join();
+            for (int i = 0; i < totals.length; i++) {
+                totals[i] += other[i];
+            }
+            return totals;
+        }
+
+        private long[] play() {
+            Model m = model;
+            int n = m.n;
+            int fixtures = m.home.length;
+            long[] totals = new long[n * n + n];
+            int[] points = new int[n];
+            int[] goalsDiff = new int[n];
+            int[] goalsFor = new int[n];
+            long[] keys = new long[n];
+            for (long r = 0; r < runs; r++) {
+                System.arraycopy(m.points, 0, points, 0, n);
+                System.arraycopy(m.goalsDiff, 0, goalsDiff, 0, n);
+                System.arraycopy(m.goalsFor, 0, goalsFor, 0, n);
+                for (int f = 0, base = 0; f < fixtures; f++, base += MAX_GOALS + 1) {
+                    // one 64-bit draw, split into two 32-bit uniforms for the two sides
+                    long bits = random.nextLong();
+                    int hg = sample(m.homeCdf, base, (bits >>> 32) * TWO_POW_MINUS_32);
+                    int ag = sample(m.awayCdf, base, (bits & 0xFFFFFFFFL) * TWO_POW_MINUS_32);
+                    int h = m.home[f];
+                    int a = m.away[f];
+                    goalsFor[h] += hg;
+                    goalsFor[a] += ag;
+                    goalsDiff[h] += hg - ag;
+                    goalsDiff[a] += ag - hg;
+                    if (hg > ag) {
+                        points[h] += 3;
+                    } else if (hg < ag) {
+                        points[a] += 3;
+                    } else {
+                        points[h]++;
+                        points[a]++;
+                    }
+                }
+                for (int t = 0; t < n; t++) {
+                    // ascending sort = best first: invert (points, goal diff, goals for), team index in the low byte
+                    long rank = ((long) points[t] << 42) | ((long) (goalsDiff[t] + (1 << 20)) << 21) | goalsFor[t];
+                    keys[t] = (((1L << 54) - 1 - rank) << 8) | t;
+                }
+                Arrays.sort(keys);
+                for (int p = 0; p < n; p++) {
+                    int t = (int) (keys[p] & 0xFF);
+                    totals[t * n + p]++;
+                    totals[n * n + t] += points[t];
+                }
+            }
+            return totals;
+        }
+
+        private static int sample(double[] cdf, int base, double u) {
+            for (int k = 0; k < MAX_GOALS; k++) {
+                if (u < cdf[base + k]) {
+                    return k;
+                }
+            }
+            return MAX_GOALS;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.scoreprediction;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the executor {@link WebServer} hands its exchanges to.
+ *
+ * Modes (SERVER_EXECUTOR):
+ * - virtual: one virtual thread per request (JDK 21+)
+ * - pool: bounded platform-thread pool of SERVER_THREADS threads
+ * - dispatcher: run on the HttpServer dispatcher thread (the old behavior)
+ * - auto (default): virtual when the JDK supports it, pool otherwise
+ */
+public final class ServerExecutors {
+
+    private ServerExecutors() {
+    }
+
+    public static ExecutorService fromConfig() {
+        String mode = Config.string("SERVER_EXECUTOR", "auto");
+        int threads = Config.intValue("SERVER_THREADS", Math.max(16, Runtime.getRuntime().availableProcessors() * 8));
+        int queue = Config.intValue("SERVER_QUEUE_CAPACITY", 1024);
+        return create(mode, threads, queue);
+    }
+
+    /**
+     * Returns {@code null} for the dispatcher mode, which is what
+     * {@code HttpServer.setExecutor} expects for its built-in behavior.
+     */
+    public static ExecutorService create(String mode, int threads, int queueCapacity) {
+        switch (mode.toLowerCase()) {
+            case "dispatcher":
+                return null;
+            case "pool":
+                return boundedPool(threads, queueCapacity);
+            case "virtual": {
+                ExecutorService virtual = virtualThreadPerTask();
+                if (virtual == null) {
+                    System.out.println("Virtual threads need JDK 21+, falling back to a pool of " + threads + " threads");
+                    return boundedPool(threads, queueCapacity);
+                }
+                return virtual;
+            }
+            case "auto": {
+                ExecutorService virtual = virtualThreadPerTask();
+                return virtual != null ? virtual : boundedPool(threads, queueCapacity);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown SERVER_EXECUTOR mode: " + mode);
+        }
+    }
+
+    static ExecutorService boundedPool(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "http-worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        // When both the pool and the queue are full the dispatcher thread runs the
+        // exchange itself, which stops it from accepting more work until it is done.
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), factory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    // Looked up reflectively so the project still compiles for Java 17.
+    static ExecutorService virtualThreadPerTask() {
+        try {
+            Method m = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) m.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.example.scoreprediction;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only file of fetched standings, so a restarted server can answer from
+ * the last known data before api-sports has been asked anything.
+ *
+ * Layout (big-endian): an 8-byte header {@code "SPS1"} + format version, then
+ * records of
+ * <pre>
+ *   int  length     bytes after this field, CRC included
+ *   int  crc32      of everything after this field
+ *   long version    store-wide sequence, newest wins
+ *   long fetchedAt  epoch millis
+ *   short + bytes   league (UTF-8)
+ *   short + bytes   season (UTF-8)
+ *   int + bytes     gzip-compressed upstream body
+ * </pre>
+ * {@link #open} memory-maps the file once and keeps the newest record per key;
+ * a torn or corrupt tail (crash mid-append) is cut off. Bodies stay in the
+ * file: a record only holds a view of the mapping (appended records one of
+ * their own region), so heap use does not grow with the bodies, and they are
+ * copied out only when read. When superseded records make up more than half
+ * the file, or it holds a quarter more keys than {@code maxKeys}, it is
+ * rewritten with only the newest record of the {@code maxKeys} most recently
+ * fetched keys, so the file stays bounded.
+ *
+ * Only one process may have a store open: {@link #open} takes an exclusive
+ * lock and fails fast when a running server or backfill already holds it, as
+ * their appends would interleave and a compaction would swap the file out from
+ * under the other's mapping.
+ */
+public final class SnapshotStore implements Closeable {
+
+    /** One stored snapshot; its body stays in the file mapping and is only copied when asked for. */
+    public static final class Record {
+        final String league;
+        final String season;
+        final long version;
+        final long fetchedAtMillis;
+        // read-only slice of a mapping of the file; stays valid after a compaction replaced the file
+        private final ByteBuffer gzipBody;
+
+        Record(String league, String season, long version, long fetchedAtMillis, ByteBuffer gzipBody) {
+            this.league = league;
+            this.season = season;
+            this.version = version;
+            this.fetchedAtMillis = fetchedAtMillis;
+            this.gzipBody = gzipBody;
+        }
+
+        public String getLeague() {
+            return league;
+        }
+
+        public String getSeason() {
+            return season;
+        }
+
+        public long getFetchedAtMillis() {
+            return fetchedAtMillis;
+        }
+
+        /** The gzip-compressed upstream body, copied out of the mapping. */
+        public byte[] getGzipBody() {
+            byte[] bytes = new byte[gzipBody.remaining()];
+            gzipBody.duplicate().get(bytes);
+            return bytes;
+        }
+
+        int bodyLength() {
+            return gzipBody.remaining();
+        }
+
+        int encodedSize() {
+            return headerSize(league, season) + bodyLength();
+        }
+    }
+
+    private static final int MAGIC = 0x53505331; // "SPS1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    // below this, superseded records are not worth a rewrite
+    private static final long MIN_COMPACT_BYTES = 1 << 20;
+
+    private final Path file;
+    private final int maxKeys;
+    private FileChannel channel;
+    // holds the exclusive lock on the ".lock" sibling while open
+    private FileChannel lockChannel;
+    private final Map<UpstreamCache.Key, Record> latest = new HashMap<>();
+    private long nextVersion = 1;
+    private long fileBytes;
+    private long liveBytes;
+    // after a failed compaction, no automatic one before the file reaches this size
+    private long retryCompactAt;
+    private int compactions;
+
+    private SnapshotStore(Path file, int maxKeys) {
+        this.file = file;
+        this.maxKeys = maxKeys;
+    }
+
+    public static SnapshotStore open(Path file, int maxKeys) throws IOException {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeys must be positive");
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        SnapshotStore store = new SnapshotStore(file, maxKeys);
+        store.lock();
+        try {
+            store.load();
+        } catch (IOException | RuntimeException e) {
+            store.lockChannel.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Takes the store for this process. The lock is on a sibling file because
+     * compaction replaces the store file itself, which would drop a lock held
+     * on it.
+     */
+    private void lock() throws IOException {
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        } catch (IOException e) {
+            lockChannel.close();
+            throw e;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException(file + " is in use by another process (a running server or backfill);"
+                    + " stop it or use a different store file");
+        }
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        if (size < HEADER_BYTES) {
+            channel.truncate(0);
+            writeHeader(channel);
+            fileBytes = HEADER_BYTES;
+            return;
+        }
+        MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (map.getInt() != MAGIC || map.getInt() != FORMAT_VERSION) {
+            throw new IOException(file + " is not a standings snapshot store (or an unsupported version)");
+        }
+        long end = HEADER_BYTES;
+        Record record;
+        while ((record = read(map)) != null) {
+            remember(record);
+            end = map.position();
+        }
+        if (end < size) {
+            channel.truncate(end);
+        }
+        fileBytes = end;
+        channel.position(end);
+        compactIfWorthwhile();
+    }
+
+    /** Next record at the buffer's position, or {@code null} at the end or at a corrupt/torn record. */
+    private static Record read(ByteBuffer buf) {
+        if (buf.remaining() < 8) {
+            return null;
+        }
+        int start = buf.position();
+        int length = buf.getInt();
+        if (length < 4 + 8 + 8 + 2 + 2 + 4 || length > buf.remaining()) {
+            buf.position(start);
+            return null;
+        }
+        int crc = buf.getInt();
+        CRC32 crc32 = new CRC32();
+        ByteBuffer payload = buf.slice(buf.position(), length - 4);
+        crc32.update(payload.duplicate());
+        if ((int) crc32.getValue() != crc) {
+            buf.position(start);
+            return null;
+        }
+        try {
+            long version = payload.getLong();
+            long fetchedAt = payload.getLong();
+            String league = readString(payload);
+            String season = readString(payload);
+            int bodyLength = payload.getInt();
+            ByteBuffer body = payload.slice(payload.position(), bodyLength).asReadOnlyBuffer();
+            buf.position(start + 4 + length);
+            return new Record(league, season, version, fetchedAt, body);
+        } catch (RuntimeException e) {
+            buf.position(start);
+            return null;
+        }
+    }
+
+    private void remember(Record record) {
+        nextVersion = Math.max(nextVersion, record.version + 1);
+        UpstreamCache.Key key = new UpstreamCache.Key(record.league, record.season);
+        Record previous = latest.get(key);
+        if (previous != null) {
+            if (previous.version > record.version) {
+                return;
+            }
+            liveBytes -= previous.encodedSize();
+        }
+        latest.put(key, record);
+        liveBytes += record.encodedSize();
+    }
+
+    /** The newest record of every key, most recently fetched first. */
+    public synchronized List<Record> latest() {
+        List<Record> records = new ArrayList<>(latest.values());
+        records.sort(Comparator.comparingLong((Record r) -> r.fetchedAtMillis).reversed());
+        return records;
+    }
+
+    public synchronized Record latest(String league, String season) {
+        return latest.get(new UpstreamCache.Key(league, season));
+    }
+
+    public synchronized Record append(String league, String season, long fetchedAtMillis, byte[] gzipBody) throws IOException {
+        league = league.trim();
+        season = season.trim();
+        long version = nextVersion++;
+        ByteBuffer header = header(league, season, version, fetchedAtMillis, ByteBuffer.wrap(gzipBody));
+        long bodyOffset = fileBytes + header.remaining();
+        write(channel, header, ByteBuffer.wrap(gzipBody));
+        // the record keeps a view of the file, not the caller's array
+        ByteBuffer body = channel.map(FileChannel.MapMode.READ_ONLY, bodyOffset, gzipBody.length).asReadOnlyBuffer();
+        Record record = new Record(league, season, version, fetchedAtMillis, body);
+        fileBytes += record.encodedSize();
+        remember(record);
+        compactIfWorthwhile();
+        return record;
+    }
+
+    private void compactIfWorthwhile() {
+        if (fileBytes < retryCompactAt) {
+            return;
+        }
+        if ((fileBytes > MIN_COMPACT_BYTES && fileBytes - HEADER_BYTES > 2 * liveBytes) || latest.size() > maxKeys + maxKeys / 4) {
+            try {
+                compact();
+            } catch (IOException e) {
+                // the store is unchanged and keeps appending; try again once it has grown a bit
+                retryCompactAt = fileBytes + MIN_COMPACT_BYTES;
+                System.err.println("Could not compact " + file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rewrites the file with only the newest record of the {@code maxKeys} most
+     * recently fetched keys. The new file is written and read back beside the
+     * old one and only then moved over it, so on failure the store carries on
+     * with the old file as if nothing happened.
+     */
+    public synchronized void compact() throws IOException {
+        List<Record> keep = latest();
+        if (keep.size() > maxKeys) {
+            keep = keep.subList(0, maxKeys);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".compact");
+        FileChannel compacted = null;
+        Map<UpstreamCache.Key, Record> kept = new HashMap<>();
+        long keptBytes = 0;
+        try {
+            compacted = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            writeHeader(compacted);
+            for (Record record : keep) {
+                write(compacted, header(record.league, record.season, record.version, record.fetchedAtMillis, record.gzipBody),
+                        record.gzipBody.duplicate());
+            }
+            compacted.force(true);
+            // read back from the new file, so the kept records no longer pin the mapping of the old one
+            MappedByteBuffer map = compacted.map(FileChannel.MapMode.READ_ONLY, 0, compacted.size());
+            map.position(HEADER_BYTES);
+            Record record;
+            while ((record = read(map)) != null) {
+                kept.put(new UpstreamCache.Key(record.league, record.season), record);
+                keptBytes += record.encodedSize();
+            }
+            // the open channel follows the file, and the old channel still has the replaced one
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            if (compacted != null) {
+                compacted.close();
+            }
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        FileChannel old = channel;
+        channel = compacted;
+        latest.clear();
+        latest.putAll(kept);
+        liveBytes = keptBytes;
+        fileBytes = HEADER_BYTES + liveBytes;
+        channel.position(fileBytes);
+        retryCompactAt = 0;
+        compactions++;
+        // the old mapping goes once the records that still view it are gone
+        old.close();
+    }
+
+    public synchronized int size() {
+        return latest.size();
+    }
+
+    public synchronized long fileBytes() {
+        return fileBytes;
+    }
+
+    synchronized int compactionCount() {
+        return compactions;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            // closing the channel releases the lock
+            lockChannel.close();
+        }
+    }
+
+    private static void writeHeader(FileChannel out) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+        while (header.hasRemaining()) {
+            out.write(header);
+        }
+    }
+
+    private static int headerSize(String league, String season) {
+        return 4 + 4 + 8 + 8 + 2 + utf8(league).length + 2 + utf8(season).length + 4;
+    }
+
+    /** Everything of a record before its body, CRC included. */
+    private static ByteBuffer header(String league, String season, long version, long fetchedAtMillis, ByteBuffer body) {
+        byte[] leagueBytes = utf8(league);
+        byte[] seasonBytes = utf8(season);
+        int headerSize = headerSize(league, season);
+        ByteBuffer buf = ByteBuffer.allocate(headerSize);
+        buf.putInt(headerSize + body.remaining() - 4).putInt(0)
+                .putLong(version).putLong(fetchedAtMillis)
+                .putShort((short) leagueBytes.length).put(leagueBytes)
+                .putShort((short) seasonBytes.length).put(seasonBytes)
+                .putInt(body.remaining());
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 8, headerSize - 8);
+        crc.update(body.duplicate());
+        buf.putInt(4, (int) crc.getValue());
+        return buf.flip();
+    }
+
+    private static void write(FileChannel out, ByteBuffer header, ByteBuffer body) throws IOException {
+        ByteBuffer[] record = {header, body};
+        while (header.hasRemaining() || body.hasRemaining()) {
+            out.write(record);
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        byte[] bytes = new byte[buf.getShort() & 0xFFFF];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,231 @@
+package com.example.scoreprediction;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact columnar binary form of a {@link StandingsSnapshot}, served at
+ * {@code /standings.bin} for bulk consumers that would otherwise re-parse the
+ * upstream JSON.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   int  magic          "SPB1"
+ *   int  format version
+ *   int  leagueId, int season
+ *   str  leagueName, str country
+ *   int  groups, int rows, int names
+ *   str  group name                 x groups
+ *   int  groupStart                 x (groups + 1)
+ *   str  team name                  x names (distinct, first-seen order)
+ *   int  column                     x rows, for each of the 23 columns:
+ *        teamId, nameIndex, rank, points, goalsDiff,
+ *        then played, win, draw, lose, goalsFor, goalsAgainst
+ *        for all, home and away
+ * </pre>
+ * where {@code str} is an unsigned short byte length followed by UTF-8 bytes,
+ * {@code 0xFFFF} standing for {@code null}. Column blocks are read with one
+ * bulk {@link IntBuffer#get(int[])} each. Snapshots can be concatenated:
+ * {@link #decode(ByteBuffer)} leaves the buffer at the next one.
+ */
+public final class StandingsCodec {
+
+    static final String CONTENT_TYPE = "application/vnd.scoreprediction.standings";
+
+    private static final int MAGIC = 0x53504231; // "SPB1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int NULL_STRING = 0xFFFF;
+    private static final int COLUMNS = 5 + 3 * 6;
+
+    private StandingsCodec() {
+    }
+
+    public static byte[] encode(StandingsSnapshot s) {
+        int rows = s.rowCount();
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int[] nameIndex = new int[rows];
+        for (int row = 0; row < rows; row++) {
+            String name = s.teamName(row);
+            Integer index = dictionary.get(name);
+            if (index == null) {
+                index = names.size();
+                dictionary.put(name, index);
+                names.add(name);
+            }
+            nameIndex[row] = index;
+        }
+
+        byte[] leagueName = utf8(s.leagueName);
+        byte[] country = utf8(s.country);
+        byte[][] groupNames = new byte[s.groupCount()][];
+        byte[][] teamNames = new byte[names.size()][];
+        int size = 4 * 4 + string(leagueName) + string(country) + 3 * 4
+                + 4 * (s.groupCount() + 1) + 4 * COLUMNS * rows;
+        for (int g = 0; g < groupNames.length; g++) {
+            groupNames[g] = utf8(s.groupName(g));
+            size += string(groupNames[g]);
+        }
+        for (int i = 0; i < teamNames.length; i++) {
+            teamNames[i] = utf8(names.get(i));
+            size += string(teamNames[i]);
+        }
+
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(s.leagueId).putInt(s.season);
+        putString(buf, leagueName);
+        putString(buf, country);
+        buf.putInt(groupNames.length).putInt(rows).putInt(teamNames.length);
+        for (byte[] name : groupNames) {
+            putString(buf, name);
+        }
+        putColumn(buf, s.groupStart);
+        for (byte[] name : teamNames) {
+            putString(buf, name);
+        }
+        putColumn(buf, s.teamId);
+        putColumn(buf, nameIndex);
+        putColumn(buf, s.rank);
+        putColumn(buf, s.points);
+        putColumn(buf, s.goalsDiff);
+        for (StandingsSnapshot.Split split : new StandingsSnapshot.Split[] {s.all, s.home, s.away}) {
+            putColumn(buf, split.played);
+            putColumn(buf, split.win);
+            putColumn(buf, split.draw);
+            putColumn(buf, split.lose);
+            putColumn(buf, split.goalsFor);
+            putColumn(buf, split.goalsAgainst);
+        }
+        return buf.array();
+    }
+
+    public static StandingsSnapshot decode(byte[] bytes) throws IOException {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /** Reads one whole stream of concatenated snapshots. */
+    public static List<StandingsSnapshot> decodeAll(InputStream in) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(in.readAllBytes());
+        List<StandingsSnapshot> snapshots = new ArrayList<>();
+        while (buf.hasRemaining()) {
+            snapshots.add(decode(buf));
+        }
+        return snapshots;
+    }
+
+    /** Reads the snapshot at the buffer's position and leaves the buffer just past it. */
+    public static StandingsSnapshot decode(ByteBuffer buf) throws IOException {
+        try {
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not a binary standings snapshot (or an unsupported version)");
+            }
+            int leagueId = buf.getInt();
+            int season = buf.getInt();
+            String leagueName = readString(buf);
+            String country = readString(buf);
+            int groups = buf.getInt();
+            int rows = buf.getInt();
+            int nameCount = buf.getInt();
+            // every group takes at least a name length and a start, so a corrupt count cannot size an array
+            if (groups < 0 || rows < 0 || nameCount < 0 || nameCount > rows
+                    || (long) 6 * groups + 4 + (long) 4 * COLUMNS * rows > buf.remaining()) {
+                throw new IOException("Corrupt binary standings snapshot");
+            }
+            String[] groupNames = new String[groups];
+            for (int g = 0; g < groups; g++) {
+                groupNames[g] = readString(buf);
+            }
+            int[] groupStart = readColumn(buf, groups + 1);
+            // groups tile the rows in order: 0 = start[0] <= start[1] <= ... <= start[groups] = rows
+            if (groupStart[0] != 0 || groupStart[groups] != rows) {
+                throw new IOException("Corrupt binary standings snapshot");
+            }
+            for (int g = 0; g < groups; g++) {
+                if (groupStart[g + 1] < groupStart[g]) {
+                    throw new IOException("Corrupt binary standings snapshot");
+                }
+            }
+            String[] names = new String[nameCount];
+            for (int i = 0; i < nameCount; i++) {
+                names[i] = readString(buf);
+            }
+            int[] teamId = readColumn(buf, rows);
+            int[] nameIndex = readColumn(buf, rows);
+            String[] teamName = new String[rows];
+            for (int row = 0; row < rows; row++) {
+                if (nameIndex[row] < 0 || nameIndex[row] >= nameCount) {
+                    throw new IOException("Corrupt binary standings snapshot");
+                }
+                teamName[row] = names[nameIndex[row]];
+            }
+            int[] rank = readColumn(buf, rows);
+            int[] points = readColumn(buf, rows);
+            int[] goalsDiff = readColumn(buf, rows);
+            StandingsSnapshot.Split all = readSplit(buf, rows);
+            StandingsSnapshot.Split home = readSplit(buf, rows);
+            StandingsSnapshot.Split away = readSplit(buf, rows);
+            return new StandingsSnapshot(leagueId, season, leagueName, country, groupNames, groupStart,
+                    teamId, teamName, rank, points, goalsDiff, all, home, away);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated binary standings snapshot", e);
+        }
+    }
+
+    private static StandingsSnapshot.Split readSplit(ByteBuffer buf, int rows) {
+        return new StandingsSnapshot.Split(readColumn(buf, rows), readColumn(buf, rows), readColumn(buf, rows),
+                readColumn(buf, rows), readColumn(buf, rows), readColumn(buf, rows));
+    }
+
+    private static void putColumn(ByteBuffer buf, int[] column) {
+        buf.asIntBuffer().put(column);
+        buf.position(buf.position() + 4 * column.length);
+    }
+
+    private static int[] readColumn(ByteBuffer buf, int length) {
+        int[] column = new int[length];
+        buf.asIntBuffer().get(column);
+        buf.position(buf.position() + 4 * length);
+        return column;
+    }
+
+    private static void putString(ByteBuffer buf, byte[] bytes) {
+        if (bytes == null) {
+            buf.putShort((short) NULL_STRING);
+        } else {
+            buf.putShort((short) bytes.length).put(bytes);
+        }
+    }
+
+    private static String readString(ByteBuffer buf) {
+        int length = buf.getShort() & 0xFFFF;
+        if (length == NULL_STRING) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int string(byte[] bytes) {
+        return 2 + (bytes == null ? 0 : bytes.length);
+    }
+
+    private static byte[] utf8(String s) {
+        if (s == null) {
+            return null;
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length >= NULL_STRING) {
+            throw new IllegalArgumentException("string too long for a binary standings snapshot");
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.scoreprediction;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-pass streaming parser for the api-sports {@code /standings} payload.
+ *
+ * Reads numbers straight into int columns with {@link JsonReader#nextInt()}, so
+ * no tree of maps and no boxed numbers are built on the way. Only the first
+ * element of {@code response} is used, like the rest of the application; fields
+ * we do not need (logos, form, description, ...) are skipped.
+ */
+public final class StandingsParser {
+
+    private static final int TEAM_ID = 0;
+    private static final int RANK = 1;
+    private static final int POINTS = 2;
+    private static final int GOALS_DIFF = 3;
+    // first column of each split; played, win, draw, lose, for, against follow in that order
+    private static final int ALL = 4;
+    private static final int HOME = 10;
+    private static final int AWAY = 16;
+    private static final int COLUMNS = 22;
+
+    private StandingsParser() {
+    }
+
+    public static StandingsSnapshot parse(String json) throws IOException {
+        return parse(new StringReader(json));
+    }
+
+    public static StandingsSnapshot parse(Reader in) throws IOException {
+        Builder b = new Builder();
+        try (JsonReader reader = new JsonReader(in)) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return StandingsSnapshot.EMPTY;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if ("response".equals(name) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    boolean first = true;
+                    while (reader.hasNext()) {
+                        if (first && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                            readResponse(reader, b);
+                            first = false;
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+                    reader.endArray();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return b.build();
+    }
+
+    private static void readResponse(JsonReader reader, Builder b) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("league".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                readLeague(reader, b);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readLeague(JsonReader reader, Builder b) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    b.leagueId = readInt(reader);
+                    break;
+                case "season":
+                    b.season = readInt(reader);
+                    break;
+                case "name":
+                    b.leagueName = readString(reader);
+                    break;
+                case "country":
+                    b.country = readString(reader);
+                    break;
+                case "standings":
+                    readStandings(reader, b);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readStandings(JsonReader reader, Builder b) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                reader.skipValue();
+                continue;
+            }
+            b.beginGroup();
+            reader.beginArray();
+            while (reader.hasNext()) {
+                if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    readRow(reader, b);
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endArray();
+            b.endGroup();
+        }
+        reader.endArray();
+    }
+
+    private static void readRow(JsonReader reader, Builder b) throws IOException {
+        int row = b.beginRow();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "rank":
+                    b.set(RANK, row, readInt(reader));
+                    break;
+                case "points":
+                    b.set(POINTS, row, readInt(reader));
+                    break;
+                case "goalsDiff":
+                    b.set(GOALS_DIFF, row, readInt(reader));
+                    break;
+                case "group":
+                    b.rowGroup(readString(reader));
+                    break;
+                case "team":
+                    readTeam(reader, b, row);
+                    break;
+                case "all":
+                    readSplit(reader, b, row, ALL);
+                    break;
+                case "home":
+                    readSplit(reader, b, row, HOME);
+                    break;
+                case "away":
+                    readSplit(reader, b, row, AWAY);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readTeam(JsonReader reader, Builder b, int row) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "id":
+                    b.set(TEAM_ID, row, readInt(reader));
+                    break;
+                case "name":
+                    b.teamNames[row] = readString(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readSplit(JsonReader reader, Builder b, int row, int base) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "played":
+                    b.set(base, row, readInt(reader));
+                    break;
+                case "win":
+                    b.set(base + 1, row, readInt(reader));
+                    break;
+                case "draw":
+                    b.set(base + 2, row, readInt(reader));
+                    break;
+                case "lose":
+                    b.set(base + 3, row, readInt(reader));
+                    break;
+                case "goals":
+                    readGoals(reader, b, row, base);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static void readGoals(JsonReader reader, Builder b, int row, int base) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "for":
+                    b.set(base + 4, row, readInt(reader));
+                    break;
+                case "against":
+                    b.set(base + 5, row, readInt(reader));
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    static int readInt(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.NUMBER || token == JsonToken.STRING) {
+            try {
+                return reader.nextInt();
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        reader.skipValue();
+        return 0;
+    }
+
+    static String readString(JsonReader reader) throws IOException {
+        JsonToken token = reader.peek();
+        if (token == JsonToken.STRING || token == JsonToken.NUMBER) {
+            return reader.nextString();
+        }
+        reader.skipValue();
+        return null;
+    }
+
+    private static final class Builder {
+        int leagueId;
+        int season;
+        String leagueName;
+        String country;
+
+        final List<String> groupNames = new ArrayList<>();
+        int[] groupStart = new int[8];
+        String currentGroup;
+
+        int rows;
+        int[][] columns = new int[COLUMNS][32];
+        String[] teamNames = new String[32];
+
+        void beginGroup() {
+            currentGroup = null;
+            if (groupNames.size() + 1 >= groupStart.length) {
+                groupStart = Arrays.copyOf(groupStart, groupStart.length * 2);
+            }
+            groupStart[groupNames.size()] = rows;
+        }
+
+        void endGroup() {
+            groupNames.add(currentGroup != null ? currentGroup : "Group " + (groupNames.size() + 1));
+            groupStart[groupNames.size()] = rows;
+        }
+
+        void rowGroup(String name) {
+            if (currentGroup == null) {
+                currentGroup = name;
+            }
+        }
+
+        int beginRow() {
+            if (rows == teamNames.length) {
+                int capacity = rows * 2;
+                for (int c = 0; c < COLUMNS; c++) {
+                    columns[c] = Arrays.copyOf(columns[c], capacity);
+                }
+                teamNames = Arrays.copyOf(teamNames, capacity);
+            }
+            return rows++;
+        }
+
+        void set(int column, int row, int value) {
+            columns[column][row] = value;
+        }
+
+        StandingsSnapshot build() {
+            if (groupNames.isEmpty()) {
+                return StandingsSnapshot.EMPTY;
+            }
+            int groups = groupNames.size();
+            return new StandingsSnapshot(leagueId, season, leagueName, country,
+                    groupNames.toArray(new String[0]), Arrays.copyOf(groupStart, groups + 1),
+                    column(TEAM_ID), Arrays.copyOf(teamNames, rows), column(RANK), column(POINTS), column(GOALS_DIFF),
+                    split(ALL), split(HOME), split(AWAY));
+        }
+
+        private StandingsSnapshot.Split split(int base) {
+            return new StandingsSnapshot.Split(column(base), column(base + 1), column(base + 2),
+                    column(base + 3), column(base + 4), column(base + 5));
+        }
+
+        private int[] column(int c) {
+            return Arrays.copyOf(columns[c], rows);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.scoreprediction;
+
+import com.google.gson.JsonParseException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * One fetched {@code /standings} response: the raw upstream body, passed through
+ * as-is by {@code /standings}, and the snapshot parsed from it once at load time.
+ *
+ * The body is kept as UTF-8 bytes shared by every request that hits this entry,
+ * so serving it is a single write with no String round trip. Callers must not
+ * modify the arrays.
+ */
+public final class StandingsPayload {
+
+    final byte[] body;
+    final StandingsSnapshot snapshot;
+
+    // gzip of body: taken from upstream when it sent gzip, otherwise compressed on first use
+    private volatile byte[] gzipBody;
+    // StandingsCodec form of snapshot, encoded on first use
+    private volatile byte[] binaryBody;
+
+    // group index -> serialized prediction matrix; lives and dies with this payload
+    private final ConcurrentHashMap<Integer, byte[]> matrixJson = new ConcurrentHashMap<>();
+    // group index -> fitted scoreline model
+    private final ConcurrentHashMap<Integer, PoissonModel> poissonModels = new ConcurrentHashMap<>();
+
+    StandingsPayload(byte[] body, byte[] gzipBody, StandingsSnapshot snapshot) {
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.snapshot = snapshot;
+    }
+
+    public static StandingsPayload of(String body) {
+        return of(body.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    /** {@code gzipBody} is the same document compressed, or {@code null}. */
+    public static StandingsPayload of(byte[] body, byte[] gzipBody) {
+        StandingsSnapshot snapshot;
+        long start = System.nanoTime();
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(body), StandardCharsets.UTF_8)) {
+            snapshot = StandingsParser.parse(reader);
+        } catch (IOException | JsonParseException | IllegalStateException e) {
+            // Still pass the body through; callers that need the table see an empty snapshot.
+            snapshot = StandingsSnapshot.EMPTY;
+        }
+        Metrics.STANDINGS_PARSE.recordSince(start);
+        return new StandingsPayload(body, gzipBody, snapshot);
+    }
+
+    /**
+     * From an upstream response, keeping its gzip bytes when it was compressed.
+     * A non-2xx answer is an error, not a table, and fails here.
+     */
+    public static StandingsPayload of(UpstreamClient.Raw raw) throws IOException {
+        if (raw.status < 200 || raw.status >= 300) {
+            throw new IOException("Upstream answered HTTP " + raw.status);
+        }
+        if (!raw.isGzip()) {
+            return of(raw.body, null);
+        }
+        try (InputStream in = raw.decoded()) {
+            return of(in.readAllBytes(), raw.body);
+        }
+    }
+
+    byte[] gzipBody() {
+        byte[] gzip = gzipBody;
+        if (gzip == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+            try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+                gz.write(body);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            // racing callers compress the same bytes; either result is fine to keep
+            gzip = out.toByteArray();
+            gzipBody = gzip;
+        }
+        return gzip;
+    }
+
+    byte[] binaryBody() {
+        byte[] binary = binaryBody;
+        if (binary == null) {
+            binary = StandingsCodec.encode(snapshot);
+            binaryBody = binary;
+        }
+        return binary;
+    }
+
+    byte[] matrixJson(int group, String league, String season, long version) {
+        return matrixJson.computeIfAbsent(group,
+                g -> PredictionMatrix.compute(snapshot, g).toJson(snapshot, league, season, version));
+    }
+
+    PoissonModel poissonModel(int group) {
+        return poissonModels.computeIfAbsent(group, g -> PoissonModel.fit(snapshot, g));
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+
+    public StandingsSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.scoreprediction;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, column-oriented view of one api-sports standings payload.
+ *
+ * Every team of every group is a row. Rows of group {@code g} occupy
+ * {@code [groupStart[g], groupStart[g + 1])} in table order, so position
+ * {@code p} (0-based) of group {@code g} is row {@code groupStart[g] + p}.
+ * Regular leagues have exactly one group.
+ */
+public final class StandingsSnapshot {
+
+    /** Per-row game counters for one of the all/home/away splits. */
+    public static final class Split {
+        final int[] played;
+        final int[] win;
+        final int[] draw;
+        final int[] lose;
+        final int[] goalsFor;
+        final int[] goalsAgainst;
+
+        Split(int[] played, int[] win, int[] draw, int[] lose, int[] goalsFor, int[] goalsAgainst) {
+            this.played = played;
+            this.win = win;
+            this.draw = draw;
+            this.lose = lose;
+            this.goalsFor = goalsFor;
+            this.goalsAgainst = goalsAgainst;
+        }
+
+        public int played(int row) {
+            return played[row];
+        }
+
+        public int win(int row) {
+            return win[row];
+        }
+
+        public int draw(int row) {
+            return draw[row];
+        }
+
+        public int lose(int row) {
+            return lose[row];
+        }
+
+        public int goalsFor(int row) {
+            return goalsFor[row];
+        }
+
+        public int goalsAgainst(int row) {
+            return goalsAgainst[row];
+        }
+    }
+
+    static final StandingsSnapshot EMPTY = new StandingsSnapshot(0, 0, null, null,
+            new String[0], new int[] {0}, new int[0], new String[0], new int[0], new int[0], new int[0],
+            emptySplit(), emptySplit(), emptySplit());
+
+    final int leagueId;
+    final int season;
+    final String leagueName;
+    final String country;
+
+    final String[] groupNames;
+    final int[] groupStart;
+
+    final int[] teamId;
+    final String[] teamName;
+    final int[] rank;
+    final int[] points;
+    final int[] goalsDiff;
+
+    final Split all;
+    final Split home;
+    final Split away;
+
+    // built on first lookup; racing callers build equal indexes
+    private volatile TeamIndex teamIndex;
+
+    StandingsSnapshot(int leagueId, int season, String leagueName, String country,
+                      String[] groupNames, int[] groupStart,
+                      int[] teamId, String[] teamName, int[] rank, int[] points, int[] goalsDiff,
+                      Split all, Split home, Split away) {
+        this.leagueId = leagueId;
+        this.season = season;
+        this.leagueName = leagueName;
+        this.country = country;
+        this.groupNames = groupNames;
+        this.groupStart = groupStart;
+        this.teamId = teamId;
+        this.teamName = teamName;
+        this.rank = rank;
+        this.points = points;
+        this.goalsDiff = goalsDiff;
+        this.all = all;
+        this.home = home;
+        this.away = away;
+    }
+
+    public int getLeagueId() {
+        return leagueId;
+    }
+
+    public int getSeason() {
+        return season;
+    }
+
+    public String getLeagueName() {
+        return leagueName;
+    }
+
+    public String getCountry() {
+        return country;
+    }
+
+    public int groupCount() {
+        return groupNames.length;
+    }
+
+    public String groupName(int group) {
+        return groupNames[group];
+    }
+
+    /**
+     * Index of the group with this name, or -1. Matching ignores case and
+     * accepts the bare letter for names like "Group A".
+     */
+    public int groupIndex(String name) {
+        String wanted = name.trim();
+        for (int g = 0; g < groupNames.length; g++) {
+            String groupName = groupNames[g];
+            if (groupName == null) continue;
+            if (groupName.equalsIgnoreCase(wanted) || groupName.equalsIgnoreCase("Group " + wanted)) {
+                return g;
+            }
+        }
+        return -1;
+    }
+
+    public int groupSize(int group) {
+        return groupStart[group + 1] - groupStart[group];
+    }
+
+    /** Group holding {@code row}. */
+    public int groupOf(int row) {
+        int g = Arrays.binarySearch(groupStart, row);
+        if (g < 0) {
+            return -g - 2;
+        }
+        // skip empty groups that start at the same row
+        while (g + 1 < groupNames.length && groupStart[g + 1] == row) {
+            g++;
+        }
+        return g;
+    }
+
+    /** Row of the 0-based table position inside a group. */
+    public int row(int group, int position) {
+        return groupStart[group] + position;
+    }
+
+    public int rowCount() {
+        return teamId.length;
+    }
+
+    public boolean isEmpty() {
+        return teamId.length == 0;
+    }
+
+    public int teamId(int row) {
+        return teamId[row];
+    }
+
+    public String teamName(int row) {
+        return teamName[row];
+    }
+
+    public int rank(int row) {
+        return rank[row];
+    }
+
+    public int points(int row) {
+        return points[row];
+    }
+
+    public int goalsDiff(int row) {
+        return goalsDiff[row];
+    }
+
+    /** Id and name lookup over this table's rows. */
+    public TeamIndex teamIndex() {
+        TeamIndex index = teamIndex;
+        if (index == null) {
+            index = TeamIndex.of(this);
+            teamIndex = index;
+        }
+        return index;
+    }
+
+    public Split all() {
+        return all;
+    }
+
+    public Split home() {
+        return home;
+    }
+
+    public Split away() {
+        return away;
+    }
+
+    private static Split emptySplit() {
+        return new Split(new int[0], new int[0], new int[0], new int[0], new int[0], new int[0]);
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.scoreprediction;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code GET /standings/stream?league=&season=}: live standings as
+ * Server-Sent Events.
+ *
+ * All subscribers of one (league, season) share a channel with a single
+ * poller that fetches upstream every {@code period} (in the refresh lane of
+ * the upstream quota). Only a body that differs from the last one is put in
+ * the standings cache, stored and pushed: one {@code standings} event, framed
+ * once and written to every subscriber. Unchanged polls touch nothing and send
+ * a comment line instead, which also finds clients that went away. A channel
+ * whose last subscriber is gone stops polling and is dropped.
+ *
+ * The handler returns once the stream is set up, so open streams do not hold
+ * server threads. Events are queued per subscriber and written by a writer
+ * pool, never under the channel lock: a client that stops reading only stalls
+ * its own writer, and once {@value #QUEUED_FRAMES} frames are waiting for it,
+ * it is dropped and its connection closed.
+ */
+class StandingsStreamHandler implements HttpHandler {
+
+    private static final byte[] HEARTBEAT = ": ping\n\n".getBytes(StandardCharsets.US_ASCII);
+    // frames a subscriber may fall behind before it is dropped
+    static final int QUEUED_FRAMES = 8;
+
+    private static final AtomicInteger pollerThreads = new AtomicInteger();
+    private static final AtomicInteger writerThreads = new AtomicInteger();
+
+    /** Where a changed table goes besides the cache (history and the snapshot store). */
+    interface Store {
+        void store(String league, String season, StandingsPayload payload);
+    }
+
+    private final UpstreamCache.Loader<StandingsPayload> poller;
+    private final Store store;
+    private final long periodMillis;
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService writers;
+    private final ConcurrentHashMap<UpstreamCache.Key, Channel> channels = new ConcurrentHashMap<>();
+
+    /** {@code poller} only fetches; {@code store} is called once per changed table. */
+    StandingsStreamHandler(UpstreamCache.Loader<StandingsPayload> poller, Store store, long periodMillis) {
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("period must be positive");
+        }
+        this.poller = poller;
+        this.store = store;
+        this.periodMillis = periodMillis;
+        this.ticker = Executors.newScheduledThreadPool(2, r -> {
+            Thread t = new Thread(r, "standings-stream-" + pollerThreads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.writers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "standings-stream-writer-" + writerThreads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        WebServer.addCorsAndContentType(exchange.getResponseHeaders());
+
+        if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+            WebServer.sendJson(exchange, 405, "{\"error\":\"Method Not Allowed\"}");
+            return;
+        }
+
+        Map<String, String> queryParams = WebServer.parseQueryParams(exchange.getRequestURI());
+        String league = queryParams.get("league");
+        String season = queryParams.get("season");
+        if (league == null || league.isBlank() || season == null || season.isBlank()) {
+            WebServer.sendJson(exchange, 400, "{\"error\":\"Missing required query params: league, season\"}");
+            return;
+        }
+
+        UpstreamCache.Entry<StandingsPayload> cached;
+        try {
+            cached = WebServer.standingsCache.getEntry(league, season);
+        } catch (Exception e) {
+            WebServer.sendError(exchange, e);
+            return;
+        }
+
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", "text/event-stream; charset=utf-8");
+        headers.set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        Subscriber subscriber = new Subscriber(exchange);
+
+        UpstreamCache.Key key = new UpstreamCache.Key(league, season);
+        Channel channel = channels.compute(key, (k, existing) -> {
+            Channel c = existing != null ? existing : new Channel(k);
+            c.subscribers.add(subscriber);
+            return c;
+        });
+        channel.welcome(subscriber, cached);
+    }
+
+    /** Channels currently polling. */
+    int channelCount() {
+        return channels.size();
+    }
+
+    int subscriberCount() {
+        int n = 0;
+        for (Channel channel : channels.values()) {
+            n += channel.subscribers.size();
+        }
+        return n;
+    }
+
+    void shutdown() {
+        ticker.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    private final class Channel {
+        final UpstreamCache.Key key;
+        final CopyOnWriteArrayList<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        final ScheduledFuture<?> task;
+
+        // guarded by "this"
+        private byte[] lastBody;
+        private long lastVersion;
+        private byte[] lastFrame;
+        private long eventId;
+
+        Channel(UpstreamCache.Key key) {
+            this.key = key;
+            this.task = ticker.scheduleWithFixedDelay(this::poll, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Brings a new subscriber up to date. {@code cached} is the entry it was
+         * opened with; it is only pushed to everyone when it is newer than what
+         * the channel has, since a cache read can finish just before the
+         * poller's put.
+         */
+        synchronized void welcome(Subscriber subscriber, UpstreamCache.Entry<StandingsPayload> cached) {
+            if (lastBody == null || (cached.version > lastVersion && isNew(cached.value.body))) {
+                publish(cached.value.body, cached.version);
+            } else {
+                subscriber.send(lastFrame, this);
+            }
+        }
+
+        private synchronized boolean isNew(byte[] body) {
+            return lastBody == null || !Arrays.equals(lastBody, body);
+        }
+
+        /** Queues {@code body}, cached as {@code version}, for everyone. */
+        private synchronized void publish(byte[] body, long version) {
+            lastBody = body;
+            lastVersion = version;
+            lastFrame = frame(++eventId, body);
+            for (Subscriber s : subscribers) {
+                s.send(lastFrame, this);
+            }
+        }
+
+        private void poll() {
+            if (!subscribers.isEmpty()) {
+                boolean pushed = false;
+                try {
+                    StandingsPayload payload = UpstreamScheduler.inLane(UpstreamScheduler.Lane.REFRESH,
+                            () -> poller.load(key.league, key.season));
+                    if (isNew(payload.body)) {
+                        UpstreamCache.Entry<StandingsPayload> entry = WebServer.standingsCache.put(key.league, key.season, payload);
+                        store.store(key.league, key.season, payload);
+                        publish(payload.body, entry.version);
+                        pushed = true;
+                    }
+                } catch (Exception e) {
+                    // upstream hiccup or quota shed: try again next period
+                }
+                if (!pushed) {
+                    for (Subscriber s : subscribers) {
+                        s.send(HEARTBEAT, this);
+                    }
+                }
+            }
+            closeIfIdle();
+        }
+
+        private void closeIfIdle() {
+            channels.computeIfPresent(key, (k, c) -> {
+                if (c == this && c.subscribers.isEmpty()) {
+                    if (task != null) {
+                        task.cancel(false);
+                    }
+                    return null;
+                }
+                return c;
+            });
+        }
+    }
+
+    private final class Subscriber {
+        final HttpExchange exchange;
+        final OutputStream out;
+        final ArrayBlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUED_FRAMES);
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        // guarded by "this"; the writer thread is interrupted on drop, which aborts a blocked write
+        private boolean closed;
+        private Thread writer;
+
+        Subscriber(HttpExchange exchange) {
+            this.exchange = exchange;
+            this.out = exchange.getResponseBody();
+        }
+
+        /** Queues {@code bytes} without blocking; a subscriber whose queue is full has fallen behind and is dropped. */
+        void send(byte[] bytes, Channel channel) {
+            if (!queue.offer(bytes)) {
+                if (drop(channel)) {
+                    // not on the caller's thread: the close may block on the same full connection
+                    try {
+                        writers.execute(exchange::close);
+                    } catch (RejectedExecutionException e) {
+                        exchange.close();
+                    }
+                }
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                startDrain(channel);
+            }
+        }
+
+        private void startDrain(Channel channel) {
+            try {
+                writers.execute(() -> drain(channel));
+            } catch (RejectedExecutionException e) {
+                // the handler is shut down
+                draining.set(false);
+            }
+        }
+
+        private void drain(Channel channel) {
+            synchronized (this) {
+                if (closed) {
+                    draining.set(false);
+                    return;
+                }
+                writer = Thread.currentThread();
+            }
+            boolean failed = false;
+            try {
+                byte[] bytes;
+                while ((bytes = queue.poll()) != null) {
+                    out.write(bytes);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                failed = true;
+            } finally {
+                synchronized (this) {
+                    writer = null;
+                    // an interrupt from drop() was meant for this subscriber's write only
+                    Thread.interrupted();
+                }
+                draining.set(false);
+            }
+            if (failed) {
+                if (drop(channel)) {
+                    exchange.close();
+                }
+            } else if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                startDrain(channel);
+            }
+        }
+
+        /** Unsubscribes and aborts a write in progress; true for the call that should close the exchange. */
+        private boolean drop(Channel channel) {
+            channel.subscribers.remove(this);
+            synchronized (this) {
+                if (closed) {
+                    return false;
+                }
+                closed = true;
+                queue.clear();
+                if (writer != null) {
+                    writer.interrupt();
+                }
+                return true;
+            }
+        }
+    }
+
+    /** One {@code standings} event; newlines in the body become continuation {@code data:} lines. */
+    static byte[] frame(long id, byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length + 64);
+        out.writeBytes(("id: " + id + "\nevent: standings\ndata: ").getBytes(StandardCharsets.US_ASCII));
+        int start = 0;
+        for (int i = 0; i < body.length; i++) {
+            if (body[i] == '\n') {
+                int end = i > start && body[i - 1] == '\r' ? i - 1 : i;
+                out.write(body, start, end - start);
+                out.writeBytes("\ndata: ".getBytes(StandardCharsets.US_ASCII));
+                start = i + 1;
+            }
+        }
+        out.write(body, start, body.length - start);
+        out.writeBytes("\n\n".getBytes(StandardCharsets.US_ASCII));
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.scoreprediction;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The frontend files, loaded from the classpath once at startup.
+ *
+ * Each asset keeps its bytes, a gzip variant when that is smaller, and a strong
+ * ETag per variant, so the production static handler never touches the disk
+ * and can answer {@code If-None-Match} with a 304.
+ */
+public final class StaticAssets {
+
+    public static final class Asset {
+        final String contentType;
+        final String cacheControl;
+        final byte[] body;
+        final String etag;
+        final byte[] gzipBody;
+        final String gzipEtag;
+
+        Asset(String contentType, String cacheControl, byte[] body, String etag, byte[] gzipBody, String gzipEtag) {
+            this.contentType = contentType;
+            this.cacheControl = cacheControl;
+            this.body = body;
+            this.etag = etag;
+            this.gzipBody = gzipBody;
+            this.gzipEtag = gzipEtag;
+        }
+    }
+
+    private final Map<String, Asset> assets;
+
+    private StaticAssets(Map<String, Asset> assets) {
+        this.assets = assets;
+    }
+
+    /** Request path (e.g. {@code /app.js}) to asset, or {@code null}. */
+    public Asset get(String path) {
+        return assets.get(path);
+    }
+
+    public int size() {
+        return assets.size();
+    }
+
+    /**
+     * Loads every file under {@code root} on the classpath, whether the
+     * classes run from a directory or from the packaged jar.
+     */
+    public static StaticAssets load(ClassLoader loader, String root) throws IOException {
+        URL url = loader.getResource(root);
+        if (url == null) {
+            return new StaticAssets(Collections.emptyMap());
+        }
+        Map<String, Asset> assets = new HashMap<>();
+        try {
+            URI uri = url.toURI();
+            if ("jar".equals(uri.getScheme())) {
+                FileSystem fs;
+                boolean close = false;
+                try {
+                    fs = FileSystems.newFileSystem(uri, Collections.emptyMap());
+                    close = true;
+                } catch (FileSystemAlreadyExistsException e) {
+                    fs = FileSystems.getFileSystem(uri);
+                }
+                try {
+                    collect(fs.getPath(root), assets);
+                } finally {
+                    if (close) {
+                        fs.close();
+                    }
+                }
+            } else {
+                collect(Paths.get(uri), assets);
+            }
+        } catch (java.net.URISyntaxException e) {
+            throw new IOException("Bad resource URL " + url, e);
+        }
+        return new StaticAssets(Collections.unmodifiableMap(assets));
+    }
+
+    private static void collect(Path base, Map<String, Asset> assets) throws IOException {
+        try (Stream<Path> files = Files.walk(base)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                StringBuilder path = new StringBuilder();
+                for (Path part : base.relativize(file)) {
+                    path.append('/').append(part);
+                }
+                assets.put(path.toString(), toAsset(path.toString(), Files.readAllBytes(file)));
+            }
+        }
+    }
+
+    static Asset toAsset(String path, byte[] body) {
+        String contentType = contentType(path);
+        // asset URLs are not fingerprinted, so a max-age would keep stale JS after a deploy;
+        // always revalidate instead, which the ETag makes a cheap 304
+        String cacheControl = "no-cache";
+        String hash = sha256(body);
+        byte[] gzip = null;
+        String gzipEtag = null;
+        if (compressible(contentType)) {
+            byte[] compressed = gzip(body);
+            if (compressed.length < body.length) {
+                gzip = compressed;
+                gzipEtag = "\"" + hash + "-gz\"";
+            }
+        }
+        return new Asset(contentType, cacheControl, body, "\"" + hash + "\"", gzip, gzipEtag);
+    }
+
+    static String contentType(String path) {
+        String p = path.toLowerCase();
+        if (p.endsWith(".html") || p.endsWith(".htm")) return "text/html; charset=utf-8";
+        if (p.endsWith(".css")) return "text/css; charset=utf-8";
+        if (p.endsWith(".js")) return "application/javascript; charset=utf-8";
+        if (p.endsWith(".svg")) return "image/svg+xml";
+        if (p.endsWith(".png")) return "image/png";
+        if (p.endsWith(".jpg") || p.endsWith(".jpeg")) return "image/jpeg";
+        if (p.endsWith(".ico")) return "image/x-icon";
+        return "application/octet-stream";
+    }
+
+    private static boolean compressible(String contentType) {
+        return contentType.startsWith("text/") || contentType.startsWith("application/javascript")
+                || contentType.startsWith("image/svg");
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            StringBuilder hex = new StringBuilder(32);
+            for (int i = 0; i < 16; i++) {
+                hex.append(Character.forDigit((digest[i] >> 4) & 0xF, 16)).append(Character.forDigit(digest[i] & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.scoreprediction;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds teams of one {@link StandingsSnapshot} by id or by name, so clients
+ * do not need the table position, which changes every matchday.
+ *
+ * Ids map straight to their row. Names go into a trie keyed on a folded form
+ * (lower case, accents dropped, anything but letters and digits squeezed to a
+ * single space), once from the start of the name and once from every later
+ * word, so "man" finds both Manchester clubs and "city" finds Manchester City.
+ * Each node keeps the rows below it in table order, so a prefix lookup is one
+ * walk of {@code k} characters with no search below the node.
+ */
+public final class TeamIndex {
+
+    /** Result of {@link #resolve}: no team goes by that name. */
+    public static final int NOT_FOUND = -1;
+    /** Result of {@link #resolve}: the name is a prefix of several teams and matches none exactly. */
+    public static final int AMBIGUOUS = -2;
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        int[] rows = NO_ROWS;
+        int rowCount;
+        // rows whose whole folded name ends here
+        int[] exact = NO_ROWS;
+
+        Node child(char c, boolean create) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            if (!create) {
+                return null;
+            }
+            int at = -i - 1;
+            Node node = new Node();
+            keys = insert(keys, at, c);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, at);
+            grown[at] = node;
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            children = grown;
+            return node;
+        }
+
+        void add(int row) {
+            // one row is inserted completely before the next, so a repeat is always the last one
+            if (rowCount > 0 && rows[rowCount - 1] == row) {
+                return;
+            }
+            if (rowCount == rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(4, rowCount * 2));
+            }
+            rows[rowCount++] = row;
+        }
+
+        private static char[] insert(char[] keys, int at, char c) {
+            char[] grown = new char[keys.length + 1];
+            System.arraycopy(keys, 0, grown, 0, at);
+            grown[at] = c;
+            System.arraycopy(keys, at, grown, at + 1, keys.length - at);
+            return grown;
+        }
+    }
+
+    private final Map<Integer, Integer> rowById;
+    private final Node root = new Node();
+
+    private TeamIndex(int rows) {
+        this.rowById = new HashMap<>(rows * 2);
+    }
+
+    static TeamIndex of(StandingsSnapshot snapshot) {
+        int rows = snapshot.rowCount();
+        TeamIndex index = new TeamIndex(rows);
+        for (int row = 0; row < rows; row++) {
+            // a team in several groups is found at its first row
+            index.rowById.putIfAbsent(snapshot.teamId(row), row);
+            String name = snapshot.teamName(row);
+            if (name != null) {
+                index.insert(fold(name), row);
+            }
+        }
+        return index;
+    }
+
+    private void insert(String folded, int row) {
+        for (int start = 0; start < folded.length(); start++) {
+            if (start > 0 && folded.charAt(start - 1) != ' ') {
+                continue;
+            }
+            Node node = root;
+            for (int i = start; i < folded.length(); i++) {
+                node = node.child(folded.charAt(i), true);
+                node.add(row);
+            }
+            if (start == 0) {
+                node.exact = Arrays.copyOf(node.exact, node.exact.length + 1);
+                node.exact[node.exact.length - 1] = row;
+            }
+        }
+    }
+
+    /** Row of the team with this api-sports id, or {@link #NOT_FOUND}. */
+    public int rowOf(int teamId) {
+        Integer row = rowById.get(teamId);
+        return row == null ? NOT_FOUND : row;
+    }
+
+    /**
+     * Rows, in table order, of the teams whose name or one of its words starts
+     * with {@code prefix}; at most {@code limit} of them.
+     */
+    public int[] search(String prefix, int limit) {
+        Node node = find(fold(prefix));
+        if (node == null || node == root) {
+            return NO_ROWS;
+        }
+        return Arrays.copyOf(node.rows, Math.min(node.rowCount, Math.max(0, limit)));
+    }
+
+    /**
+     * The row of the team called {@code name}: an exact (folded) match wins,
+     * otherwise a prefix that fits only one team. {@link #NOT_FOUND} or
+     * {@link #AMBIGUOUS} when neither holds.
+     */
+    public int resolve(String name) {
+        Node node = find(fold(name));
+        if (node == null || node == root) {
+            return NOT_FOUND;
+        }
+        if (node.exact.length == 1) {
+            return node.exact[0];
+        }
+        return node.rowCount == 1 ? node.rows[0] : AMBIGUOUS;
+    }
+
+    private Node find(String folded) {
+        Node node = root;
+        for (int i = 0; i < folded.length() && node != null; i++) {
+            node = node.child(folded.charAt(i), false);
+        }
+        return node;
+    }
+
+    /** Lower case without accents, runs of anything but letters and digits as one space, trimmed. */
+    static String fold(String name) {
+        String decomposed = Normalizer.normalize(name, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean space = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (space && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                space = false;
+                sb.append(c);
+            } else {
+                space = true;
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.scoreprediction;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Classic token bucket: up to {@code capacity} tokens, refilled continuously at
+ * {@code tokensPerPeriod} per {@code period}. Callers either take a token now
+ * ({@link #tryAcquire()}) or wait for one ({@link #acquire()}).
+ */
+public final class TokenBucket {
+
+    private final long capacity;
+    private final double tokensPerNano;
+    private final LongSupplier clock;
+
+    // guarded by "this"
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(long capacity, long tokensPerPeriod, long period, TimeUnit unit) {
+        this(capacity, tokensPerPeriod, period, unit, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, long tokensPerPeriod, long period, TimeUnit unit, LongSupplier clock) {
+        if (capacity <= 0 || tokensPerPeriod <= 0 || period <= 0) {
+            throw new IllegalArgumentException("capacity, rate and period must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = (double) tokensPerPeriod / unit.toNanos(period);
+        this.clock = clock;
+        this.tokens = capacity;
+        this.refilledAt = clock.getAsLong();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /** Blocks until a token is available and takes it. */
+    public void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.max(waitNanos, 1000));
+        }
+    }
+
+    /** Nanoseconds until a token will be available (0 if one is available now). */
+    public long nanosUntilAvailable() {
+        return nanosUntilAvailable(1);
+    }
+
+    /** Nanoseconds until {@code count} tokens will be available, or {@link Long#MAX_VALUE} if never. */
+    public synchronized long nanosUntilAvailable(long count) {
+        if (count > capacity) {
+            return Long.MAX_VALUE;
+        }
+        refill();
+        return tokens >= count ? 0 : (long) Math.ceil((count - tokens) / tokensPerNano);
+    }
+
+    /** Caps the tokens at {@code available}, e.g. when the upstream reports less quota than we think. */
+    public synchronized void limitTo(long available) {
+        refill();
+        tokens = Math.min(tokens, Math.max(0, available));
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        if (now > refilledAt) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+        }
+    }
+}
@@ -0,0 +1,413 @@
+package com.example.scoreprediction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process cache of upstream payloads keyed by (league, season).
+ *
+ * Entries expire after a fixed TTL and the least recently used entry is evicted
+ * once the cache is full. Concurrent misses on the same key are collapsed into a
+ * single call to the {@link Loader}: the first caller loads, everybody else waits
+ * for its result. Failed loads are never cached. A user request never waits on a
+ * background reload, which may be queued behind user traffic in the upstream
+ * quota: it takes the key over and loads it in its own lane, and requests that
+ * follow wait on that load instead.
+ *
+ * {@link #warm} seeds entries from an older copy (e.g. the on-disk snapshot
+ * store). Those are served immediately but count as stale: the first hit starts
+ * a background reload that replaces them, and callers never wait for it.
+ *
+ * With {@link #refreshAhead} enabled, hits are counted per entry and a periodic
+ * sweep reloads entries that are about to expire in the background, but only
+ * those hit at least {@code minHitsPerMinute} times per minute since they were
+ * loaded. Hot keys are then never served cold; cold ones are left to expire.
+ */
+public class UpstreamCache<V> {
+
+    /** Fetches the value of a key; throws for anything that must not be cached, such as an error answer. */
+    public interface Loader<V> {
+        V load(String league, String season) throws Exception;
+    }
+
+    static final class Key {
+        final String league;
+        final String season;
+
+        Key(String league, String season) {
+            this.league = league.trim();
+            this.season = season.trim();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return league.equals(other.league) && season.equals(other.season);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * league.hashCode() + season.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return league + "/" + season;
+        }
+    }
+
+    public static final class Entry<V> {
+        final V value;
+        final long loadedAtNanos;
+        final long version;
+        final boolean stale;
+        // hits since loaded, and whether the refresh-ahead sweep has dealt with this entry
+        final LongAdder accesses = new LongAdder();
+        volatile boolean sweptAhead;
+
+        Entry(V value, long loadedAtNanos, long version, boolean stale) {
+            this.value = value;
+            this.loadedAtNanos = loadedAtNanos;
+            this.version = version;
+            this.stale = stale;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public boolean isStale() {
+            return stale;
+        }
+    }
+
+    /** A load in progress, and whether it was started by a background lane. */
+    private static final class Flight<V> {
+        final CompletableFuture<Entry<V>> future = new CompletableFuture<>();
+        final boolean background;
+
+        Flight(boolean background) {
+            this.background = background;
+        }
+    }
+
+    // one sequence for every cache, so a version names a single entry even when a cache is replaced
+    private static final AtomicLong versions = new AtomicLong();
+    private static final AtomicInteger refreshThreads = new AtomicInteger();
+    private static final Executor DEFAULT_REFRESHER = Executors.newFixedThreadPool(2, r -> {
+        Thread t = new Thread(r, "cache-refresh-" + refreshThreads.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+    private static final ScheduledExecutorService SWEEPER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cache-refresh-ahead");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final Loader<V> loader;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+
+    // access-ordered, guarded by "entries"
+    private final LinkedHashMap<Key, Entry<V>> entries;
+    private final ConcurrentHashMap<Key, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    // called with the key of every stored entry; null for none
+    private volatile Consumer<Key> storeListener;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder aheadRefreshes = new LongAdder();
+    private final LongAdder aheadSkipped = new LongAdder();
+
+    // refresh-ahead settings; aheadNanos == 0 means off
+    private volatile long aheadNanos;
+    private volatile double minHitsPerMinute;
+
+    Executor refresher = DEFAULT_REFRESHER;
+
+    public UpstreamCache(Loader<V> loader, long ttl, TimeUnit unit, int maxEntries) {
+        this(loader, ttl, unit, maxEntries, System::nanoTime);
+    }
+
+    UpstreamCache(Loader<V> loader, long ttl, TimeUnit unit, int maxEntries, LongSupplier clock) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.loader = Objects.requireNonNull(loader, "loader");
+        this.ttlNanos = unit.toNanos(Math.max(0, ttl));
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public V get(String league, String season) throws Exception {
+        return getEntry(league, season).value;
+    }
+
+    public Entry<V> getEntry(String league, String season) throws Exception {
+        Key key = new Key(league, season);
+        Entry<V> cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            cached.accesses.increment();
+            if (cached.stale) {
+                staleHits.increment();
+                refreshInBackground(key, cached);
+            }
+            return cached;
+        }
+        misses.increment();
+        return load(key, null);
+    }
+
+    /**
+     * Stores {@code value} as a stale entry unless the key is already cached.
+     * It expires like any other entry, counted from now.
+     */
+    public void warm(String league, String season, V value) {
+        if (ttlNanos == 0) {
+            return;
+        }
+        Key key = new Key(league, season);
+        synchronized (entries) {
+            if (entries.containsKey(key)) {
+                return;
+            }
+        }
+        store(key, new Entry<>(value, clock.getAsLong(), versions.incrementAndGet(), true));
+    }
+
+    private void refreshInBackground(Key key, Entry<V> current) {
+        if (inFlight.containsKey(key)) {
+            return;
+        }
+        refresher.execute(() -> {
+            try {
+                // behind user requests in the upstream quota
+                UpstreamScheduler.inLane(UpstreamScheduler.Lane.REFRESH, () -> load(key, current));
+            } catch (Exception e) {
+                // keep serving the stale copy until it expires
+            }
+        });
+    }
+
+    /** Calls {@code listener} with the key of every entry stored from now on, to drop what was built from the old one. */
+    public void onStore(Consumer<Key> listener) {
+        this.storeListener = listener;
+    }
+
+    /**
+     * Turns on refresh-ahead: every {@code ahead / 2} a sweep reloads entries
+     * that expire within {@code ahead} and were hit at least
+     * {@code minHitsPerMinute} times per minute since they were loaded.
+     */
+    public void refreshAhead(long ahead, TimeUnit unit, double minHitsPerMinute) {
+        long nanos = unit.toNanos(ahead);
+        if (nanos <= 0 || ttlNanos == 0) {
+            return;
+        }
+        this.aheadNanos = Math.min(nanos, ttlNanos);
+        this.minHitsPerMinute = minHitsPerMinute;
+        long period = Math.max(TimeUnit.MILLISECONDS.toNanos(100), aheadNanos / 2);
+        SWEEPER.scheduleWithFixedDelay(this::sweepAhead, period, period, TimeUnit.NANOSECONDS);
+    }
+
+    /** One refresh-ahead pass; each entry is considered once, when it enters the window. */
+    void sweepAhead() {
+        long ahead = aheadNanos;
+        if (ahead == 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        List<Map.Entry<Key, Entry<V>>> due = new ArrayList<>();
+        synchronized (entries) {
+            for (Map.Entry<Key, Entry<V>> e : entries.entrySet()) {
+                Entry<V> entry = e.getValue();
+                long age = now - entry.loadedAtNanos;
+                if (!entry.stale && !entry.sweptAhead && age >= ttlNanos - ahead && age < ttlNanos) {
+                    due.add(Map.entry(e.getKey(), entry));
+                }
+            }
+        }
+        for (Map.Entry<Key, Entry<V>> e : due) {
+            Entry<V> entry = e.getValue();
+            entry.sweptAhead = true;
+            double minutes = Math.max(1, now - entry.loadedAtNanos) / 60e9;
+            if (entry.accesses.sum() / minutes < minHitsPerMinute || inFlight.containsKey(e.getKey())) {
+                aheadSkipped.increment();
+                continue;
+            }
+            refresher.execute(() -> {
+                try {
+                    UpstreamScheduler.inLane(UpstreamScheduler.Lane.REFRESH, () -> load(e.getKey(), entry));
+                    aheadRefreshes.increment();
+                } catch (Exception ex) {
+                    // no quota or upstream down: the entry expires as usual
+                    aheadSkipped.increment();
+                }
+            });
+        }
+    }
+
+    /**
+     * Loads {@code key} unless another caller already did: the key must be
+     * missing, or still hold {@code replace} (the entry being refreshed).
+     */
+    private Entry<V> load(Key key, Entry<V> replace) throws Exception {
+        boolean background = UpstreamScheduler.currentLane() != UpstreamScheduler.Lane.INTERACTIVE;
+        Flight<V> mine = new Flight<>(background);
+        while (true) {
+            Flight<V> running = inFlight.putIfAbsent(key, mine);
+            if (running == null) {
+                break;
+            }
+            if (background || !running.background) {
+                return await(running.future);
+            }
+            // a background reload may wait up to its lane's limit for quota; do not queue a user behind it
+            if (inFlight.replace(key, running, mine)) {
+                break;
+            }
+        }
+        try {
+            // Another leader may have stored the entry between our lookup and putIfAbsent.
+            Entry<V> entry = lookup(key);
+            if (entry == null || (replace != null && entry == replace)) {
+                V value = loader.load(key.league, key.season);
+                loads.increment();
+                entry = new Entry<>(value, clock.getAsLong(), versions.incrementAndGet(), false);
+                store(key, entry);
+            }
+            mine.future.complete(entry);
+            return entry;
+        } catch (Throwable t) {
+            mine.future.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /** Stores a freshly fetched {@code value}, replacing whatever was cached for the key. */
+    public Entry<V> put(String league, String season, V value) {
+        Entry<V> entry = new Entry<>(value, clock.getAsLong(), versions.incrementAndGet(), false);
+        store(new Key(league, season), entry);
+        return entry;
+    }
+
+    public void invalidate(String league, String season) {
+        synchronized (entries) {
+            entries.remove(new Key(league, season));
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    public long staleHitCount() {
+        return staleHits.sum();
+    }
+
+    /** Entries reloaded by refresh-ahead before they expired. */
+    public long refreshAheadCount() {
+        return aheadRefreshes.sum();
+    }
+
+    /** Entries refresh-ahead let expire: too few hits, or the reload was shed or failed. */
+    public long refreshAheadSkippedCount() {
+        return aheadSkipped.sum();
+    }
+
+    private Entry<V> lookup(Key key) {
+        if (ttlNanos == 0) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.loadedAtNanos >= ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void store(Key key, Entry<V> entry) {
+        if (ttlNanos > 0) {
+            synchronized (entries) {
+                entries.put(key, entry);
+                if (entries.size() > maxEntries) {
+                    Iterator<Map.Entry<Key, Entry<V>>> it = entries.entrySet().iterator();
+                    while (entries.size() > maxEntries && it.hasNext()) {
+                        it.next();
+                        it.remove();
+                    }
+                }
+            }
+        }
+        Consumer<Key> listener = storeListener;
+        if (listener != null) {
+            listener.accept(key);
+        }
+    }
+
+    private static <V> Entry<V> await(CompletableFuture<Entry<V>> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
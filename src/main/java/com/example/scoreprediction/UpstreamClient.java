@@ -0,0 +1,227 @@
+package com.example.scoreprediction;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The one HTTP client used for every api-sports call.
+ *
+ * A single {@link HttpClient} keeps its connections alive and multiplexes
+ * requests over HTTP/2 when the upstream supports it, so callers no longer pay
+ * for a new TLS handshake and selector thread per request. A semaphore bounds
+ * the number of requests that may be in flight at the same time, and an
+ * {@link UpstreamScheduler} (when given) keeps every call within the api-sports
+ * quota, charged to the calling thread's lane.
+ */
+public class UpstreamClient {
+
+    private static volatile UpstreamClient shared;
+
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+    private final Semaphore inFlight;
+    private final UpstreamScheduler scheduler;
+
+    public UpstreamClient(Duration connectTimeout, Duration requestTimeout, int maxInFlight) {
+        this(connectTimeout, requestTimeout, maxInFlight, null);
+    }
+
+    public UpstreamClient(Duration connectTimeout, Duration requestTimeout, int maxInFlight, UpstreamScheduler scheduler) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        this.requestTimeout = requestTimeout;
+        this.inFlight = new Semaphore(maxInFlight, true);
+        this.scheduler = scheduler;
+    }
+
+    public static UpstreamClient shared() {
+        UpstreamClient client = shared;
+        if (client == null) {
+            synchronized (UpstreamClient.class) {
+                client = shared;
+                if (client == null) {
+                    client = new UpstreamClient(
+                            Duration.ofMillis(Config.longValue("UPSTREAM_CONNECT_TIMEOUT_MS", 5000)),
+                            Duration.ofMillis(Config.longValue("UPSTREAM_READ_TIMEOUT_MS", 15000)),
+                            Config.intValue("UPSTREAM_MAX_IN_FLIGHT", 16),
+                            UpstreamScheduler.fromConfig());
+                    shared = client;
+                }
+            }
+        }
+        return client;
+    }
+
+    public String get(String url, String token, String host) throws Exception {
+        schedule(UpstreamScheduler.currentLane());
+        inFlight.acquire();
+        try {
+            return send(request(url, token, host, false), HttpResponse.BodyHandlers.ofString()).body();
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * The body exactly as sent, asking for gzip. {@code contentEncoding} says
+     * whether {@code body} is compressed; nothing is decoded into a String.
+     */
+    public Raw getRaw(String url, String token, String host) throws Exception {
+        return getRaw(url, token, host, UpstreamScheduler.currentLane());
+    }
+
+    public Raw getRaw(String url, String token, String host, UpstreamScheduler.Lane lane) throws Exception {
+        schedule(lane);
+        inFlight.acquire();
+        try {
+            HttpResponse<byte[]> response = send(request(url, token, host, true), HttpResponse.BodyHandlers.ofByteArray());
+            return new Raw(response.statusCode(), response.body(),
+                    response.headers().firstValue("Content-Encoding").orElse(null));
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Opens the response body as a stream, for passthrough. The in-flight slot
+     * is held until the stream is closed, so callers must close it.
+     */
+    public Streamed stream(String url, String token, String host, boolean acceptGzip) throws Exception {
+        schedule(UpstreamScheduler.currentLane());
+        inFlight.acquire();
+        HttpResponse<InputStream> response;
+        try {
+            response = send(request(url, token, host, acceptGzip), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (Exception | Error e) {
+            inFlight.release();
+            throw e;
+        }
+        return new Streamed(response.statusCode(),
+                response.headers().firstValue("Content-Encoding").orElse(null),
+                new ReleasingInputStream(response.body(), inFlight));
+    }
+
+    private void schedule(UpstreamScheduler.Lane lane) throws Exception {
+        if (scheduler != null) {
+            scheduler.acquire(lane);
+        }
+    }
+
+    /** Sends {@code request}, timing it and feeding the quota headers back to the scheduler. */
+    private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws Exception {
+        long start = System.nanoTime();
+        HttpResponse<T> response;
+        try {
+            response = httpClient.send(request, handler);
+        } catch (Exception e) {
+            Metrics.UPSTREAM_ERRORS.increment();
+            throw e;
+        } finally {
+            Metrics.UPSTREAM_LATENCY.recordSince(start);
+        }
+        if (scheduler != null) {
+            scheduler.observe(response.statusCode(), response.headers());
+        }
+        return response;
+    }
+
+    /** The quota gate of this client, or {@code null} if it has none. */
+    public UpstreamScheduler scheduler() {
+        return scheduler;
+    }
+
+    private HttpRequest request(String url, String token, String host, boolean acceptGzip) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(new URI(url))
+                .timeout(requestTimeout)
+                .header("x-rapidapi-key", token)
+                .header("x-rapidapi-host", host);
+        if (acceptGzip) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        return builder.GET().build();
+    }
+
+    public int availableSlots() {
+        return inFlight.availablePermits();
+    }
+
+    /** An upstream response body as received. */
+    public static final class Raw {
+        final int status;
+        final byte[] body;
+        final String contentEncoding;
+
+        Raw(int status, byte[] body, String contentEncoding) {
+            this.status = status;
+            this.body = body;
+            this.contentEncoding = contentEncoding;
+        }
+
+        public boolean isGzip() {
+            return "gzip".equalsIgnoreCase(contentEncoding);
+        }
+
+        /** The body, decompressed if it was gzip-encoded. */
+        public InputStream decoded() throws IOException {
+            InputStream in = new ByteArrayInputStream(body);
+            return isGzip() ? new GZIPInputStream(in) : in;
+        }
+    }
+
+    /** An upstream response whose body has not been read yet. */
+    public static final class Streamed implements Closeable {
+        final int status;
+        final String contentEncoding;
+        final InputStream body;
+
+        Streamed(int status, String contentEncoding, InputStream body) {
+            this.status = status;
+            this.contentEncoding = contentEncoding;
+            this.body = body;
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+
+    private static final class ReleasingInputStream extends FilterInputStream {
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingInputStream(InputStream in, Semaphore permits) {
+            super(in);
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    permits.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.scoreprediction;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gatekeeper in front of every api-sports call, so the per-minute and per-day
+ * quotas are never overrun, whoever is asking.
+ *
+ * Each quota is a {@link TokenBucket} whose burst plus refill over one window
+ * add up to the limit, so no window of that length can see more requests than
+ * allowed. Both buckets are only touched under one lock, which makes taking a
+ * token from each atomic. The {@code x-ratelimit-*} headers of every response
+ * lower the buckets to what api-sports says is left (they never raise them), so
+ * calls made by other processes with the same key are accounted for as well.
+ *
+ * Callers belong to a {@link Lane}. A lane only gets a token when no more
+ * important lane is waiting, and the background lanes leave the last
+ * {@code dailyReserve} requests of the day to interactive traffic. Every lane
+ * waits at most its own {@code maxWait}; when the quota cannot come back in
+ * time the call is shed with a {@link QuotaExceededException} instead.
+ */
+public final class UpstreamScheduler {
+
+    /** Who is asking, most important first. */
+    public enum Lane {
+        INTERACTIVE, REFRESH, BACKFILL
+    }
+
+    /** The quota did not allow this call within the lane's maximum wait. */
+    public static final class QuotaExceededException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        final Lane lane;
+        final long retryAfterNanos;
+
+        QuotaExceededException(Lane lane, long retryAfterNanos) {
+            super("Upstream request quota exhausted (" + lane.name().toLowerCase() + " request shed)");
+            this.lane = lane;
+            this.retryAfterNanos = retryAfterNanos;
+        }
+
+        /** A whole number of seconds after which trying again makes sense. */
+        public long getRetryAfterSeconds() {
+            if (retryAfterNanos == Long.MAX_VALUE) {
+                return 60;
+            }
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999));
+        }
+    }
+
+    private static final ThreadLocal<Lane> CURRENT_LANE = ThreadLocal.withInitial(() -> Lane.INTERACTIVE);
+
+    private final TokenBucket perMinute;
+    private final TokenBucket perDay;
+    private final long dailyReserve;
+    private final long[] maxWaitNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // guarded by "lock"
+    private final int[] waiting = new int[Lane.values().length];
+
+    private final LongAdder[] granted = adders();
+    private final LongAdder[] shed = adders();
+
+    public UpstreamScheduler(long requestsPerMinute, long requestsPerDay, long dailyReserve,
+                             long interactiveMaxWaitMillis, long refreshMaxWaitMillis, long backfillMaxWaitMillis) {
+        this(window(requestsPerMinute, TimeUnit.MINUTES), window(requestsPerDay, TimeUnit.DAYS), dailyReserve,
+                new long[] {
+                        TimeUnit.MILLISECONDS.toNanos(interactiveMaxWaitMillis),
+                        TimeUnit.MILLISECONDS.toNanos(refreshMaxWaitMillis),
+                        TimeUnit.MILLISECONDS.toNanos(backfillMaxWaitMillis)});
+    }
+
+    UpstreamScheduler(TokenBucket perMinute, TokenBucket perDay, long dailyReserve, long[] maxWaitNanos) {
+        if (maxWaitNanos.length != Lane.values().length) {
+            throw new IllegalArgumentException("one maximum wait per lane");
+        }
+        this.perMinute = perMinute;
+        this.perDay = perDay;
+        // background lanes must still be able to get a token once the bucket is full
+        this.dailyReserve = Math.max(0, Math.min(dailyReserve, perDay.capacity() - 1));
+        this.maxWaitNanos = maxWaitNanos.clone();
+    }
+
+    static UpstreamScheduler fromConfig() {
+        long perDay = Config.longValue("UPSTREAM_REQUESTS_PER_DAY", 7500);
+        return new UpstreamScheduler(
+                Config.longValue("UPSTREAM_REQUESTS_PER_MINUTE", 300),
+                perDay,
+                Config.longValue("UPSTREAM_DAILY_RESERVE", perDay / 10),
+                Config.longValue("UPSTREAM_INTERACTIVE_MAX_WAIT_MS", 2000),
+                Config.longValue("UPSTREAM_REFRESH_MAX_WAIT_MS", 30000),
+                Config.longValue("UPSTREAM_BACKFILL_MAX_WAIT_MS", 600000));
+    }
+
+    /**
+     * A bucket that allows at most {@code limit} requests in any window of one
+     * {@code unit}: a sixth of the limit as burst, the rest as steady refill.
+     */
+    static TokenBucket window(long limit, TimeUnit unit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("request limits must be positive");
+        }
+        long burst = Math.max(1, limit / 6);
+        return new TokenBucket(burst, Math.max(1, limit - burst), 1, unit);
+    }
+
+    /** The lane upstream calls made by this thread are charged to; {@link Lane#INTERACTIVE} unless set. */
+    public static Lane currentLane() {
+        return CURRENT_LANE.get();
+    }
+
+    /** Runs {@code task} with its upstream calls charged to {@code lane}. */
+    public static <T> T inLane(Lane lane, Callable<T> task) throws Exception {
+        Lane previous = CURRENT_LANE.get();
+        CURRENT_LANE.set(lane);
+        try {
+            return task.call();
+        } finally {
+            CURRENT_LANE.set(previous);
+        }
+    }
+
+    /**
+     * Takes one request from both quotas, waiting while more important lanes
+     * are queued or the quota is used up, at most the lane's maximum wait.
+     */
+    public void acquire(Lane lane) throws InterruptedException, QuotaExceededException {
+        int l = lane.ordinal();
+        long deadline = System.nanoTime() + maxWaitNanos[l];
+        lock.lockInterruptibly();
+        waiting[l]++;
+        try {
+            while (true) {
+                long wait = Math.max(perMinute.nanosUntilAvailable(),
+                        perDay.nanosUntilAvailable(lane == Lane.INTERACTIVE ? 1 : dailyReserve + 1));
+                if (wait == 0 && !moreImportantWaiting(l)) {
+                    perMinute.tryAcquire();
+                    perDay.tryAcquire();
+                    granted[l].increment();
+                    return;
+                }
+                long left = deadline - System.nanoTime();
+                if (left <= 0 || wait > left) {
+                    // even without competition the quota would not be back in time
+                    shed[l].increment();
+                    throw new QuotaExceededException(lane, wait);
+                }
+                // more important lanes signal when they leave; otherwise wake when the quota is back
+                changed.awaitNanos(wait == 0 ? left : wait);
+            }
+        } finally {
+            waiting[l]--;
+            changed.signalAll();
+            lock.unlock();
+        }
+    }
+
+    private boolean moreImportantWaiting(int lane) {
+        for (int i = 0; i < lane; i++) {
+            if (waiting[i] > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Aligns the buckets with what api-sports reports as left: the per-day
+     * {@code x-ratelimit-requests-remaining} and per-minute
+     * {@code x-ratelimit-remaining}. A 429 empties the minute bucket.
+     */
+    public void observe(int status, HttpHeaders headers) {
+        lock.lock();
+        try {
+            headers.firstValue("x-ratelimit-requests-remaining").ifPresent(v -> limit(perDay, v));
+            headers.firstValue("x-ratelimit-remaining").ifPresent(v -> limit(perMinute, v));
+            if (status == 429) {
+                perMinute.limitTo(0);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void limit(TokenBucket bucket, String remaining) {
+        try {
+            bucket.limitTo(Long.parseLong(remaining.trim()));
+        } catch (NumberFormatException ignored) {
+        }
+    }
+
+    public long grantedCount(Lane lane) {
+        return granted[lane.ordinal()].sum();
+    }
+
+    public long shedCount(Lane lane) {
+        return shed[lane.ordinal()].sum();
+    }
+
+    /** Requests that could be made right now under the per-minute and per-day quotas. */
+    public long available() {
+        lock.lock();
+        try {
+            return (long) Math.min(perMinute.available(), perDay.available());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[Lane.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
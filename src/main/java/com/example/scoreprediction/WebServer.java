@@ -1,7 +1,5 @@
 package com.example.scoreprediction;
 
-import com.google.gson.Gson;
-import com.google.gson.internal.LinkedTreeMap;
 import com.sun.net.httpserver.Headers;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
@@ -10,34 +8,93 @@ import com.sun.net.httpserver.HttpServer;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 public class WebServer {
 
-    private static final String API_HOST = "v3.football.api-sports.io";
-    private static String apiKey;
+    static final String API_HOST = "v3.football.api-sports.io";
+    static String apiKey;
+    static String apiBaseUrl = Config.string("API_FOOTBALL_BASE_URL", "https://" + API_HOST);
+    static UpstreamCache<StandingsPayload> standingsCache;
+    static SnapshotStore snapshotStore;
+    static UpstreamCache<FixturesSnapshot> fixturesCache;
+    static EloEngine eloEngine;
+    // finished /predict bodies per standings entry version and team pair
+    static ResponseMemo predictMemo = new ResponseMemo(Config.longValue("PREDICT_MEMO_MAX_BYTES", 32L << 20));
+    // every fetched or stored table, for queries across seasons
+    static HistoryStore history = new HistoryStore();
+    // with caching off there is nothing to share, so /standings streams upstream bytes straight through
+    static boolean standingsPassthrough;
 
     public static void main(String[] args) throws Exception {
         apiKey = System.getenv("API_FOOTBALL_KEY");
         if (apiKey == null || apiKey.isBlank()) {
             throw new IllegalStateException("API_FOOTBALL_KEY is not set");
         }
+        int maxEntries = Config.intValue("STANDINGS_CACHE_MAX_ENTRIES", 256);
+        String storeFile = Config.string("STANDINGS_STORE_FILE", "data/standings.store");
+        if (!storeFile.isBlank()) {
+            snapshotStore = SnapshotStore.open(Paths.get(storeFile), Config.intValue("STANDINGS_STORE_MAX_KEYS", 4096));
+        }
+        standingsCache = new UpstreamCache<>(WebServer::fetchAndStoreStandings,
+                Config.longValue("STANDINGS_CACHE_TTL_SECONDS", 300), TimeUnit.SECONDS, maxEntries);
+        standingsCache.refreshAhead(Config.longValue("STANDINGS_REFRESH_AHEAD_SECONDS", 30), TimeUnit.SECONDS,
+                Config.doubleValue("STANDINGS_REFRESH_AHEAD_MIN_HITS_PER_MINUTE", 1));
+        // a new table frees the memoized answers built from the old one right away
+        standingsCache.onStore(key -> predictMemo.invalidate(key.league, key.season));
+        fixturesCache = new UpstreamCache<>(WebServer::fetchFixtures,
+                Config.longValue("FIXTURES_CACHE_TTL_SECONDS", 600), TimeUnit.SECONDS, maxEntries);
+        String eloDir = Config.string("ELO_DIR", "data/elo");
+        eloEngine = new EloEngine(eloDir.isBlank() ? null : Paths.get(eloDir));
+        if (snapshotStore != null) {
+            System.out.println("Warmed " + warmFromStore(snapshotStore, standingsCache, maxEntries, history)
+                    + " standings snapshots from " + storeFile + ", " + history.snapshotCount() + " in history");
+        }
+        standingsPassthrough = Config.longValue("STANDINGS_CACHE_TTL_SECONDS", 300) == 0;
 
-        HttpServer server = HttpServer.create(new InetSocketAddress(8080), 0);
-        server.createContext("/standings", new StandingsHandler());
-        server.createContext("/predict", new PredictHandler());
-        server.createContext("/", new StaticFileHandler());
-        server.setExecutor(null);
+        // Keep-alive clients otherwise see ~40 ms stalls from Nagle + delayed ACK.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+
+        HttpServer server = createServer(new InetSocketAddress(8080), ServerExecutors.fromConfig());
         server.start();
         System.out.println("Server started on http://localhost:8080");
     }
 
+    static HttpServer createServer(InetSocketAddress address, Executor executor) throws IOException {
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext("/standings", Metrics.instrument("/standings", new StandingsHandler()));
+        server.createContext("/standings.bin", Metrics.instrument("/standings.bin", new StandingsBinaryHandler()));
+        server.createContext("/standings/stream", Metrics.instrument("/standings/stream",
+                new StandingsStreamHandler(WebServer::fetchStandings, WebServer::storeStandings,
+                        TimeUnit.SECONDS.toMillis(Config.longValue("STANDINGS_STREAM_POLL_SECONDS", 30)))));
+        server.createContext("/predict", Metrics.instrument("/predict", new PredictHandler()));
+        server.createContext("/teams/search", Metrics.instrument("/teams/search", new TeamSearchHandler()));
+        server.createContext("/predict/matrix", Metrics.instrument("/predict/matrix", new MatrixHandler()));
+        server.createContext("/predict/batch", Metrics.instrument("/predict/batch", new BatchPredictHandler()));
+        server.createContext("/simulate", Metrics.instrument("/simulate", new SimulateHandler()));
+        server.createContext("/simulate/groups", Metrics.instrument("/simulate/groups", new SimulateGroupsHandler()));
+        server.createContext("/history/team", Metrics.instrument("/history/team", new HistoryTeamHandler()));
+        server.createContext("/metrics", new Metrics.Handler());
+        server.createContext("/", Metrics.instrument("static", new StaticFileHandler(loadStaticAssets())));
+        server.setExecutor(executor);
+        return server;
+    }
+
     static class StandingsHandler implements HttpHandler {
         @Override
         public void handle(HttpExchange exchange) throws IOException {
@@ -58,21 +115,84 @@ public class WebServer {
                     return;
                 }
 
-                String url = "https://" + API_HOST + "/standings?season=" + encode(season) + "&league=" + encode(league);
+                boolean gzip = acceptsGzip(exchange.getRequestHeaders());
+                if (standingsPassthrough) {
+                    passthrough(exchange, league, season, gzip);
+                    return;
+                }
 
-                FullResponse fullResponse = new FullResponse();
-                LeagueRequest leagueRequest = new LeagueRequest(fullResponse);
-                String json = leagueRequest.setRequset(url, apiKey, API_HOST);
+                StandingsPayload payload = standingsCache.get(league, season);
+                exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+                if (gzip) {
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                    sendJson(exchange, 200, payload.gzipBody());
+                } else {
+                    sendJson(exchange, 200, payload.body);
+                }
+            } catch (Exception e) {
+                sendError(exchange, e);
+            }
+        }
 
-                sendJson(exchange, 200, json);
+        private void passthrough(HttpExchange exchange, String league, String season, boolean gzip) throws Exception {
+            try (UpstreamClient.Streamed upstream = UpstreamClient.shared().stream(
+                    standingsUrl(league, season), apiKey, API_HOST, gzip)) {
+                Headers headers = exchange.getResponseHeaders();
+                headers.set("Vary", "Accept-Encoding");
+                if (upstream.contentEncoding != null) {
+                    headers.set("Content-Encoding", upstream.contentEncoding);
+                }
+                exchange.sendResponseHeaders(upstream.status, 0);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    upstream.body.transferTo(os);
+                } catch (IOException e) {
+                    // headers are gone already; all we can do is drop the connection
+                    exchange.close();
+                }
+            }
+        }
+    }
+
+    /** {@code GET /standings.bin}: the cached table in {@link StandingsCodec} form. */
+    static class StandingsBinaryHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            addCorsAndContentType(exchange.getResponseHeaders());
+
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, "{\"error\":\"Method Not Allowed\"}");
+                return;
+            }
+
+            try {
+                Map<String, String> queryParams = parseQueryParams(exchange.getRequestURI());
+                String league = queryParams.get("league");
+                String season = queryParams.get("season");
+
+                if (league == null || league.isBlank() || season == null || season.isBlank()) {
+                    sendJson(exchange, 400, "{\"error\":\"Missing required query params: league, season\"}");
+                    return;
+                }
+
+                StandingsPayload payload = standingsCache.get(league, season);
+                if (payload.snapshot.isEmpty()) {
+                    sendJson(exchange, 502, "{\"error\":\"Unexpected API response\"}");
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", StandingsCodec.CONTENT_TYPE);
+                sendJson(exchange, 200, payload.binaryBody());
             } catch (Exception e) {
-                String message = e.getMessage() == null ? "Internal Server Error" : e.getMessage();
-                sendJson(exchange, 500, "{\"error\":\"" + escape(message) + "\"}");
+                sendError(exchange, e);
             }
         }
     }
 
     static class PredictHandler implements HttpHandler {
+        /** Rows fix the group and the positions, so model, grid and the two rows identify a body. */
+        static long predictMemoKey(boolean poisson, boolean grid, int row1, int row2) {
+            return (poisson ? 1L << 61 : 0) | (grid ? 1L << 60 : 0) | ((long) row1 << 30) | row2;
+        }
+
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             addCorsAndContentType(exchange.getResponseHeaders());
@@ -88,156 +208,476 @@ public class WebServer {
                 String season = queryParams.get("season");
                 String team1Param = queryParams.get("team1");
                 String team2Param = queryParams.get("team2");
+                String team1IdParam = queryParams.get("team1Id");
+                String team2IdParam = queryParams.get("team2Id");
 
                 if (league == null || league.isBlank() ||
                         season == null || season.isBlank() ||
-                        team1Param == null || team1Param.isBlank() ||
-                        team2Param == null || team2Param.isBlank()) {
-                    sendJson(exchange, 400, "{\"error\":\"Missing required query params: league, season, team1, team2\"}");
+                        isBlank(team1Param) && isBlank(team1IdParam) ||
+                        isBlank(team2Param) && isBlank(team2IdParam)) {
+                    sendJson(exchange, 400, "{\"error\":\"Missing required query params: league, season, team1 (or team1Id), team2 (or team2Id)\"}");
                     return;
                 }
 
-                int team1IndexOneBased;
-                int team2IndexOneBased;
+                String model = queryParams.getOrDefault("model", "heuristic");
+                if (!"heuristic".equals(model) && !"poisson".equals(model) && !"elo".equals(model)) {
+                    sendJson(exchange, 400, "{\"error\":\"Unknown model: " + escape(model) + " (expected heuristic, poisson or elo)\"}");
+                    return;
+                }
+
+                UpstreamCache.Entry<StandingsPayload> entry = standingsCache.getEntry(league, season);
+                StandingsPayload payload = entry.value;
+                StandingsSnapshot snapshot = payload.snapshot;
+                if (snapshot.isEmpty()) {
+                    sendJson(exchange, 502, "{\"error\":\"Unexpected API response\"}");
+                    return;
+                }
+
+                // leagues have one block; cup groups are picked by name (group=A or group=Group A)
+                String groupParam = queryParams.get("group");
+                int group = -1;
+                if (groupParam != null && !groupParam.isBlank()) {
+                    group = snapshot.groupIndex(groupParam);
+                    if (group < 0) {
+                        sendJson(exchange, 404, "{\"error\":\"Unknown group: " + escape(groupParam) + "\"}");
+                        return;
+                    }
+                }
+                int row1;
+                int row2;
                 try {
-                    team1IndexOneBased = Integer.parseInt(team1Param);
-                    team2IndexOneBased = Integer.parseInt(team2Param);
+                    int[] pair = resolvePair(snapshot, group, team1Param, team1IdParam, team2Param, team2IdParam);
+                    row1 = pair[0];
+                    row2 = pair[1];
+                    group = pair[2];
+                } catch (TeamLookupException e) {
+                    sendJson(exchange, e.status, "{\"error\":\"" + escape(e.getMessage()) + "\"}");
+                    return;
+                }
+                int team1Idx = row1 - snapshot.row(group, 0);
+                int team2Idx = row2 - snapshot.row(group, 0);
+                int team1IndexOneBased = team1Idx + 1;
+                int team2IndexOneBased = team2Idx + 1;
+                String trimmedLeague = league.trim();
+                String trimmedSeason = season.trim();
+                String name1 = String.valueOf(snapshot.teamName[row1]);
+                String name2 = String.valueOf(snapshot.teamName[row2]);
+                byte[] json;
+                if ("elo".equals(model)) {
+                    // ratings follow the fixtures cache, not the standings version: not memoized
+                    double[] elo = eloEngine.predict(league, season, fixturesCache.get(league, season),
+                            snapshot.teamId(row1), snapshot.teamId(row2));
+                    json = eloJson(trimmedLeague, trimmedSeason, team1IndexOneBased, team2IndexOneBased, name1, name2, elo)
+                            .getBytes(StandardCharsets.UTF_8);
+                } else {
+                    boolean poisson = "poisson".equals(model);
+                    boolean grid = poisson && "true".equals(queryParams.get("grid"));
+                    int g = group;
+                    json = predictMemo.get(trimmedLeague, trimmedSeason, entry.version,
+                            predictMemoKey(poisson, grid, row1, row2), () -> {
+                                String built;
+                                if (poisson) {
+                                    built = poissonJson(trimmedLeague, trimmedSeason, team1IndexOneBased, team2IndexOneBased,
+                                            name1, name2, payload.poissonModel(g).predict(team1Idx, team2Idx, grid));
+                                } else {
+                                    built = predictJson(trimmedLeague, trimmedSeason, team1IndexOneBased, team2IndexOneBased,
+                                            name1, name2, PredictionEngine.predict(snapshot, row1, row2));
+                                }
+                                return built.getBytes(StandardCharsets.UTF_8);
+                            });
+                }
+
+                sendJson(exchange, 200, json);
+            } catch (Exception e) {
+                sendError(exchange, e);
+            }
+        }
+    }
+
+    /**
+     * {@code GET /teams/search?league=&season=&q=[&limit=]}: teams of the table
+     * whose name, or a word of it, starts with {@code q}, for autocomplete.
+     */
+    static class TeamSearchHandler implements HttpHandler {
+        static final int DEFAULT_LIMIT = 10;
+        static final int MAX_LIMIT = 50;
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            addCorsAndContentType(exchange.getResponseHeaders());
+
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, "{\"error\":\"Method Not Allowed\"}");
+                return;
+            }
+
+            try {
+                Map<String, String> queryParams = parseQueryParams(exchange.getRequestURI());
+                String league = queryParams.get("league");
+                String season = queryParams.get("season");
+                String q = queryParams.get("q");
+
+                if (league == null || league.isBlank() || season == null || season.isBlank() || q == null) {
+                    sendJson(exchange, 400, "{\"error\":\"Missing required query params: league, season, q\"}");
+                    return;
+                }
+                int limit;
+                try {
+                    limit = Integer.parseInt(queryParams.getOrDefault("limit", String.valueOf(DEFAULT_LIMIT)));
                 } catch (NumberFormatException nfe) {
-                    sendJson(exchange, 400, "{\"error\":\"team1 and team2 must be integers\"}");
+                    sendJson(exchange, 400, "{\"error\":\"limit must be an integer\"}");
+                    return;
+                }
+                if (limit <= 0 || limit > MAX_LIMIT) {
+                    sendJson(exchange, 400, "{\"error\":\"limit must be between 1 and " + MAX_LIMIT + "\"}");
+                    return;
+                }
+
+                StandingsSnapshot snapshot = standingsCache.get(league, season).snapshot;
+                if (snapshot.isEmpty()) {
+                    sendJson(exchange, 502, "{\"error\":\"Unexpected API response\"}");
+                    return;
+                }
+
+                int[] rows = snapshot.teamIndex().search(q, limit);
+                StringBuilder sb = new StringBuilder(64 + rows.length * 96);
+                sb.append("{\"league\":\"").append(escape(league))
+                        .append("\",\"season\":\"").append(escape(season))
+                        .append("\",\"q\":\"").append(escape(q))
+                        .append("\",\"teams\":[");
+                for (int i = 0; i < rows.length; i++) {
+                    int row = rows[i];
+                    int group = snapshot.groupOf(row);
+                    if (i > 0) sb.append(',');
+                    sb.append("{\"id\":").append(snapshot.teamId(row))
+                            .append(",\"name\":\"").append(escape(String.valueOf(snapshot.teamName(row))))
+                            .append("\",\"group\":\"").append(escape(String.valueOf(snapshot.groupName(group))))
+                            .append("\",\"position\":").append(row - snapshot.row(group, 0) + 1)
+                            .append('}');
+                }
+                sb.append("]}");
+                sendJson(exchange, 200, sb.toString());
+            } catch (Exception e) {
+                sendError(exchange, e);
+            }
+        }
+    }
+
+    /** A team parameter that names no team of the table, or several; {@code status} is the HTTP answer. */
+    static final class TeamLookupException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        TeamLookupException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static boolean isPosition(String value) {
+        return value != null && !value.isBlank() && value.trim().chars().allMatch(Character::isDigit);
+    }
+
+    /**
+     * Rows of both teams and their group, as {@code {row1, row2, group}}.
+     * Teams given by id or name settle the group when {@code group} is -1;
+     * positions are then read within it. Both must end up in one group.
+     */
+    static int[] resolvePair(StandingsSnapshot snapshot, int group, String team1, String team1Id,
+                             String team2, String team2Id) throws TeamLookupException {
+        boolean byPosition1 = isBlank(team1Id) && isPosition(team1);
+        boolean byPosition2 = isBlank(team2Id) && isPosition(team2);
+        int row1 = byPosition1 ? -1 : resolveTeam(snapshot, group, "team1", team1, team1Id);
+        int row2 = byPosition2 ? -1 : resolveTeam(snapshot, group, "team2", team2, team2Id);
+        boolean fixed = group >= 0;
+        if (!fixed) {
+            group = row1 >= 0 ? snapshot.groupOf(row1) : row2 >= 0 ? snapshot.groupOf(row2) : 0;
+        }
+        if (byPosition1) row1 = resolveTeam(snapshot, group, "team1", team1, null);
+        if (byPosition2) row2 = resolveTeam(snapshot, group, "team2", team2, null);
+        if (snapshot.groupOf(row1) != group || snapshot.groupOf(row2) != group) {
+            throw new TeamLookupException(400, "team1 and team2 must be in the same group"
+                    + (fixed ? " (" + snapshot.groupName(group) + ")" : ""));
+        }
+        return new int[] {row1, row2, group};
+    }
+
+    /**
+     * Row of a team given as {@code <name>Id} (api-sports id), or as {@code <name>}:
+     * a 1-based position within {@code group} (the first group when -1) when it is
+     * a number, a team name or unique name prefix otherwise.
+     */
+    static int resolveTeam(StandingsSnapshot snapshot, int group, String name, String value, String id)
+            throws TeamLookupException {
+        TeamIndex index = snapshot.teamIndex();
+        if (!isBlank(id)) {
+            int row;
+            try {
+                row = index.rowOf(Integer.parseInt(id.trim()));
+            } catch (NumberFormatException nfe) {
+                throw new TeamLookupException(400, name + "Id must be an integer");
+            }
+            if (row == TeamIndex.NOT_FOUND) {
+                throw new TeamLookupException(404, "No team with id " + id.trim() + " in this table");
+            }
+            return row;
+        }
+        if (isPosition(value)) {
+            int g = Math.max(group, 0);
+            int size = snapshot.groupSize(g);
+            int position;
+            try {
+                position = Integer.parseInt(value.trim());
+            } catch (NumberFormatException nfe) {
+                position = 0;
+            }
+            if (position < 1 || position > size) {
+                throw new TeamLookupException(400, "team1 and team2 must be between 1 and " + size);
+            }
+            return snapshot.row(g, position - 1);
+        }
+        int row = index.resolve(value);
+        if (row == TeamIndex.NOT_FOUND) {
+            throw new TeamLookupException(404, "No team matches " + name + "=" + value.trim());
+        }
+        if (row == TeamIndex.AMBIGUOUS) {
+            throw new TeamLookupException(400, name + "=" + value.trim() + " matches several teams; see /teams/search");
+        }
+        return row;
+    }
+
+    static class MatrixHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            addCorsAndContentType(exchange.getResponseHeaders());
+
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, "{\"error\":\"Method Not Allowed\"}");
+                return;
+            }
+
+            try {
+                Map<String, String> queryParams = parseQueryParams(exchange.getRequestURI());
+                String league = queryParams.get("league");
+                String season = queryParams.get("season");
+                String groupParam = queryParams.get("group");
+
+                if (league == null || league.isBlank() || season == null || season.isBlank()) {
+                    sendJson(exchange, 400, "{\"error\":\"Missing required query params: league, season\"}");
                     return;
                 }
 
-                if (team1IndexOneBased <= 0 || team2IndexOneBased <= 0) {
-                    sendJson(exchange, 400, "{\"error\":\"team1 and team2 must be positive (1-based)\"}");
+                UpstreamCache.Entry<StandingsPayload> entry = standingsCache.getEntry(league, season);
+                StandingsSnapshot snapshot = entry.value.snapshot;
+                if (snapshot.isEmpty()) {
+                    sendJson(exchange, 502, "{\"error\":\"Unexpected API response\"}");
                     return;
                 }
 
-                String url = "https://" + API_HOST + "/standings?season=" + encode(season) + "&league=" + encode(league);
+                int group = 0;
+                if (groupParam != null && !groupParam.isBlank()) {
+                    group = snapshot.groupIndex(groupParam);
+                    if (group < 0) {
+                        sendJson(exchange, 404, "{\"error\":\"Unknown group: " + escape(groupParam) + "\"}");
+                        return;
+                    }
+                }
+
+                sendJson(exchange, 200, entry.value.matrixJson(group, league.trim(), season.trim(), entry.version));
+            } catch (Exception e) {
+                sendError(exchange, e);
+            }
+        }
+    }
+
+    static class SimulateHandler implements HttpHandler {
+        private static final long DEFAULT_RUNS = Config.longValue("SIMULATE_DEFAULT_RUNS", 100_000);
+        private static final long MAX_RUNS = Config.longValue("SIMULATE_MAX_RUNS", 2_000_000);
+
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            addCorsAndContentType(exchange.getResponseHeaders());
+
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, "{\"error\":\"Method Not Allowed\"}");
+                return;
+            }
+
+            try {
+                Map<String, String> queryParams = parseQueryParams(exchange.getRequestURI());
+                String league = queryParams.get("league");
+                String season = queryParams.get("season");
+
+                if (league == null || league.isBlank() || season == null || season.isBlank()) {
+                    sendJson(exchange, 400, "{\"error\":\"Missing required query params: league, season\"}");
+                    return;
+                }
 
-                LeagueRequest leagueRequest = new LeagueRequest(new FullResponse());
-                String body = leagueRequest.setRequset(url, apiKey, API_HOST);
+                long runs;
+                int europe;
+                int relegation;
+                long seed;
+                try {
+                    runs = Long.parseLong(queryParams.getOrDefault("runs", String.valueOf(DEFAULT_RUNS)));
+                    europe = Integer.parseInt(queryParams.getOrDefault("europe", "4"));
+                    relegation = Integer.parseInt(queryParams.getOrDefault("relegation", "3"));
+                    seed = queryParams.containsKey("seed") ? Long.parseLong(queryParams.get("seed")) : System.nanoTime();
+                } catch (NumberFormatException nfe) {
+                    sendJson(exchange, 400, "{\"error\":\"runs, europe, relegation and seed must be integers\"}");
+                    return;
+                }
+                if (runs <= 0 || runs > MAX_RUNS) {
+                    sendJson(exchange, 400, "{\"error\":\"runs must be between 1 and " + MAX_RUNS + "\"}");
+                    return;
+                }
 
-                Gson gson = new Gson();
-                FullResponse fullResponse = gson.fromJson(body, FullResponse.class);
-                ResponseObject responseObject = fullResponse.getResponse() != null && !fullResponse.getResponse().isEmpty()
-                        ? fullResponse.getResponse().get(0) : null;
-                if (responseObject == null || responseObject.getLeague() == null || responseObject.getLeague().getStandings() == null) {
+                StandingsSnapshot snapshot = standingsCache.get(league, season).snapshot;
+                if (snapshot.isEmpty()) {
                     sendJson(exchange, 502, "{\"error\":\"Unexpected API response\"}");
                     return;
                 }
+                String groupParam = queryParams.get("group");
+                int group = 0;
+                if (groupParam != null && !groupParam.isBlank()) {
+                    group = snapshot.groupIndex(groupParam);
+                    if (group < 0) {
+                        sendJson(exchange, 404, "{\"error\":\"Unknown group: " + escape(groupParam) + "\"}");
+                        return;
+                    }
+                }
+                FixturesSnapshot fixtures = fixturesCache.get(league, season);
 
-                // Use the first standings block (regular leagues). For cups with groups, client should pass correct indices; we keep simple here.
-                Object[] standingsBlocks = responseObject.getLeague().getStandings();
-                if (standingsBlocks.length == 0 || !(standingsBlocks[0] instanceof ArrayList)) {
-                    sendJson(exchange, 502, "{\"error\":\"Unexpected standings format\"}");
+                SeasonSimulator.Result result = SeasonSimulator.simulate(snapshot, group, fixtures, runs, seed);
+                sendJson(exchange, 200, result.toJson(league.trim(), season.trim(), europe, relegation));
+            } catch (Exception e) {
+                sendError(exchange, e);
+            }
+        }
+    }
+
+    /** {@code GET /history/team?id=&from=&to=}: one team's table rows across every held season. */
+    static class HistoryTeamHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            addCorsAndContentType(exchange.getResponseHeaders());
+
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, "{\"error\":\"Method Not Allowed\"}");
+                return;
+            }
+
+            try {
+                Map<String, String> queryParams = parseQueryParams(exchange.getRequestURI());
+                String idParam = queryParams.get("id");
+                if (idParam == null || idParam.isBlank()) {
+                    sendJson(exchange, 400, "{\"error\":\"Missing required query param: id\"}");
+                    return;
+                }
+                int id;
+                int from;
+                int to;
+                try {
+                    id = Integer.parseInt(idParam.trim());
+                    from = Integer.parseInt(queryParams.getOrDefault("from", String.valueOf(Integer.MIN_VALUE)).trim());
+                    to = Integer.parseInt(queryParams.getOrDefault("to", String.valueOf(Integer.MAX_VALUE)).trim());
+                } catch (NumberFormatException nfe) {
+                    sendJson(exchange, 400, "{\"error\":\"id, from and to must be integers\"}");
                     return;
                 }
-                @SuppressWarnings("unchecked")
-                ArrayList<LinkedTreeMap<String, Object>> standing = (ArrayList<LinkedTreeMap<String, Object>>) standingsBlocks[0];
 
-                int maxIndex = standing.size();
-                int team1Idx = team1IndexOneBased - 1;
-                int team2Idx = team2IndexOneBased - 1;
-                if (team1Idx < 0 || team2Idx < 0 || team1Idx >= maxIndex || team2Idx >= maxIndex) {
-                    sendJson(exchange, 400, "{\"error\":\"team1 and team2 must be between 1 and " + maxIndex + "\"}");
+                HistoryStore.TeamHistory team = history.team(id, from, to);
+                if (team == null) {
+                    sendJson(exchange, 404, "{\"error\":\"No standings held for team " + id + "\"}");
                     return;
                 }
+                sendJson(exchange, 200, team.toJson());
+            } catch (Exception e) {
+                sendError(exchange, e);
+            }
+        }
+    }
 
-                LinkedTreeMap<String, Object> teamObj1 = (LinkedTreeMap<String, Object>) standing.get(team1Idx).get("team");
-                LinkedTreeMap<String, Object> teamObj2 = (LinkedTreeMap<String, Object>) standing.get(team2Idx).get("team");
-                LinkedTreeMap<String, Object> allOfTeam1 = (LinkedTreeMap<String, Object>) standing.get(team1Idx).get("all");
-                LinkedTreeMap<String, Object> allOfTeam2 = (LinkedTreeMap<String, Object>) standing.get(team2Idx).get("all");
-                LinkedTreeMap<String, Object> goalsOfTeam1 = (LinkedTreeMap<String, Object>) ((LinkedTreeMap<?, ?>) standing.get(team1Idx).get("all")).get("goals");
-                LinkedTreeMap<String, Object> goalsOfTeam2 = (LinkedTreeMap<String, Object>) ((LinkedTreeMap<?, ?>) standing.get(team2Idx).get("all")).get("goals");
-
-                double playedTeam1 = toDouble(allOfTeam1.get("played"));
-                double playedTeam2 = toDouble(allOfTeam2.get("played"));
-                double winTeam1 = toDouble(allOfTeam1.get("win"));
-                double winTeam2 = toDouble(allOfTeam2.get("win"));
-                double drawTeam1 = toDouble(allOfTeam1.get("draw"));
-                double drawTeam2 = toDouble(allOfTeam2.get("draw"));
-                double loseTeam1 = toDouble(allOfTeam1.get("lose"));
-                double loseTeam2 = toDouble(allOfTeam2.get("lose"));
-                double goalsForTeam1 = toDouble(goalsOfTeam1.get("for"));
-                double goalsForTeam2 = toDouble(goalsOfTeam2.get("for"));
-                double goalsAgainstTeam1 = toDouble(goalsOfTeam1.get("against"));
-                double goalsAgainstTeam2 = toDouble(goalsOfTeam2.get("against"));
-                double pointsTeam1 = toDouble(standing.get(team1Idx).get("points"));
-                double pointsTeam2 = toDouble(standing.get(team2Idx).get("points"));
-
-                int totalPointsTeam1 = 0;
-                int totalPointsTeam2 = 0;
-
-                if (playedTeam1 == playedTeam2) { totalPointsTeam1++; totalPointsTeam2++; }
-                if (playedTeam1 > playedTeam2) { totalPointsTeam2++; }
-                if (playedTeam1 < playedTeam2) { totalPointsTeam1++; }
-
-                if (winTeam1 == winTeam2) { totalPointsTeam1++; totalPointsTeam2++; }
-                if (winTeam1 > winTeam2) { totalPointsTeam1++; }
-                if (winTeam1 < winTeam2) { totalPointsTeam2++; }
-
-                if (drawTeam1 == drawTeam2) { totalPointsTeam1++; totalPointsTeam2++; }
-                if (drawTeam1 > drawTeam2) { totalPointsTeam2++; }
-                if (drawTeam1 < drawTeam2) { totalPointsTeam1++; }
-
-                if (loseTeam1 > loseTeam2) { totalPointsTeam2++; }
-                if (loseTeam1 < loseTeam2) { totalPointsTeam1++; }
-
-                if (goalsForTeam1 == goalsForTeam2) {
-                    if (goalsForTeam1 > 20 || goalsForTeam2 > 20) { totalPointsTeam1 += 3; totalPointsTeam2 += 3; }
-                    else { totalPointsTeam1 += 2; totalPointsTeam2 += 2; }
-                }
-                if (goalsForTeam1 > goalsForTeam2) { totalPointsTeam1 += (goalsForTeam1 > 20 ? 3 : 2); }
-                if (goalsForTeam1 < goalsForTeam2) { totalPointsTeam2 += (goalsForTeam2 > 20 ? 3 : 2); }
-
-                if (goalsAgainstTeam1 == goalsAgainstTeam2) {
-                    if (goalsAgainstTeam1 < 8 || goalsAgainstTeam2 < 8) { totalPointsTeam1 += 2; totalPointsTeam2 += 2; }
-                    else { totalPointsTeam1++; totalPointsTeam2++; }
-                }
-                if (goalsAgainstTeam1 > goalsAgainstTeam2) { totalPointsTeam2 += (goalsAgainstTeam2 < 8 ? 2 : 1); }
-                if (goalsAgainstTeam1 < goalsAgainstTeam2) { totalPointsTeam1 += (goalsAgainstTeam1 < 8 ? 2 : 1); }
-
-                if (pointsTeam1 == pointsTeam2) { totalPointsTeam1 += 3; totalPointsTeam2 += 3; }
-                if (pointsTeam1 > pointsTeam2) { totalPointsTeam1 += 3; }
-                if (pointsTeam1 < pointsTeam2) { totalPointsTeam2 += 3; }
-
-                String teamName1 = String.valueOf(teamObj1.get("name"));
-                String teamName2 = String.valueOf(teamObj2.get("name"));
-
-                String outcome;
-                String winnerName = null;
-                if (totalPointsTeam1 == totalPointsTeam2) {
-                    outcome = "draw";
-                } else if (totalPointsTeam1 > totalPointsTeam2) {
-                    outcome = "team1";
-                    winnerName = teamName1;
-                } else {
-                    outcome = "team2";
-                    winnerName = teamName2;
-                }
-
-                String json = "{"
-                        + "\"league\":\"" + escape(league) + "\","
-                        + "\"season\":\"" + escape(season) + "\","
-                        + "\"team1Index\":" + team1IndexOneBased + ","
-                        + "\"team2Index\":" + team2IndexOneBased + ","
-                        + "\"team1Name\":\"" + escape(teamName1) + "\","
-                        + "\"team2Name\":\"" + escape(teamName2) + "\","
-                        + "\"score1\":" + totalPointsTeam1 + ","
-                        + "\"score2\":" + totalPointsTeam2 + ","
-                        + "\"result\":\"" + outcome + "\","
-                        + "\"winnerName\":" + (winnerName == null ? "null" : "\"" + escape(winnerName) + "\"")
-                        + "}";
+    /**
+     * {@code /simulate/groups}: plays out the remaining matches of every group
+     * of a cup in parallel and returns each team's odds of finishing in the
+     * top {@code qualify} places of its group.
+     */
+    static class SimulateGroupsHandler implements HttpHandler {
+        @Override
+        public void handle(HttpExchange exchange) throws IOException {
+            addCorsAndContentType(exchange.getResponseHeaders());
 
-                sendJson(exchange, 200, json);
+            if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
+                sendJson(exchange, 405, "{\"error\":\"Method Not Allowed\"}");
+                return;
+            }
+
+            try {
+                Map<String, String> queryParams = parseQueryParams(exchange.getRequestURI());
+                String league = queryParams.get("league");
+                String season = queryParams.get("season");
+
+                if (league == null || league.isBlank() || season == null || season.isBlank()) {
+                    sendJson(exchange, 400, "{\"error\":\"Missing required query params: league, season\"}");
+                    return;
+                }
+
+                long runs;
+                int qualify;
+                long seed;
+                try {
+                    runs = Long.parseLong(queryParams.getOrDefault("runs", String.valueOf(SimulateHandler.DEFAULT_RUNS)));
+                    qualify = Integer.parseInt(queryParams.getOrDefault("qualify", "2"));
+                    seed = queryParams.containsKey("seed") ? Long.parseLong(queryParams.get("seed")) : System.nanoTime();
+                } catch (NumberFormatException nfe) {
+                    sendJson(exchange, 400, "{\"error\":\"runs, qualify and seed must be integers\"}");
+                    return;
+                }
+                if (runs <= 0 || runs > SimulateHandler.MAX_RUNS) {
+                    sendJson(exchange, 400, "{\"error\":\"runs must be between 1 and " + SimulateHandler.MAX_RUNS + "\"}");
+                    return;
+                }
+                if (qualify <= 0) {
+                    sendJson(exchange, 400, "{\"error\":\"qualify must be positive\"}");
+                    return;
+                }
+
+                StandingsSnapshot snapshot = standingsCache.get(league, season).snapshot;
+                if (snapshot.isEmpty()) {
+                    sendJson(exchange, 502, "{\"error\":\"Unexpected API response\"}");
+                    return;
+                }
+                FixturesSnapshot fixtures = fixturesCache.get(league, season);
+
+                SeasonSimulator.Result[] results = SeasonSimulator.simulateGroups(snapshot, fixtures, runs, seed);
+                sendJson(exchange, 200, SeasonSimulator.groupsJson(league.trim(), season.trim(), qualify, results));
             } catch (Exception e) {
-                String message = e.getMessage() == null ? "Internal Server Error" : e.getMessage();
-                sendJson(exchange, 500, "{\"error\":\"" + escape(message) + "\"}");
+                sendError(exchange, e);
             }
         }
     }
 
+    /** {@code STATIC_MODE=dev} serves from disk on every request; anything else preloads the assets. */
+    private static StaticAssets loadStaticAssets() throws IOException {
+        if ("dev".equalsIgnoreCase(Config.string("STATIC_MODE", "prod"))) {
+            return null;
+        }
+        return StaticAssets.load(WebServer.class.getClassLoader(), "public");
+    }
+
     static class StaticFileHandler implements HttpHandler {
+        private final StaticAssets assets;
+
+        /** {@code assets} is the preloaded production set, or {@code null} for dev mode. */
+        StaticFileHandler(StaticAssets assets) {
+            this.assets = assets;
+        }
+
         @Override
         public void handle(HttpExchange exchange) throws IOException {
             if (!"GET".equalsIgnoreCase(exchange.getRequestMethod())) {
@@ -265,6 +705,11 @@ public class WebServer {
                 return;
             }
 
+            if (assets != null) {
+                serveAsset(exchange, assets.get(path));
+                return;
+            }
+
             String resourcePath = "public" + path;
             if (resourcePath.startsWith("/")) {
                 resourcePath = resourcePath.substring(1);
@@ -310,33 +755,302 @@ public class WebServer {
 			}
         }
 
+        private void serveAsset(HttpExchange exchange, StaticAssets.Asset asset) throws IOException {
+            if (asset == null) {
+                byte[] bytes = "Not Found".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                exchange.sendResponseHeaders(404, bytes.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(bytes);
+                }
+                return;
+            }
+            Headers headers = exchange.getResponseHeaders();
+            boolean gzip = asset.gzipBody != null && acceptsGzip(exchange.getRequestHeaders());
+            String etag = gzip ? asset.gzipEtag : asset.etag;
+            headers.set("ETag", etag);
+            headers.set("Cache-Control", asset.cacheControl);
+            if (asset.gzipBody != null) {
+                headers.set("Vary", "Accept-Encoding");
+            }
+            if (matches(exchange.getRequestHeaders().getFirst("If-None-Match"), etag)) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = gzip ? asset.gzipBody : asset.body;
+            headers.set("Content-Type", asset.contentType);
+            if (gzip) {
+                headers.set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+
+        private static boolean matches(String ifNoneMatch, String etag) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
         private String guessContentType(String path) {
-            String p = path.toLowerCase();
-            if (p.endsWith(".html") || p.endsWith(".htm")) return "text/html; charset=utf-8";
-            if (p.endsWith(".css")) return "text/css; charset=utf-8";
-            if (p.endsWith(".js")) return "application/javascript; charset=utf-8";
-            if (p.endsWith(".svg")) return "image/svg+xml";
-            if (p.endsWith(".png")) return "image/png";
-            if (p.endsWith(".jpg") || p.endsWith(".jpeg")) return "image/jpeg";
-            if (p.endsWith(".ico")) return "image/x-icon";
-            return "application/octet-stream";
+            return StaticAssets.contentType(path);
+        }
+    }
+
+    static boolean acceptsGzip(Headers requestHeaders) {
+        String accept = requestHeaders.getFirst("Accept-Encoding");
+        if (accept == null) {
+            return false;
+        }
+        for (String coding : accept.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return !(parts.length > 1 && parts[1].replace(" ", "").matches("q=0(\\.0*)?"));
+            }
+        }
+        return false;
+    }
+
+    static String predictJson(String league, String season, int team1Index, int team2Index,
+                              String teamName1, String teamName2, int prediction) {
+        int result = PredictionEngine.result(prediction);
+        String winnerName = result == PredictionEngine.TEAM1 ? teamName1
+                : result == PredictionEngine.TEAM2 ? teamName2 : null;
+        return "{"
+                + "\"league\":\"" + escape(league) + "\","
+                + "\"season\":\"" + escape(season) + "\","
+                + "\"team1Index\":" + team1Index + ","
+                + "\"team2Index\":" + team2Index + ","
+                + "\"team1Name\":\"" + escape(teamName1) + "\","
+                + "\"team2Name\":\"" + escape(teamName2) + "\","
+                + "\"score1\":" + PredictionEngine.score1(prediction) + ","
+                + "\"score2\":" + PredictionEngine.score2(prediction) + ","
+                + "\"result\":\"" + PredictionEngine.resultName(result) + "\","
+                + "\"winnerName\":" + (winnerName == null ? "null" : "\"" + escape(winnerName) + "\"")
+                + "}";
+    }
+
+    /**
+     * Same shape as {@link #predictJson}, with the likeliest scoreline as
+     * score1/score2, plus expected goals, outcome probabilities and optionally
+     * the scoreline grid ({@code grid[i][j]} = P(i-j)).
+     */
+    static String poissonJson(String league, String season, int team1Index, int team2Index,
+                              String teamName1, String teamName2, PoissonModel.Prediction p) {
+        int result = p.result();
+        String winnerName = result == PredictionEngine.TEAM1 ? teamName1
+                : result == PredictionEngine.TEAM2 ? teamName2 : null;
+        StringBuilder sb = new StringBuilder(p.grid == null ? 384 : 2048);
+        sb.append("{\"league\":\"").append(escape(league))
+                .append("\",\"season\":\"").append(escape(season))
+                .append("\",\"model\":\"poisson\",\"team1Index\":").append(team1Index)
+                .append(",\"team2Index\":").append(team2Index)
+                .append(",\"team1Name\":\"").append(escape(teamName1))
+                .append("\",\"team2Name\":\"").append(escape(teamName2))
+                .append("\",\"score1\":").append(p.likelyScore1)
+                .append(",\"score2\":").append(p.likelyScore2)
+                .append(",\"result\":\"").append(PredictionEngine.resultName(result))
+                .append("\",\"winnerName\":").append(winnerName == null ? "null" : "\"" + escape(winnerName) + "\"")
+                .append(",\"expectedGoals1\":").append(round6(p.expectedGoals1))
+                .append(",\"expectedGoals2\":").append(round6(p.expectedGoals2))
+                .append(",\"team1Win\":").append(round6(p.team1Win))
+                .append(",\"draw\":").append(round6(p.draw))
+                .append(",\"team2Win\":").append(round6(p.team2Win));
+        if (p.grid != null) {
+            int side = PoissonModel.MAX_GOALS + 1;
+            sb.append(",\"grid\":[");
+            for (int i = 0; i < side; i++) {
+                sb.append(i > 0 ? ",[" : "[");
+                for (int j = 0; j < side; j++) {
+                    if (j > 0) sb.append(',');
+                    sb.append(round6(p.grid[i * side + j]));
+                }
+                sb.append(']');
+            }
+            sb.append(']');
         }
+        return sb.append('}').toString();
     }
 
-    private static void addCorsAndContentType(Headers headers) {
+    /**
+     * Same shape as {@link #predictJson}, with the two (rounded) ratings as
+     * score1/score2 and the likeliest outcome as result, plus the ratings and
+     * outcome probabilities.
+     */
+    static String eloJson(String league, String season, int team1Index, int team2Index,
+                          String teamName1, String teamName2, double[] elo) {
+        double win = elo[2];
+        double draw = elo[3];
+        double loss = elo[4];
+        int result = win >= draw && win >= loss ? PredictionEngine.TEAM1
+                : loss >= draw ? PredictionEngine.TEAM2 : PredictionEngine.DRAW;
+        String winnerName = result == PredictionEngine.TEAM1 ? teamName1
+                : result == PredictionEngine.TEAM2 ? teamName2 : null;
+        return "{"
+                + "\"league\":\"" + escape(league) + "\","
+                + "\"season\":\"" + escape(season) + "\","
+                + "\"model\":\"elo\","
+                + "\"team1Index\":" + team1Index + ","
+                + "\"team2Index\":" + team2Index + ","
+                + "\"team1Name\":\"" + escape(teamName1) + "\","
+                + "\"team2Name\":\"" + escape(teamName2) + "\","
+                + "\"score1\":" + Math.round(elo[0]) + ","
+                + "\"score2\":" + Math.round(elo[1]) + ","
+                + "\"result\":\"" + PredictionEngine.resultName(result) + "\","
+                + "\"winnerName\":" + (winnerName == null ? "null" : "\"" + escape(winnerName) + "\"") + ","
+                + "\"rating1\":" + round6(elo[0]) + ","
+                + "\"rating2\":" + round6(elo[1]) + ","
+                + "\"team1Win\":" + round6(win) + ","
+                + "\"draw\":" + round6(draw) + ","
+                + "\"team2Win\":" + round6(loss)
+                + "}";
+    }
+
+    static double round6(double value) {
+        return Math.round(value * 1_000_000d) / 1_000_000d;
+    }
+
+    /**
+     * One upstream fetch: fails on a payload without a table (api-sports error
+     * bodies parse to an empty snapshot), so the error is never cached, stored
+     * or served in place of a table.
+     */
+    static StandingsPayload fetchStandings(String league, String season) throws Exception {
+        StandingsPayload payload = StandingsPayload.of(
+                UpstreamClient.shared().getRaw(standingsUrl(league, season), apiKey, API_HOST));
+        if (payload.snapshot.isEmpty()) {
+            throw new IOException("Upstream returned no standings for league " + league + ", season " + season);
+        }
+        return payload;
+    }
+
+    /** The cache loader: fetches and keeps the table in history and the snapshot store. */
+    static StandingsPayload fetchAndStoreStandings(String league, String season) throws Exception {
+        StandingsPayload payload = fetchStandings(league, season);
+        storeStandings(league, season, payload);
+        return payload;
+    }
+
+    /** Adds a newly fetched table to history and, when configured, the snapshot store. */
+    static void storeStandings(String league, String season, StandingsPayload payload) {
+        history.add(payload.snapshot);
+        SnapshotStore store = snapshotStore;
+        if (store != null) {
+            try {
+                store.append(league, season, System.currentTimeMillis(), payload.gzipBody());
+            } catch (IOException e) {
+                System.err.println("Could not persist standings " + league + "/" + season + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Seeds {@code cache} with the newest stored snapshot of the {@code limit}
+     * most recently fetched keys, as stale entries.
+     */
+    static int warmFromStore(SnapshotStore store, UpstreamCache<StandingsPayload> cache, int limit) throws IOException {
+        return warmFromStore(store, cache, limit, null);
+    }
+
+    /** As above, also adding every stored snapshot, not just the warmed ones, to {@code history} when given. */
+    static int warmFromStore(SnapshotStore store, UpstreamCache<StandingsPayload> cache, int limit,
+                             HistoryStore history) throws IOException {
+        int warmed = 0;
+        List<SnapshotStore.Record> records = store.latest();
+        if (history == null && records.size() > limit) {
+            records = new ArrayList<>(records.subList(0, limit));
+        }
+        // oldest first, so the LRU keeps the most recently fetched when the store holds more than fits
+        Collections.reverse(records);
+        int skip = Math.max(0, records.size() - limit);
+        for (SnapshotStore.Record record : records) {
+            StandingsPayload payload = StandingsPayload.of(
+                    new UpstreamClient.Raw(200, record.getGzipBody(), "gzip"));
+            if (payload.snapshot.isEmpty()) {
+                skip--;
+                continue;
+            }
+            if (history != null) {
+                history.add(payload.snapshot);
+            }
+            if (skip-- <= 0) {
+                cache.warm(record.league, record.season, payload);
+                warmed++;
+            }
+        }
+        return warmed;
+    }
+
+    /**
+     * The fixtures cache loader. Like the standings one it fails rather than
+     * return an error as data: api-sports error bodies parse to no fixtures,
+     * which would otherwise be cached as a season with nothing left to play.
+     */
+    static FixturesSnapshot fetchFixtures(String league, String season) throws Exception {
+        String url = apiBaseUrl + "/fixtures?season=" + encode(season) + "&league=" + encode(league);
+        UpstreamClient.Raw raw = UpstreamClient.shared().getRaw(url, apiKey, API_HOST);
+        if (raw.status < 200 || raw.status >= 300) {
+            throw new IOException("Upstream answered HTTP " + raw.status);
+        }
+        FixturesSnapshot fixtures;
+        long start = System.nanoTime();
+        try (Reader reader = new InputStreamReader(raw.decoded(), StandardCharsets.UTF_8)) {
+            fixtures = FixturesParser.parse(reader);
+        } finally {
+            Metrics.FIXTURES_PARSE.recordSince(start);
+        }
+        if (fixtures.size() == 0) {
+            throw new IOException("Upstream returned no fixtures for league " + league + ", season " + season);
+        }
+        return fixtures;
+    }
+
+    static String standingsUrl(String league, String season) {
+        return apiBaseUrl + "/standings?season=" + encode(season) + "&league=" + encode(league);
+    }
+
+    static void addCorsAndContentType(Headers headers) {
         headers.set("Content-Type", "application/json");
         headers.set("Access-Control-Allow-Origin", "*");
     }
 
-    private static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
-        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    /** 503 with Retry-After when the upstream quota shed the call, 500 otherwise. */
+    static void sendError(HttpExchange exchange, Exception e) throws IOException {
+        if (e instanceof UpstreamScheduler.QuotaExceededException) {
+            UpstreamScheduler.QuotaExceededException quota = (UpstreamScheduler.QuotaExceededException) e;
+            exchange.getResponseHeaders().set("Retry-After", String.valueOf(quota.getRetryAfterSeconds()));
+            sendJson(exchange, 503, "{\"error\":\"" + escape(quota.getMessage()) + "\"}");
+            return;
+        }
+        String message = e.getMessage() == null ? "Internal Server Error" : e.getMessage();
+        sendJson(exchange, 500, "{\"error\":\"" + escape(message) + "\"}");
+    }
+
+    static void sendJson(HttpExchange exchange, int status, String body) throws IOException {
+        sendJson(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void sendJson(HttpExchange exchange, int status, byte[] bytes) throws IOException {
         exchange.sendResponseHeaders(status, bytes.length);
         try (OutputStream os = exchange.getResponseBody()) {
             os.write(bytes);
         }
     }
 
-    private static Map<String, String> parseQueryParams(URI uri) {
+    static Map<String, String> parseQueryParams(URI uri) {
         Map<String, String> map = new HashMap<>();
         String query = uri.getRawQuery();
         if (query == null || query.isEmpty()) {
@@ -365,19 +1079,9 @@ public class WebServer {
         return value.replace(" ", "%20");
     }
 
-    private static String escape(String value) {
+    static String escape(String value) {
         return value.replace("\\", "\\\\").replace("\"", "\\\"");
     }
-
-    private static double toDouble(Object o) {
-        if (o == null) return 0d;
-        if (o instanceof Number) return ((Number) o).doubleValue();
-        try {
-            return Double.parseDouble(o.toString());
-        } catch (Exception e) {
-            return 0d;
-        }
-    }
 }
 
 
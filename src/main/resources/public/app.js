@@ -116,11 +116,55 @@ function renderStandings(json) {
 	}
 }
 
-async function loadStandings() {
+let standingsStream = null;
+
+// Subscribes to live standings: the server pushes the table again only when it changes.
+function loadStandings() {
 	const season = seasonEl.value.trim();
 	const league = leagueEl.value.trim();
 	if (!season || !league) return;
 
+	if (standingsStream) {
+		standingsStream.close();
+		standingsStream = null;
+	}
+	if (!window.EventSource) {
+		fetchStandings(season, league);
+		return;
+	}
+
+	loadBtn.disabled = true;
+	setStatus("Loading...");
+	resultsEl.innerHTML = "";
+
+	let received = false;
+	const url = `/standings/stream?season=${encodeURIComponent(season)}&league=${encodeURIComponent(league)}`;
+	const source = new EventSource(url);
+	standingsStream = source;
+	source.addEventListener("standings", (event) => {
+		received = true;
+		loadBtn.disabled = false;
+		try {
+			renderStandings(JSON.parse(event.data));
+			setStatus("Live");
+		} catch {
+			setStatus("Server did not return valid JSON.");
+		}
+	});
+	source.onerror = () => {
+		if (standingsStream !== source) return;
+		if (!received || source.readyState === EventSource.CLOSED) {
+			// The stream could not be opened (bad input, upstream error): a plain request shows why.
+			source.close();
+			standingsStream = null;
+			fetchStandings(season, league);
+		} else {
+			setStatus("Reconnecting...");
+		}
+	};
+}
+
+async function fetchStandings(season, league) {
 	try {
 		loadBtn.disabled = true;
 		setStatus("Loading...");
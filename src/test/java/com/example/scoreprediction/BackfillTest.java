@@ -0,0 +1,84 @@
+package com.example.scoreprediction;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BackfillTest {
+
+	@TempDir
+	Path dir;
+
+	@AfterEach
+	void reset() {
+		WebServer.apiBaseUrl = "https://v3.football.api-sports.io";
+	}
+
+	@Test
+	void expandsListsAndRanges() {
+		assertEquals(List.of("39", "140", "2020", "2021", "2022"), Backfill.expand("39, 140,2022-2020,39"));
+	}
+
+	@Test
+	void storesTablesAndResumesWhereItStopped() throws Exception {
+		AtomicInteger requests = new AtomicInteger();
+		HttpServer upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		upstream.createContext("/standings", exchange -> {
+			requests.incrementAndGet();
+			boolean known = exchange.getRequestURI().getQuery().contains("league=39");
+			byte[] body = (known ? StandingsParserTest.LEAGUE : "{\"errors\":[],\"response\":[]}")
+					.getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream os = exchange.getResponseBody()) {
+				os.write(body);
+			}
+		});
+		upstream.start();
+		WebServer.apiBaseUrl = "http://127.0.0.1:" + upstream.getAddress().getPort();
+
+		Backfill.Options options = Backfill.parse(new String[] {
+				"--leagues", "39,40", "--seasons", "2021-2023", "--parallelism", "3", "--rpm", "60000"});
+		PrintStream out = new PrintStream(new ByteArrayOutputStream());
+		try (SnapshotStore store = SnapshotStore.open(dir.resolve("standings.store"), 64)) {
+			Backfill.Report first = Backfill.run(options, store, "key", out);
+			assertEquals(6, first.total);
+			assertEquals(3, first.stored);
+			assertEquals(3, first.empty);
+			assertEquals(0, first.failed);
+			assertTrue(first.requestsPerSecond() > 0);
+			assertEquals(3, store.size());
+		} finally {
+			upstream.stop(0);
+		}
+
+		upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		upstream.createContext("/standings", exchange -> {
+			requests.incrementAndGet();
+			exchange.sendResponseHeaders(500, -1);
+			exchange.close();
+		});
+		upstream.start();
+		WebServer.apiBaseUrl = "http://127.0.0.1:" + upstream.getAddress().getPort();
+		try (SnapshotStore store = SnapshotStore.open(dir.resolve("standings.store"), 64)) {
+			Backfill.Report second = Backfill.run(options, store, "key", out);
+			assertEquals(3, second.skipped);
+			// only the pairs without a table are asked for again
+			assertEquals(9, requests.get());
+		} finally {
+			upstream.stop(0);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.scoreprediction;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BatchPredictHandlerTest {
+
+	private UpstreamCache<StandingsPayload> savedCache;
+
+	@BeforeEach
+	void saveCache() {
+		savedCache = WebServer.standingsCache;
+	}
+
+	@AfterEach
+	void restoreCache() {
+		WebServer.standingsCache = savedCache;
+	}
+
+	@Test
+	void loadsEachSnapshotOnceAndAnswersInInputOrder() throws Exception {
+		ConcurrentHashMap<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+		WebServer.standingsCache = new UpstreamCache<>((league, season) -> {
+			loads.computeIfAbsent(league, k -> new AtomicInteger()).incrementAndGet();
+			if ("500".equals(league)) {
+				throw new IllegalStateException("upstream down");
+			}
+			return StandingsPayload.of("2".equals(league) ? StandingsParserTest.CUP : StandingsParserTest.LEAGUE);
+		}, 5, TimeUnit.MINUTES, 16);
+
+		String body = "["
+				+ "{\"league\":39,\"season\":2023,\"team1\":1,\"team2\":2},"
+				+ "{\"league\":\"2\",\"season\":\"2023\",\"team1\":1,\"team2\":3,\"group\":\"A\"},"
+				+ "{\"league\":39,\"season\":2023,\"team1\":2,\"team2\":1},"
+				+ "{\"league\":39,\"season\":2023,\"team1\":1,\"team2\":9},"
+				+ "{\"league\":500,\"season\":2023,\"team1\":1,\"team2\":2},"
+				+ "{\"league\":39,\"season\":2023}"
+				+ "]";
+
+		ExecutorService executor = ServerExecutors.create("pool", 4, 16);
+		HttpServer server = WebServer.createServer(new InetSocketAddress("127.0.0.1", 0), executor);
+		server.start();
+		try {
+			HttpRequest request = HttpRequest.newBuilder(URI.create(
+							"http://127.0.0.1:" + server.getAddress().getPort() + "/predict/batch"))
+					.POST(HttpRequest.BodyPublishers.ofString(body))
+					.build();
+			HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
+			assertEquals(200, response.statusCode());
+
+			JsonArray results = new Gson().fromJson(response.body(), JsonArray.class);
+			assertEquals(6, results.size());
+			for (int i = 0; i < results.size(); i++) {
+				assertEquals(i, results.get(i).getAsJsonObject().get("index").getAsInt());
+			}
+			JsonObject first = results.get(0).getAsJsonObject();
+			assertEquals("Manchester City", first.get("team1Name").getAsString());
+			assertEquals("team1", first.get("result").getAsString());
+			assertEquals("Galatasaray", results.get(1).getAsJsonObject().get("team2Name").getAsString());
+			assertEquals("team2", results.get(2).getAsJsonObject().get("result").getAsString());
+			assertEquals("team1 and team2 must be between 1 and 2", results.get(3).getAsJsonObject().get("error").getAsString());
+			assertEquals("upstream down", results.get(4).getAsJsonObject().get("error").getAsString());
+			assertEquals("Missing required fields: league, season, team1, team2",
+					results.get(5).getAsJsonObject().get("error").getAsString());
+		} finally {
+			server.stop(0);
+			executor.shutdownNow();
+		}
+
+		assertEquals(1, loads.get("39").get());
+		assertEquals(1, loads.get("2").get());
+	}
+}
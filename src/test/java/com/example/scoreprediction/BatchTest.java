@@ -0,0 +1,92 @@
+package com.example.scoreprediction;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchTest {
+
+	private static final List<String> JOB_FILE = List.of(
+			"# nightly",
+			"39 2023 1:2 arsenal:#50",
+			"",
+			"2 2023 group=A bayern:3 1:9",
+			"39,500 2023");
+
+	private final ConcurrentHashMap<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+	private String run(Batch.Format format) throws Exception {
+		Batch.Options options = Batch.parse(new String[] {"jobs.txt", "--format", format.name().toLowerCase(), "--parallelism", "3"});
+		StringWriter out = new StringWriter();
+		Batch.run(Batch.jobs(JOB_FILE), options, (league, season) -> {
+			loads.computeIfAbsent(league, k -> new AtomicInteger()).incrementAndGet();
+			if ("500".equals(league)) {
+				throw new IllegalStateException("upstream down");
+			}
+			return StandingsPayload.of("2".equals(league) ? StandingsParserTest.CUP : StandingsParserTest.LEAGUE);
+		}, out);
+		return out.toString();
+	}
+
+	@Test
+	void parsesJobLines() {
+		List<Batch.Job> jobs = Batch.jobs(JOB_FILE);
+		assertEquals(4, jobs.size());
+		assertEquals("A", jobs.get(1).group);
+		assertEquals(2, jobs.get(0).pairs.size());
+		assertEquals("500", jobs.get(3).league);
+		assertThrows(IllegalArgumentException.class, () -> Batch.jobs(List.of("39 2023 arsenal")));
+	}
+
+	@Test
+	void writesTablesAndPredictionsInJobOrderFetchingEachSnapshotOnce() throws Exception {
+		String text = run(Batch.Format.TEXT);
+
+		assertEquals(1, loads.get("39").get());
+		assertEquals(1, loads.get("2").get());
+		// same columns as the printf chains of the interactive table
+		assertTrue(text.contains("\n 1    Manchester City   38    28     3     7    96      34    62    91\n"), text);
+		assertTrue(text.contains("\nManchester City (9) vs Arsenal (4): Manchester City\n"), text);
+		assertTrue(text.contains("\nArsenal (4) vs Manchester City (9): Manchester City\n"), text);
+		assertTrue(text.contains("\nGroup A\n"), text);
+		assertTrue(!text.contains("Group H"), text);
+		assertTrue(text.contains("\n1:9: team1 and team2 must be between 1 and 3\n"), text);
+		assertTrue(text.endsWith("\n500/2023: fetch failed: upstream down\n"), text);
+		assertTrue(text.indexOf("Premier League") < text.indexOf("Group A"));
+	}
+
+	@Test
+	void csvRowsAllHaveTheHeaderColumns() throws Exception {
+		String[] lines = run(Batch.Format.CSV).split("\n");
+		assertEquals(Batch.CSV_HEADER.trim(), lines[0]);
+		int columns = lines[0].split(",", -1).length;
+		for (String line : lines) {
+			assertEquals(columns, line.split(",", -1).length, line);
+		}
+		assertTrue(lines[1].startsWith("standing,39,2023,Premier League,1,50,Manchester City,38,28,7,3,96,34,62,91,"), lines[1]);
+		assertEquals("prediction,39,2023,Premier League,1,50,Manchester City,,,,,,,,,42,Arsenal,9,4,team1,", lines[3]);
+	}
+
+	@Test
+	void jsonIsOneObjectPerJob() throws Exception {
+		String[] lines = run(Batch.Format.JSON).split("\n");
+		assertEquals(4, lines.length);
+		Gson gson = new Gson();
+		JsonObject cup = gson.fromJson(lines[1], JsonObject.class);
+		assertEquals(3, cup.getAsJsonArray("standings").size());
+		JsonArray predictions = cup.getAsJsonArray("predictions");
+		assertEquals("Bayern Munich", predictions.get(0).getAsJsonObject().get("team1Name").getAsString());
+		assertTrue(predictions.get(1).getAsJsonObject().has("error"));
+		assertEquals("upstream down", gson.fromJson(lines[3], JsonObject.class).get("error").getAsString().replace("fetch failed: ", ""));
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.scoreprediction;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EloRatingsTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void appliesEachFinishedFixtureOnce() throws Exception {
+		FixturesSnapshot fixtures = FixturesParser.parse(FixturesParserTest.GROUP_A);
+		EloRatings ratings = new EloRatings();
+
+		assertEquals(3, ratings.ingest(fixtures));
+		assertEquals(0, ratings.ingest(fixtures));
+		assertEquals(0, ratings.ingest(FixturesParser.parse(FixturesParserTest.GROUP_A)));
+
+		assertEquals(3, ratings.teamCount());
+		assertEquals(2, ratings.games(157));
+		// zero-sum updates
+		assertEquals(3 * EloRatings.INITIAL, ratings.rating(157) + ratings.rating(49) + ratings.rating(645), 1e-9);
+		// Bayern won 3-1 at home and drew away; Galatasaray lost and drew
+		assertTrue(ratings.rating(157) > EloRatings.INITIAL);
+		assertTrue(ratings.rating(645) < EloRatings.INITIAL);
+		assertEquals(EloRatings.INITIAL, ratings.rating(999));
+	}
+
+	@Test
+	void newMatchdayOnlyAppliesNewResults() {
+		EloRatings replay = new EloRatings();
+		replay.apply(1, 2, 2, 0);
+		replay.apply(3, 1, 1, 1);
+		replay.apply(2, 3, 0, 4);
+
+		EloRatings incremental = new EloRatings();
+		assertEquals(2, incremental.ingest(fixtures(2)));
+		assertEquals(1, incremental.ingest(fixtures(3)));
+
+		for (int team = 1; team <= 3; team++) {
+			assertEquals(replay.rating(team), incremental.rating(team), 1e-12);
+		}
+	}
+
+	@Test
+	void survivesSaveAndLoad() throws Exception {
+		Path file = dir.resolve("elo.bin");
+		EloRatings ratings = new EloRatings();
+		ratings.ingest(fixtures(2));
+		ratings.save(file);
+
+		EloRatings loaded = EloRatings.load(file);
+		assertEquals(ratings.rating(1), loaded.rating(1));
+		assertEquals(ratings.games(3), loaded.games(3));
+		assertEquals(2, loaded.processedCount());
+		assertEquals(1, loaded.ingest(fixtures(3)));
+
+		double[] outcome = loaded.outcome(1, 2);
+		assertEquals(1.0, outcome[0] + outcome[1] + outcome[2], 1e-12);
+		assertTrue(outcome[0] > outcome[2]);
+	}
+
+	@Test
+	void engineResumesFromSavedRatings() throws Exception {
+		EloEngine first = new EloEngine(dir);
+		first.update("39", "2023", fixtures(2));
+		EloEngine restarted = new EloEngine(dir);
+		EloRatings ratings = restarted.update("39", "2023", fixtures(3));
+		assertEquals(3, ratings.processedCount());
+		assertEquals(2, ratings.games(3));
+	}
+
+	/** The first {@code played} of three matches finished, the rest still to play. */
+	private static FixturesSnapshot fixtures(int played) {
+		byte f = FixturesSnapshot.FINISHED;
+		byte s = FixturesSnapshot.SCHEDULED;
+		return new FixturesSnapshot(new int[] {11, 12, 13}, new long[] {100, 200, 300},
+				new byte[] {f, played >= 2 ? f : s, played >= 3 ? f : s}, new boolean[3],
+				new int[] {1, 3, 2}, new int[] {2, 1, 3}, new String[3], new String[3],
+				new int[] {2, 1, played >= 3 ? 0 : -1}, new int[] {0, 1, played >= 3 ? 4 : -1});
+	}
+}
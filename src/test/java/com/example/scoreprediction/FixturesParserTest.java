@@ -0,0 +1,120 @@
+package com.example.scoreprediction;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FixturesParserTest {
+
+	/** Group A of {@link StandingsParserTest#CUP}, out of order, with one match still to play and one cancelled. */
+	static final String GROUP_A = """
+			{"get":"fixtures","parameters":{"league":"2","season":"2023"},"errors":[],"results":5,
+			 "response":[
+			  {"fixture":{"id":3,"referee":null,"timezone":"UTC","date":"2023-10-03T19:00:00+00:00","timestamp":1696359600,
+			    "status":{"long":"Match Finished","short":"FT","elapsed":90}},
+			   "league":{"id":2,"season":2023,"round":"Group A - 2"},
+			   "teams":{"home":{"id":49,"name":"Copenhagen","winner":null},"away":{"id":157,"name":"Bayern Munich","winner":null}},
+			   "goals":{"home":1,"away":1},"score":{"halftime":{"home":0,"away":0}}},
+			  {"fixture":{"id":1,"timestamp":1695150000,"status":{"short":"FT"}},
+			   "teams":{"home":{"id":157,"name":"Bayern Munich"},"away":{"id":645,"name":"Galatasaray"}},
+			   "goals":{"home":3,"away":1}},
+			  {"fixture":{"id":5,"timestamp":1702497600,"status":{"long":"Not Started","short":"NS","elapsed":null}},
+			   "teams":{"home":{"id":645,"name":"Galatasaray"},"away":{"id":49,"name":"Copenhagen"}},
+			   "goals":{"home":null,"away":null}},
+			  {"fixture":{"id":4,"timestamp":1700000000,"status":{"short":"CANC"}},
+			   "teams":{"home":{"id":49,"name":"Copenhagen"},"away":{"id":645,"name":"Galatasaray"}},
+			   "goals":{"home":null,"away":null}},
+			  {"fixture":{"id":2,"timestamp":1695150000,"status":{"short":"AET"}},
+			   "teams":{"home":{"id":645,"name":"Galatasaray"},"away":{"id":49,"name":"Copenhagen"}},
+			   "goals":{"home":2,"away":2}}
+			 ]}
+			""";
+
+	@Test
+	void parsesFixturesInKickOffOrder() throws Exception {
+		FixturesSnapshot f = FixturesParser.parse(GROUP_A);
+
+		assertEquals(5, f.size());
+		for (int i = 0; i < f.size(); i++) {
+			assertEquals(i + 1, f.fixtureId(i));
+		}
+		assertTrue(f.isFinished(0));
+		assertEquals(157, f.homeId(0));
+		assertEquals(645, f.awayId(0));
+		assertEquals(3, f.homeGoals(0));
+		assertEquals(1, f.awayGoals(0));
+		assertTrue(f.isFinished(1));
+		assertEquals(1696359600L, f.timestamp(2));
+
+		assertFalse(f.isFinished(3));
+		assertFalse(f.isScheduled(3));
+		assertTrue(f.isScheduled(4));
+		assertEquals(-1, f.homeGoals(4));
+		assertEquals(1, f.scheduledCount());
+		assertFalse(f.isKnockout(2));
+	}
+
+	@Test
+	void flagsRoundsAfterTheTable() {
+		assertFalse(FixturesParser.knockout("Regular Season - 38"));
+		assertFalse(FixturesParser.knockout("Group A - 2"));
+		assertFalse(FixturesParser.knockout("League Stage - 8"));
+		assertFalse(FixturesParser.knockout(null));
+		assertTrue(FixturesParser.knockout("Round of 16"));
+		assertTrue(FixturesParser.knockout("Final"));
+		assertTrue(FixturesParser.knockout("Relegation Round - 1"));
+	}
+
+	@Test
+	void errorPayloadParsesToEmpty() throws Exception {
+		assertSame(FixturesSnapshot.EMPTY, FixturesParser.parse("{\"errors\":{\"token\":\"bad\"},\"response\":[]}"));
+		assertSame(FixturesSnapshot.EMPTY, FixturesParser.parse("[]"));
+	}
+
+	@Test
+	void fixturesLoaderRefusesErrorAnswers() throws Exception {
+		String[] answers = {"{\"message\":\"Service Unavailable\"}",
+				"{\"errors\":{\"requests\":\"You have reached the request limit for the day\"},\"response\":[]}",
+				GROUP_A};
+		int[] statuses = {503, 200, 200};
+		AtomicInteger calls = new AtomicInteger();
+		HttpServer upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		upstream.createContext("/fixtures", exchange -> {
+			int call = calls.getAndIncrement();
+			byte[] body = answers[call].getBytes(StandardCharsets.UTF_8);
+			exchange.sendResponseHeaders(statuses[call], body.length);
+			try (OutputStream os = exchange.getResponseBody()) {
+				os.write(body);
+			}
+		});
+		upstream.start();
+		String savedApiKey = WebServer.apiKey;
+		String savedBaseUrl = WebServer.apiBaseUrl;
+		WebServer.apiKey = "key";
+		WebServer.apiBaseUrl = "http://127.0.0.1:" + upstream.getAddress().getPort();
+		try {
+			UpstreamCache<FixturesSnapshot> cache = new UpstreamCache<>(WebServer::fetchFixtures, 5, TimeUnit.MINUTES, 4);
+			assertThrows(IOException.class, () -> cache.get("2", "2023"));
+			assertThrows(IOException.class, () -> cache.get("2", "2023"));
+			assertEquals(0, cache.size());
+			assertEquals(5, cache.get("2", "2023").size());
+			assertEquals(3, calls.get());
+		} finally {
+			upstream.stop(0);
+			WebServer.apiKey = savedApiKey;
+			WebServer.apiBaseUrl = savedBaseUrl;
+		}
+	}
+}
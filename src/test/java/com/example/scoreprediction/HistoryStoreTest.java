@@ -0,0 +1,59 @@
+package com.example.scoreprediction;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HistoryStoreTest {
+
+	private static StandingsSnapshot league(int season, int cityPoints) throws Exception {
+		return StandingsParser.parse(StandingsParserTest.LEAGUE
+				.replace("\"season\":2023", "\"season\":" + season)
+				.replace("\"points\":91", "\"points\":" + cityPoints));
+	}
+
+	@Test
+	void returnsOneTeamAcrossSeasonsInOrder() throws Exception {
+		HistoryStore history = new HistoryStore(16);
+		// added out of order, and more rows than the initial capacity
+		for (int season = 2023; season >= 2010; season--) {
+			history.add(league(season, 60 + season - 2010));
+		}
+		history.add(StandingsParser.parse(StandingsParserTest.CUP));
+
+		HistoryStore.TeamHistory city = history.team(50, 2015, 2020);
+		assertEquals(6, city.size());
+		for (int i = 0; i < city.size(); i++) {
+			assertEquals(2015 + i, city.season(i));
+			assertEquals(65 + i, city.points(i));
+			assertEquals((65 + i) / 38.0, city.pointsPerGame(i), 1e-12);
+		}
+		assertEquals(14, history.team(42, Integer.MIN_VALUE, Integer.MAX_VALUE).size());
+		assertEquals(2, history.team(157, 2023, 2023).league(0));
+		assertNull(history.team(1, 2000, 2030));
+		assertEquals(14 * 2 + 5, history.rowCount());
+	}
+
+	@Test
+	void refetchedSeasonReplacesItsRows() throws Exception {
+		HistoryStore history = new HistoryStore(16);
+		history.add(league(2022, 80));
+		for (int points = 1; points <= 100; points++) {
+			history.add(league(2023, points));
+		}
+
+		HistoryStore.TeamHistory city = history.team(50, 2000, 2030);
+		assertEquals(2, city.size());
+		assertEquals(80, city.points(0));
+		assertEquals(100, city.points(1));
+		assertEquals(4, history.rowCount());
+		assertEquals(2, history.snapshotCount());
+
+		String json = new String(city.toJson(), StandardCharsets.UTF_8);
+		assertTrue(json.startsWith("{\"team\":{\"id\":50,\"name\":\"Manchester City\"},\"seasons\":[{\"league\":39,\"season\":2022,\"rank\":1,\"played\":38,\"points\":80,"), json);
+	}
+}
@@ -0,0 +1,126 @@
+package com.example.scoreprediction;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsTest {
+
+	@Test
+	void bucketsBoundTheRelativeError() {
+		for (long micros : new long[] {0, 7, 8, 9, 100, 1_000, 12_345, 999_999, 60_000_000L}) {
+			int index = LatencyHistogram.index(micros);
+			long upper = LatencyHistogram.upperBound(index);
+			assertTrue(upper >= micros, micros + " above its bucket");
+			assertTrue(upper <= micros + micros / LatencyHistogram.SUB_BUCKETS, micros + " in a bucket too wide");
+			if (index > 0) {
+				assertTrue(LatencyHistogram.upperBound(index - 1) < micros, micros + " below its bucket");
+			}
+		}
+	}
+
+	@Test
+	void percentilesOfAUniformSpread() {
+		LatencyHistogram h = new LatencyHistogram();
+		for (int ms = 1; ms <= 1000; ms++) {
+			h.record(TimeUnit.MILLISECONDS.toNanos(ms));
+		}
+		assertEquals(1000, h.count());
+		assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), h.maxNanos());
+		assertWithin(TimeUnit.MILLISECONDS.toNanos(500), h.percentileNanos(0.5));
+		assertWithin(TimeUnit.MILLISECONDS.toNanos(950), h.percentileNanos(0.95));
+		assertWithin(TimeUnit.MILLISECONDS.toNanos(990), h.percentileNanos(0.99));
+		assertEquals(0, new LatencyHistogram().percentileNanos(0.99));
+	}
+
+	private static void assertWithin(long expected, long actual) {
+		assertTrue(actual >= expected && actual <= expected + expected / LatencyHistogram.SUB_BUCKETS,
+				"expected about " + expected + " but was " + actual);
+	}
+
+	@Test
+	void concurrentRecordsAreAllCounted() throws Exception {
+		LatencyHistogram h = new LatencyHistogram();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> done = new ArrayList<>();
+			for (int t = 0; t < 8; t++) {
+				int thread = t;
+				done.add(pool.submit(() -> {
+					for (int i = 0; i < 10_000; i++) {
+						h.record(1000L * (i + thread));
+					}
+				}));
+			}
+			for (Future<?> f : done) {
+				f.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(80_000, h.count());
+		assertEquals(1000L * (9_999 + 7), h.maxNanos());
+	}
+
+	@Test
+	void scrapeCountsRequestsPerContextAndStatus() throws Exception {
+		ExecutorService executor = ServerExecutors.create("pool", 2, 16);
+		HttpServer server = WebServer.createServer(new InetSocketAddress("127.0.0.1", 0), executor);
+		server.start();
+		HttpClient client = HttpClient.newHttpClient();
+		try {
+			String base = "http://127.0.0.1:" + server.getAddress().getPort();
+			long before = count(Metrics.scrape(), "scoreprediction_http_requests_total{context=\"/simulate\",status=\"400\"}");
+			for (int i = 0; i < 3; i++) {
+				client.send(HttpRequest.newBuilder(URI.create(base + "/simulate")).build(), HttpResponse.BodyHandlers.discarding());
+			}
+
+			HttpResponse<String> metrics = client.send(HttpRequest.newBuilder(URI.create(base + "/metrics")).build(),
+					HttpResponse.BodyHandlers.ofString());
+			assertEquals(200, metrics.statusCode());
+			assertTrue(metrics.headers().firstValue("Content-Type").orElse("").startsWith("text/plain; version=0.0.4"));
+			String body = metrics.body();
+			assertEquals(before + 3, count(body, "scoreprediction_http_requests_total{context=\"/simulate\",status=\"400\"}"));
+			assertTrue(body.contains("# TYPE scoreprediction_http_request_duration_seconds summary"));
+			assertTrue(body.contains("scoreprediction_http_request_duration_seconds{context=\"/simulate\",quantile=\"0.99\"}"));
+			assertTrue(body.contains("scoreprediction_http_requests_in_flight{context=\"/simulate\"} 0"));
+			assertTrue(body.contains("scoreprediction_upstream_request_duration_seconds_count"));
+			// every family is declared once
+			assertEquals(1, occurrences(body, "# TYPE scoreprediction_cache_hits_total "));
+		} finally {
+			server.stop(0);
+			executor.shutdownNow();
+		}
+	}
+
+	private static long count(String scrape, String series) {
+		for (String line : scrape.split("\n")) {
+			if (line.startsWith(series + " ")) {
+				return Long.parseLong(line.substring(series.length() + 1));
+			}
+		}
+		return 0;
+	}
+
+	private static int occurrences(String text, String part) {
+		int n = 0;
+		for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+			n++;
+		}
+		return n;
+	}
+}
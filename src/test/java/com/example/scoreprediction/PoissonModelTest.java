@@ -0,0 +1,92 @@
+package com.example.scoreprediction;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PoissonModelTest {
+
+	@Test
+	void ratesComeFromHomeAndAwaySplits() throws Exception {
+		StandingsSnapshot s = StandingsParser.parse(StandingsParserTest.LEAGUE);
+		PoissonModel model = PoissonModel.fit(s, 0);
+
+		// 99 home goals in 38 home games, 88 away goals in 38 away games
+		assertEquals(99.0 / 38, model.muHome, 1e-12);
+		assertEquals(88.0 / 38, model.muAway, 1e-12);
+		// City at home: (51 + 3 * muHome) / 22 / muHome attack, Arsenal away: (13 + 3 * muHome) / 22 / muHome defence
+		double attack = (51 + 3 * model.muHome) / 22 / model.muHome;
+		double defence = (13 + 3 * model.muHome) / 22 / model.muHome;
+		assertEquals(model.muHome * attack * defence, model.homeRate(0, 1), 1e-12);
+	}
+
+	@Test
+	void outcomesAndGridAreProbabilities() throws Exception {
+		PoissonModel model = PoissonModel.fit(StandingsParser.parse(StandingsParserTest.LEAGUE), 0);
+		PoissonModel.Prediction p = model.predict(0, 1, true);
+
+		assertEquals(1.0, p.team1Win() + p.draw() + p.team2Win(), 1e-12);
+		double sum = 0;
+		for (double cell : p.grid()) {
+			assertTrue(cell >= 0);
+			sum += cell;
+		}
+		assertEquals(1.0, sum, 1e-3);
+		int side = PoissonModel.MAX_GOALS + 1;
+		assertEquals(p.grid()[p.likelyScore1 * side + p.likelyScore2],
+				java.util.Arrays.stream(p.grid()).max().getAsDouble());
+		assertNull(model.predict(0, 1, false).grid());
+	}
+
+	@Test
+	void dixonColesMovesMassToLowDraws() throws Exception {
+		StandingsSnapshot s = StandingsParser.parse(StandingsParserTest.LEAGUE);
+		PoissonModel.Prediction independent = PoissonModel.fit(s, 0, 0).predict(0, 1, true);
+		PoissonModel.Prediction corrected = PoissonModel.fit(s, 0, -0.1).predict(0, 1, true);
+
+		assertTrue(corrected.draw() > independent.draw());
+		assertTrue(corrected.grid()[0] > independent.grid()[0]);
+	}
+
+	@Test
+	void homeSideIsFavouredBetweenEqualTeams() throws Exception {
+		StandingsSnapshot cup = StandingsParser.parse(StandingsParserTest.CUP);
+		// no home/away splits in the cup payload: every team is average, only home advantage remains
+		PoissonModel.Prediction p = PoissonModel.fit(cup, 1).predict(1, 2, false);
+		assertTrue(p.team1Win() > p.team2Win());
+		assertEquals(PredictionEngine.TEAM1, p.result());
+
+		JsonObject json = new Gson().fromJson(
+				WebServer.poissonJson("2", "2023", 2, 3, "Copenhagen", "Galatasaray", p), JsonObject.class);
+		assertEquals("poisson", json.get("model").getAsString());
+		assertEquals("Copenhagen", json.get("winnerName").getAsString());
+		assertEquals(p.team1Win(), json.get("team1Win").getAsDouble(), 1e-6);
+	}
+
+	@Test
+	void goallessFirstMatchdayFallsBackToDefaultRates() throws Exception {
+		// one match played, 0-0: games but no goals on either side
+		StandingsSnapshot s = StandingsParser.parse("""
+				{"response":[{"league":{"id":39,"season":2024,"standings":[[
+				 {"rank":1,"team":{"id":1,"name":"Home"},"points":1,"goalsDiff":0,"group":"L",
+				  "all":{"played":1,"win":0,"draw":1,"lose":0,"goals":{"for":0,"against":0}},
+				  "home":{"played":1,"win":0,"draw":1,"lose":0,"goals":{"for":0,"against":0}},
+				  "away":{"played":0,"win":0,"draw":0,"lose":0,"goals":{"for":0,"against":0}}},
+				 {"rank":2,"team":{"id":2,"name":"Away"},"points":1,"goalsDiff":0,"group":"L",
+				  "all":{"played":1,"win":0,"draw":1,"lose":0,"goals":{"for":0,"against":0}},
+				  "home":{"played":0,"win":0,"draw":0,"lose":0,"goals":{"for":0,"against":0}},
+				  "away":{"played":1,"win":0,"draw":1,"lose":0,"goals":{"for":0,"against":0}}}
+				]]}}]}
+				""");
+		PoissonModel model = PoissonModel.fit(s, 0);
+		PoissonModel.Prediction p = model.predict(0, 1, false);
+
+		assertTrue(model.homeRate(0, 1) > 0 && Double.isFinite(model.homeRate(0, 1)));
+		assertTrue(model.awayRate(0, 1) > 0 && Double.isFinite(model.awayRate(0, 1)));
+		assertEquals(1.0, p.team1Win() + p.draw() + p.team2Win(), 1e-12);
+	}
+}
@@ -0,0 +1,54 @@
+package com.example.scoreprediction;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PredictionEngineTest {
+
+	@Test
+	void scoresEveryCategory() throws Exception {
+		StandingsSnapshot s = StandingsParser.parse(StandingsParserTest.LEAGUE);
+
+		// City vs Arsenal: equal played and wins, City more draws, fewer losses,
+		// more goals (over 20), more conceded (Arsenal gets 1, not under 8), more points.
+		int prediction = PredictionEngine.predict(s, s.row(0, 0), s.row(0, 1));
+		assertEquals(9, PredictionEngine.score1(prediction));
+		assertEquals(4, PredictionEngine.score2(prediction));
+		assertEquals(PredictionEngine.TEAM1, PredictionEngine.result(prediction));
+
+		int reversed = PredictionEngine.predict(s, s.row(0, 1), s.row(0, 0));
+		assertEquals(4, PredictionEngine.score1(reversed));
+		assertEquals(9, PredictionEngine.score2(reversed));
+		assertEquals("team2", PredictionEngine.resultName(PredictionEngine.result(reversed)));
+	}
+
+	@Test
+	void sameTeamIsADraw() throws Exception {
+		StandingsSnapshot s = StandingsParser.parse(StandingsParserTest.CUP);
+		int row = s.row(1, 0);
+		int prediction = PredictionEngine.predict(s, row, row);
+		assertEquals(PredictionEngine.score1(prediction), PredictionEngine.score2(prediction));
+		assertEquals(PredictionEngine.DRAW, PredictionEngine.result(prediction));
+	}
+
+	@Test
+	void matrixHoldsEveryPairOfAGroup() throws Exception {
+		StandingsSnapshot s = StandingsParser.parse(StandingsParserTest.CUP);
+		PredictionMatrix matrix = PredictionMatrix.compute(s, 1);
+
+		assertEquals(3, matrix.size());
+		for (int i = 0; i < 3; i++) {
+			for (int j = 0; j < 3; j++) {
+				int expected = i == j ? 0 : PredictionEngine.predict(s, s.row(1, i), s.row(1, j));
+				assertEquals(expected, matrix.prediction(i, j));
+			}
+		}
+
+		String json = new String(matrix.toJson(s, "2", "2023", 7), StandardCharsets.UTF_8);
+		assertTrue(json.startsWith("{\"league\":\"2\",\"season\":\"2023\",\"version\":7,\"group\":\"Group A\",\"size\":3,"));
+	}
+}
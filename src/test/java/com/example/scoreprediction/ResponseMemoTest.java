@@ -0,0 +1,74 @@
+package com.example.scoreprediction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseMemoTest {
+
+	@Test
+	void servesTheSameBytesUntilTheVersionChanges() {
+		ResponseMemo memo = new ResponseMemo(1024);
+		AtomicInteger builds = new AtomicInteger();
+
+		byte[] first = memo.get("39", "2023", 1, 7, () -> new byte[] {(byte) builds.incrementAndGet()});
+		assertSame(first, memo.get(" 39", "2023 ", 1, 7, () -> new byte[] {(byte) builds.incrementAndGet()}));
+		assertEquals(1, builds.get());
+		assertEquals(1, memo.hitCount());
+
+		// a newer snapshot drops everything built from the old one
+		byte[] second = memo.get("39", "2023", 2, 7, () -> new byte[] {(byte) builds.incrementAndGet()});
+		assertEquals(2, second[0]);
+		assertEquals(1, memo.bytes());
+		// a request still holding the old entry is answered but not remembered
+		memo.get("39", "2023", 1, 7, () -> new byte[] {(byte) builds.incrementAndGet()});
+		assertSame(second, memo.get("39", "2023", 2, 7, () -> new byte[0]));
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsedSlotButNeverTheOneBeingFilled() {
+		ResponseMemo memo = new ResponseMemo(30);
+		memo.get("1", "2023", 1, 0, () -> new byte[10]);
+		memo.get("2", "2023", 1, 0, () -> new byte[10]);
+		memo.get("3", "2023", 1, 0, () -> new byte[10]);
+		byte[] hot = memo.get("1", "2023", 1, 0, () -> new byte[0]);
+
+		// league 2 has gone longest without use
+		memo.get("4", "2023", 1, 0, () -> new byte[10]);
+		assertSame(hot, memo.get("1", "2023", 1, 0, () -> new byte[0]));
+		assertEquals(0, memo.get("2", "2023", 1, 0, () -> new byte[0]).length);
+
+		// league 3 is now the least recently used, yet a second body for it evicts another slot
+		byte[] second = memo.get("3", "2023", 1, 1, () -> new byte[10]);
+		assertSame(second, memo.get("3", "2023", 1, 1, () -> new byte[0]));
+		assertTrue(memo.bytes() <= 30);
+	}
+
+	@Test
+	void invalidateFreesTheSlotAtOnce() {
+		ResponseMemo memo = new ResponseMemo(100);
+		memo.get("39", "2023", 1, 7, () -> new byte[10]);
+		memo.invalidate(" 39", "2023");
+		assertEquals(0, memo.bytes());
+		assertEquals(0, memo.get("39", "2023", 1, 7, () -> new byte[0]).length);
+	}
+
+	@Test
+	void staysWithinTheByteBudget() {
+		ResponseMemo memo = new ResponseMemo(100);
+		for (int league = 0; league < 50; league++) {
+			for (int pair = 0; pair < 5; pair++) {
+				memo.get(String.valueOf(league), "2023", 1, pair, () -> new byte[10]);
+				assertTrue(memo.bytes() <= 100, "bytes " + memo.bytes());
+			}
+		}
+		assertTrue(memo.bytes() > 0);
+		// too big to keep at all
+		memo.get("x", "2023", 1, 0, () -> new byte[101]);
+		assertTrue(memo.bytes() <= 100);
+	}
+}
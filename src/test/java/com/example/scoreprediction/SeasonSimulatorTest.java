@@ -0,0 +1,95 @@
+package com.example.scoreprediction;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeasonSimulatorTest {
+
+	@Test
+	void playsOutRemainingFixtures() throws Exception {
+		StandingsSnapshot standings = StandingsParser.parse(StandingsParserTest.CUP);
+		FixturesSnapshot fixtures = FixturesParser.parse(FixturesParserTest.GROUP_A);
+		int groupA = standings.groupIndex("A");
+
+		SeasonSimulator.Result result = SeasonSimulator.simulate(standings, groupA, fixtures, 200_000, 42);
+
+		assertEquals(3, result.size());
+		assertEquals(1, result.remainingFixtures);
+		for (int i = 0; i < 3; i++) {
+			double team = 0;
+			double position = 0;
+			for (int j = 0; j < 3; j++) {
+				team += result.probability(i, j);
+				position += result.probability(j, i);
+			}
+			assertEquals(1.0, team, 1e-9);
+			assertEquals(1.0, position, 1e-9);
+		}
+		// Bayern are 8 points clear with one match left that they do not play
+		assertEquals(1.0, result.probability(0, 0));
+		assertEquals(16.0, result.expectedPoints(0));
+		// Galatasaray need to beat Copenhagen by two goals or more to pass them
+		assertTrue(result.probability(1, 1) > 0.6, "Copenhagen second: " + result.probability(1, 1));
+		assertTrue(result.probability(2, 1) > 0.01, "Galatasaray second: " + result.probability(2, 1));
+		assertTrue(result.expectedPoints(2) > 5 && result.expectedPoints(2) < 8);
+	}
+
+	@Test
+	void knockoutGamesBetweenGroupMatesDoNotCount() throws Exception {
+		StandingsSnapshot standings = StandingsParser.parse(StandingsParserTest.CUP);
+		String withFinal = FixturesParserTest.GROUP_A.replace(" ]}", """
+				  ,{"fixture":{"id":6,"timestamp":1717286400,"status":{"short":"NS"}},
+				   "league":{"id":2,"season":2023,"round":"Final"},
+				   "teams":{"home":{"id":157,"name":"Bayern Munich"},"away":{"id":645,"name":"Galatasaray"}},
+				   "goals":{"home":null,"away":null}}
+				 ]}""");
+		FixturesSnapshot fixtures = FixturesParser.parse(withFinal);
+		assertEquals(2, fixtures.scheduledCount());
+
+		SeasonSimulator.Result result = SeasonSimulator.simulate(standings, standings.groupIndex("A"), fixtures, 10_000, 42);
+		assertEquals(1, result.remainingFixtures);
+		assertEquals(16.0, result.expectedPoints(0));
+	}
+
+	@Test
+	void sameSeedSameResult() throws Exception {
+		StandingsSnapshot standings = StandingsParser.parse(StandingsParserTest.CUP);
+		FixturesSnapshot fixtures = FixturesParser.parse(FixturesParserTest.GROUP_A);
+
+		SeasonSimulator.Result a = SeasonSimulator.simulate(standings, 1, fixtures, 100_000, 7);
+		SeasonSimulator.Result b = SeasonSimulator.simulate(standings, 1, fixtures, 100_000, 7);
+		assertArrayEquals(a.positionCounts, b.positionCounts);
+	}
+
+	@Test
+	void simulatesEveryGroupAtOnce() throws Exception {
+		StandingsSnapshot standings = StandingsParser.parse(StandingsParserTest.CUP);
+		FixturesSnapshot fixtures = FixturesParser.parse(FixturesParserTest.GROUP_A);
+
+		SeasonSimulator.Result[] results = SeasonSimulator.simulateGroups(standings, fixtures, 100_000, 42);
+
+		assertEquals(2, results.length);
+		int groupA = standings.groupIndex("A");
+		int groupH = standings.groupIndex("H");
+		// group H is finished: every run ends in the same table (Porto ahead on goal difference)
+		assertEquals(0, results[groupH].remainingFixtures);
+		assertEquals(1.0, results[groupH].probability(1, 0));
+		assertEquals(1.0, results[groupH].probability(0, 1));
+		assertEquals(1, results[groupA].remainingFixtures);
+		assertEquals(1.0, results[groupA].probability(0, 0, 2));
+		double qualifiers = 0;
+		for (int t = 0; t < 3; t++) {
+			qualifiers += results[groupA].probability(t, 0, 2);
+		}
+		assertEquals(2.0, qualifiers, 1e-9);
+
+		String json = new String(SeasonSimulator.groupsJson("2", "2023", 2, results), StandardCharsets.UTF_8);
+		assertTrue(json.startsWith("{\"league\":\"2\",\"season\":\"2023\",\"runs\":100000,\"qualify\":2,\"groups\":[{\"group\":\"Group H\""), json);
+		assertTrue(json.contains("\"name\":\"Bayern Munich\",\"points\":16,\"expectedPoints\":16.0,\"first\":1.0,\"qualify\":1.0"), json);
+	}
+}
@@ -0,0 +1,179 @@
+package com.example.scoreprediction;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SnapshotStoreTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void newestRecordPerKeySurvivesReopen() throws Exception {
+		Path file = dir.resolve("standings.store");
+		try (SnapshotStore store = SnapshotStore.open(file, 16)) {
+			store.append("39", "2023", 1000, bytes("old"));
+			store.append("39", "2023", 2000, bytes("new"));
+			store.append("2", "2023", 1500, bytes("cup"));
+		}
+		try (SnapshotStore store = SnapshotStore.open(file, 16)) {
+			assertEquals(2, store.size());
+			assertArrayEquals(bytes("new"), store.latest("39", "2023").getGzipBody());
+			assertEquals("39", store.latest().get(0).getLeague());
+			assertEquals(4, store.append("140", "2023", 3000, bytes("x")).version);
+		}
+	}
+
+	@Test
+	void tornTailIsCutOff() throws Exception {
+		Path file = dir.resolve("standings.store");
+		long goodSize;
+		try (SnapshotStore store = SnapshotStore.open(file, 16)) {
+			store.append("39", "2023", 1000, bytes("kept"));
+			goodSize = store.fileBytes();
+			store.append("2", "2023", 2000, bytes("torn"));
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 3);
+			channel.write(ByteBuffer.wrap(new byte[] {1, 2}), channel.size());
+		}
+		try (SnapshotStore store = SnapshotStore.open(file, 16)) {
+			assertEquals(1, store.size());
+			assertNull(store.latest("2", "2023"));
+			assertEquals(goodSize, store.fileBytes());
+			store.append("2", "2023", 3000, bytes("again"));
+		}
+		try (SnapshotStore store = SnapshotStore.open(file, 16)) {
+			assertEquals(2, store.size());
+		}
+	}
+
+	@Test
+	void compactionKeepsTheMostRecentKeys() throws Exception {
+		Path file = dir.resolve("standings.store");
+		try (SnapshotStore store = SnapshotStore.open(file, 4)) {
+			for (int league = 1; league <= 5; league++) {
+				store.append(String.valueOf(league), "2023", league, bytes("v" + league));
+			}
+			assertEquals(5, store.size());
+			store.append("6", "2023", 6, bytes("v6"));
+			assertEquals(1, store.compactionCount());
+			assertEquals(4, store.size());
+			assertNull(store.latest("1", "2023"));
+		}
+		try (SnapshotStore store = SnapshotStore.open(file, 4)) {
+			assertEquals(4, store.size());
+			assertArrayEquals(bytes("v6"), store.latest("6", "2023").getGzipBody());
+		}
+	}
+
+	@Test
+	void recordsReadTheirBodyFromTheFileAcrossCompactions() throws Exception {
+		Path file = dir.resolve("standings.store");
+		try (SnapshotStore store = SnapshotStore.open(file, 4)) {
+			byte[] body = bytes("appended");
+			SnapshotStore.Record appended = store.append("39", "2023", 1000, body);
+			body[0] = 'X';
+			assertArrayEquals(bytes("appended"), appended.getGzipBody());
+
+			store.compact();
+			assertArrayEquals(bytes("appended"), appended.getGzipBody());
+			assertArrayEquals(bytes("appended"), store.latest("39", "2023").getGzipBody());
+		}
+	}
+
+	@Test
+	void failedCompactionLeavesTheStoreWorking() throws Exception {
+		Path file = dir.resolve("standings.store");
+		Path tmp = dir.resolve("standings.store.compact");
+		try (SnapshotStore store = SnapshotStore.open(file, 4)) {
+			store.append("39", "2023", 1000, bytes("before"));
+			// a non-empty directory in the file's place makes the final move fail
+			try {
+				Files.delete(file);
+			} catch (IOException e) {
+				assumeTrue(false, "open files cannot be deleted here");
+			}
+			Files.createDirectories(file.resolve("blocker"));
+
+			assertThrows(IOException.class, store::compact);
+			assertFalse(Files.exists(tmp));
+			assertEquals(0, store.compactionCount());
+			store.append("2", "2023", 2000, bytes("after"));
+			assertArrayEquals(bytes("before"), store.latest("39", "2023").getGzipBody());
+			assertArrayEquals(bytes("after"), store.latest("2", "2023").getGzipBody());
+
+			Files.delete(file.resolve("blocker"));
+			Files.delete(file);
+			store.compact();
+			assertEquals(1, store.compactionCount());
+			store.append("140", "2023", 3000, bytes("later"));
+		}
+		try (SnapshotStore store = SnapshotStore.open(file, 4)) {
+			assertEquals(3, store.size());
+			assertArrayEquals(bytes("before"), store.latest("39", "2023").getGzipBody());
+			assertArrayEquals(bytes("later"), store.latest("140", "2023").getGzipBody());
+		}
+	}
+
+	@Test
+	void onlyOneOwnerAtATime() throws Exception {
+		Path file = dir.resolve("standings.store");
+		try (SnapshotStore store = SnapshotStore.open(file, 16)) {
+			store.append("39", "2023", 1000, bytes("held"));
+			IOException e = assertThrows(IOException.class, () -> SnapshotStore.open(file, 16));
+			assertTrue(e.getMessage().contains("in use"));
+		}
+		try (SnapshotStore store = SnapshotStore.open(file, 16)) {
+			assertEquals(1, store.size());
+		}
+	}
+
+	@Test
+	void warmsCacheWithStaleEntries() throws Exception {
+		try (SnapshotStore store = SnapshotStore.open(dir.resolve("standings.store"), 16)) {
+			store.append("39", "2023", 1000, gzip(StandingsParserTest.LEAGUE));
+			store.append("1", "2023", 1000, gzip("{\"errors\":{\"requests\":\"limit\"},\"response\":[]}"));
+			UpstreamCache<StandingsPayload> cache = new UpstreamCache<>((league, season) -> {
+				throw new IOException("upstream down");
+			}, 5, TimeUnit.MINUTES, 16);
+			cache.refresher = r -> { };
+
+			assertEquals(1, WebServer.warmFromStore(store, cache, 16));
+			UpstreamCache.Entry<StandingsPayload> entry = cache.getEntry("39", "2023");
+			assertTrue(entry.isStale());
+			assertEquals("Manchester City", entry.getValue().getSnapshot().teamName(0));
+		}
+	}
+
+	private static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] gzip(String s) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+			gz.write(bytes(s));
+		}
+		return out.toByteArray();
+	}
+}
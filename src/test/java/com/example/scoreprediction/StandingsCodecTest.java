@@ -0,0 +1,104 @@
+package com.example.scoreprediction;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class StandingsCodecTest {
+
+	@Test
+	void roundTripsEveryColumn() throws Exception {
+		for (String json : new String[] {StandingsParserTest.LEAGUE, StandingsParserTest.CUP}) {
+			StandingsSnapshot original = StandingsParser.parse(json);
+			assertSame(original, StandingsCodec.decode(StandingsCodec.encode(original)));
+		}
+	}
+
+	@Test
+	void readsConcatenatedSnapshots() throws Exception {
+		StandingsSnapshot league = StandingsParser.parse(StandingsParserTest.LEAGUE);
+		StandingsSnapshot cup = StandingsParser.parse(StandingsParserTest.CUP);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		out.writeBytes(StandingsCodec.encode(league));
+		out.writeBytes(StandingsCodec.encode(cup));
+		out.writeBytes(StandingsCodec.encode(StandingsSnapshot.EMPTY));
+
+		List<StandingsSnapshot> read = StandingsCodec.decodeAll(new ByteArrayInputStream(out.toByteArray()));
+
+		assertEquals(3, read.size());
+		assertSame(league, read.get(0));
+		assertSame(cup, read.get(1));
+		assertEquals(0, read.get(2).rowCount());
+	}
+
+	@Test
+	void rejectsForeignOrTruncatedInput() throws Exception {
+		byte[] bytes = StandingsCodec.encode(StandingsParser.parse(StandingsParserTest.CUP));
+		assertThrows(IOException.class, () -> StandingsCodec.decode(Arrays.copyOf(bytes, bytes.length - 1)));
+		bytes[0] = '{';
+		assertThrows(IOException.class, () -> StandingsCodec.decode(bytes));
+	}
+
+	@Test
+	void rejectsCorruptCountsAndGroupStarts() throws Exception {
+		byte[] bytes = StandingsCodec.encode(StandingsParser.parse(StandingsParserTest.CUP));
+		ByteBuffer buf = ByteBuffer.wrap(bytes);
+		buf.position(16);
+		buf.position(buf.position() + 2 + (buf.getShort() & 0xFFFF));
+		buf.position(buf.position() + 2 + (buf.getShort() & 0xFFFF));
+		int groupsAt = buf.position();
+		int groups = buf.getInt();
+		buf.position(groupsAt + 12);
+		for (int g = 0; g < groups; g++) {
+			buf.position(buf.position() + 2 + (buf.getShort() & 0xFFFF));
+		}
+		int startsAt = buf.position();
+
+		for (int corrupt : new int[] {Integer.MAX_VALUE, 1 << 28, -1}) {
+			byte[] copy = bytes.clone();
+			ByteBuffer.wrap(copy).putInt(groupsAt, corrupt);
+			assertThrows(IOException.class, () -> StandingsCodec.decode(copy));
+		}
+		// a group starting after the next one, groups ending past the last row, or not starting at row 0
+		int[][] starts = {{0, 6, 5}, {0, 2, 6}, {1, 2, 5}};
+		for (int[] start : starts) {
+			byte[] copy = bytes.clone();
+			ByteBuffer.wrap(copy, startsAt, 12).asIntBuffer().put(start);
+			assertThrows(IOException.class, () -> StandingsCodec.decode(copy));
+		}
+		assertSame(StandingsParser.parse(StandingsParserTest.CUP), StandingsCodec.decode(bytes));
+	}
+
+	private static void assertSame(StandingsSnapshot expected, StandingsSnapshot actual) {
+		assertEquals(expected.getLeagueId(), actual.getLeagueId());
+		assertEquals(expected.getSeason(), actual.getSeason());
+		assertEquals(expected.getLeagueName(), actual.getLeagueName());
+		assertEquals(expected.getCountry(), actual.getCountry());
+		assertArrayEquals(expected.groupNames, actual.groupNames);
+		assertArrayEquals(expected.groupStart, actual.groupStart);
+		assertArrayEquals(expected.teamId, actual.teamId);
+		assertArrayEquals(expected.teamName, actual.teamName);
+		assertArrayEquals(expected.rank, actual.rank);
+		assertArrayEquals(expected.points, actual.points);
+		assertArrayEquals(expected.goalsDiff, actual.goalsDiff);
+		StandingsSnapshot.Split[] e = {expected.all(), expected.home(), expected.away()};
+		StandingsSnapshot.Split[] a = {actual.all(), actual.home(), actual.away()};
+		for (int i = 0; i < e.length; i++) {
+			assertArrayEquals(e[i].played, a[i].played);
+			assertArrayEquals(e[i].win, a[i].win);
+			assertArrayEquals(e[i].draw, a[i].draw);
+			assertArrayEquals(e[i].lose, a[i].lose);
+			assertArrayEquals(e[i].goalsFor, a[i].goalsFor);
+			assertArrayEquals(e[i].goalsAgainst, a[i].goalsAgainst);
+		}
+	}
+}
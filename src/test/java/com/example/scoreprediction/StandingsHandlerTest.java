@@ -0,0 +1,196 @@
+package com.example.scoreprediction;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class StandingsHandlerTest {
+
+	private final HttpClient client = HttpClient.newHttpClient();
+
+	private UpstreamCache<StandingsPayload> savedCache;
+	private String savedBaseUrl;
+	private String savedApiKey;
+	private boolean savedPassthrough;
+
+	@BeforeEach
+	void saveServerState() {
+		savedCache = WebServer.standingsCache;
+		savedBaseUrl = WebServer.apiBaseUrl;
+		savedApiKey = WebServer.apiKey;
+		savedPassthrough = WebServer.standingsPassthrough;
+	}
+
+	@AfterEach
+	void restoreServerState() {
+		WebServer.standingsCache = savedCache;
+		WebServer.apiBaseUrl = savedBaseUrl;
+		WebServer.apiKey = savedApiKey;
+		WebServer.standingsPassthrough = savedPassthrough;
+	}
+
+	@Test
+	void servesCachedBodyAsIsOrGzipped() throws Exception {
+		WebServer.standingsCache = new UpstreamCache<>((league, season) -> StandingsPayload.of(StandingsParserTest.LEAGUE),
+				5, TimeUnit.MINUTES, 16);
+		ExecutorService executor = ServerExecutors.create("pool", 4, 16);
+		HttpServer server = WebServer.createServer(new InetSocketAddress("127.0.0.1", 0), executor);
+		server.start();
+		try {
+			URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/standings?league=39&season=2023");
+
+			HttpResponse<byte[]> plain = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals(StandingsParserTest.LEAGUE, new String(plain.body(), StandardCharsets.UTF_8));
+			assertFalse(plain.headers().firstValue("Content-Encoding").isPresent());
+
+			HttpResponse<byte[]> gzip = client.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElse(null));
+			assertEquals(StandingsParserTest.LEAGUE, gunzip(gzip.body()));
+		} finally {
+			server.stop(0);
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void servesBinaryColumnsAtStandingsBin() throws Exception {
+		WebServer.standingsCache = new UpstreamCache<>((league, season) -> StandingsPayload.of(StandingsParserTest.CUP),
+				5, TimeUnit.MINUTES, 16);
+		ExecutorService executor = ServerExecutors.create("pool", 4, 16);
+		HttpServer server = WebServer.createServer(new InetSocketAddress("127.0.0.1", 0), executor);
+		server.start();
+		try {
+			URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/standings.bin?league=2&season=2023");
+
+			HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals(200, response.statusCode());
+			assertEquals(StandingsCodec.CONTENT_TYPE, response.headers().firstValue("Content-Type").orElse(null));
+			StandingsSnapshot snapshot = StandingsCodec.decode(response.body());
+			assertEquals(2, snapshot.groupCount());
+			assertEquals("Bayern Munich", snapshot.teamName(snapshot.row(snapshot.groupIndex("A"), 0)));
+		} finally {
+			server.stop(0);
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void passthroughStreamsUpstreamBytesAndEncoding() throws Exception {
+		byte[] identity = StandingsParserTest.CUP.getBytes(StandardCharsets.UTF_8);
+		byte[] compressed = gzip(identity);
+		HttpServer upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		upstream.createContext("/standings", exchange -> {
+			String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+			byte[] body = identity;
+			if (accept != null && accept.contains("gzip")) {
+				exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+				body = compressed;
+			}
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream os = exchange.getResponseBody()) {
+				os.write(body);
+			}
+		});
+		upstream.start();
+
+		WebServer.apiKey = "key";
+		WebServer.apiBaseUrl = "http://127.0.0.1:" + upstream.getAddress().getPort();
+		WebServer.standingsPassthrough = true;
+		ExecutorService executor = ServerExecutors.create("pool", 4, 16);
+		HttpServer server = WebServer.createServer(new InetSocketAddress("127.0.0.1", 0), executor);
+		server.start();
+		try {
+			URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/standings?league=2&season=2023");
+
+			HttpResponse<byte[]> gzip = client.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip").build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals(200, gzip.statusCode());
+			assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElse(null));
+			assertEquals(StandingsParserTest.CUP, gunzip(gzip.body()));
+
+			HttpResponse<String> plain = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+			assertEquals(StandingsParserTest.CUP, plain.body());
+		} finally {
+			server.stop(0);
+			upstream.stop(0);
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void upstreamErrorBodyIsNotCached() throws Exception {
+		byte[] error = "{\"get\":\"standings\",\"errors\":{\"token\":\"Error/Missing application key.\"},\"results\":0,\"response\":[]}"
+				.getBytes(StandardCharsets.UTF_8);
+		byte[] table = StandingsParserTest.LEAGUE.getBytes(StandardCharsets.UTF_8);
+		AtomicInteger calls = new AtomicInteger();
+		HttpServer upstream = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		upstream.createContext("/standings", exchange -> {
+			byte[] body = calls.incrementAndGet() == 1 ? error : table;
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream os = exchange.getResponseBody()) {
+				os.write(body);
+			}
+		});
+		upstream.start();
+
+		WebServer.apiKey = "key";
+		WebServer.apiBaseUrl = "http://127.0.0.1:" + upstream.getAddress().getPort();
+		WebServer.standingsCache = new UpstreamCache<>(WebServer::fetchAndStoreStandings, 5, TimeUnit.MINUTES, 16);
+		ExecutorService executor = ServerExecutors.create("pool", 4, 16);
+		HttpServer server = WebServer.createServer(new InetSocketAddress("127.0.0.1", 0), executor);
+		server.start();
+		try {
+			URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/standings?league=39&season=2023");
+
+			HttpResponse<String> failed = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+			assertEquals(500, failed.statusCode());
+			assertEquals(0, WebServer.standingsCache.size());
+
+			HttpResponse<String> retried = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+			assertEquals(200, retried.statusCode());
+			assertEquals(StandingsParserTest.LEAGUE, retried.body());
+			client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofString());
+			assertEquals(2, calls.get());
+		} finally {
+			server.stop(0);
+			upstream.stop(0);
+			executor.shutdownNow();
+		}
+	}
+
+	private static String gunzip(byte[] bytes) throws IOException {
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static byte[] gzip(byte[] bytes) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+			gz.write(bytes);
+		}
+		return out.toByteArray();
+	}
+}
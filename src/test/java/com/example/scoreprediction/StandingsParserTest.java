@@ -0,0 +1,109 @@
+package com.example.scoreprediction;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StandingsParserTest {
+
+	static final String LEAGUE = """
+			{"get":"standings","parameters":{"league":"39","season":"2023"},"errors":[],"results":1,
+			 "response":[{"league":{"id":39,"name":"Premier League","country":"England","logo":"x","flag":"y","season":2023,
+			  "standings":[[
+			   {"rank":1,"team":{"id":50,"name":"Manchester City","logo":"l"},"points":91,"goalsDiff":62,"group":"Premier League",
+			    "form":"WWWWW","status":"same","description":"Promotion",
+			    "all":{"played":38,"win":28,"draw":7,"lose":3,"goals":{"for":96,"against":34}},
+			    "home":{"played":19,"win":14,"draw":5,"lose":0,"goals":{"for":51,"against":16}},
+			    "away":{"played":19,"win":14,"draw":2,"lose":3,"goals":{"for":45,"against":18}},
+			    "update":"2024-05-19T00:00:00+00:00"},
+			   {"rank":2,"team":{"id":42,"name":"Arsenal","logo":"l"},"points":89,"goalsDiff":62,"group":"Premier League",
+			    "form":null,"status":"same","description":null,
+			    "all":{"played":38,"win":28,"draw":5,"lose":5,"goals":{"for":91,"against":29}},
+			    "home":{"played":19,"win":15,"draw":2,"lose":2,"goals":{"for":48,"against":16}},
+			    "away":{"played":19,"win":13,"draw":3,"lose":3,"goals":{"for":43,"against":13}},
+			    "update":"2024-05-19T00:00:00+00:00"}
+			  ]]}}]}
+			""";
+
+	static final String CUP = """
+			{"response":[{"league":{"id":2,"name":"UEFA Champions League","country":"World","season":2023,
+			  "standings":[
+			   [{"rank":1,"team":{"id":529,"name":"Barcelona"},"points":12,"goalsDiff":6,"group":"Group H",
+			     "all":{"played":6,"win":4,"draw":0,"lose":2,"goals":{"for":12,"against":6}}},
+			    {"rank":2,"team":{"id":211,"name":"Porto"},"points":12,"goalsDiff":7,"group":"Group H",
+			     "all":{"played":6,"win":4,"draw":0,"lose":2,"goals":{"for":15,"against":8}}}],
+			   [{"rank":1,"team":{"id":157,"name":"Bayern Munich"},"points":16,"goalsDiff":6,"group":"Group A",
+			     "all":{"played":6,"win":5,"draw":1,"lose":0,"goals":{"for":12,"against":6}}},
+			    {"rank":2,"team":{"id":49,"name":"Copenhagen"},"points":8,"goalsDiff":null,"group":"Group A",
+			     "all":{"played":6,"win":2,"draw":2,"lose":2,"goals":{"for":8,"against":8}}},
+			    {"rank":3,"team":{"id":645,"name":"Galatasaray"},"points":5,"goalsDiff":-3,"group":"Group A",
+			     "all":{"played":6,"win":1,"draw":2,"lose":3,"goals":{"for":10,"against":13}}}]
+			  ]}}]}
+			""";
+
+	@Test
+	void parsesRegularLeague() throws Exception {
+		StandingsSnapshot s = StandingsParser.parse(LEAGUE);
+
+		assertEquals(39, s.getLeagueId());
+		assertEquals(2023, s.getSeason());
+		assertEquals("Premier League", s.getLeagueName());
+		assertEquals("England", s.getCountry());
+		assertEquals(1, s.groupCount());
+		assertEquals(2, s.rowCount());
+
+		int arsenal = s.row(0, 1);
+		assertEquals(42, s.teamId(arsenal));
+		assertEquals("Arsenal", s.teamName(arsenal));
+		assertEquals(2, s.rank(arsenal));
+		assertEquals(89, s.points(arsenal));
+		assertEquals(62, s.goalsDiff(arsenal));
+		assertEquals(38, s.all().played(arsenal));
+		assertEquals(28, s.all().win(arsenal));
+		assertEquals(5, s.all().draw(arsenal));
+		assertEquals(5, s.all().lose(arsenal));
+		assertEquals(91, s.all().goalsFor(arsenal));
+		assertEquals(29, s.all().goalsAgainst(arsenal));
+		assertEquals(48, s.home().goalsFor(arsenal));
+		assertEquals(13, s.away().goalsAgainst(arsenal));
+	}
+
+	@Test
+	void parsesEveryGroupOfCupStandings() throws Exception {
+		StandingsSnapshot s = StandingsParser.parse(CUP);
+
+		assertEquals(2, s.groupCount());
+		assertEquals("Group H", s.groupName(0));
+		assertEquals("Group A", s.groupName(1));
+		assertEquals(2, s.groupSize(0));
+		assertEquals(3, s.groupSize(1));
+
+		int galatasaray = s.row(1, 2);
+		assertEquals("Galatasaray", s.teamName(galatasaray));
+		assertEquals(-3, s.goalsDiff(galatasaray));
+		assertEquals(0, s.goalsDiff(s.row(1, 1)), "null numbers read as 0");
+		assertEquals(0, s.home().played(galatasaray), "missing splits read as 0");
+	}
+
+	@Test
+	void errorPayloadGivesEmptySnapshot() throws Exception {
+		StandingsSnapshot s = StandingsParser.parse(
+				"{\"errors\":{\"requests\":\"You have reached the request limit for the day\"},\"response\":[]}");
+		assertTrue(s.isEmpty());
+		assertEquals(0, s.groupCount());
+		assertSame(StandingsSnapshot.EMPTY, StandingsPayload.of("not json").getSnapshot());
+	}
+
+	@Test
+	void errorStatusIsNotAPayload() {
+		byte[] body = "{\"message\":\"Too many requests\"}".getBytes(StandardCharsets.UTF_8);
+		assertThrows(IOException.class, () -> StandingsPayload.of(new UpstreamClient.Raw(429, body, null)));
+		assertThrows(IOException.class, () -> StandingsPayload.of(new UpstreamClient.Raw(503, body, null)));
+	}
+}
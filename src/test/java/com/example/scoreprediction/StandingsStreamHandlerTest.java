@@ -0,0 +1,180 @@
+package com.example.scoreprediction;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StandingsStreamHandlerTest {
+
+	private UpstreamCache<StandingsPayload> savedCache;
+
+	@BeforeEach
+	void saveCache() {
+		savedCache = WebServer.standingsCache;
+	}
+
+	@AfterEach
+	void restoreCache() {
+		WebServer.standingsCache = savedCache;
+	}
+
+	@Test
+	void framesMultiLineBodiesAsContinuationDataLines() {
+		byte[] frame = StandingsStreamHandler.frame(7, "{\"a\":1,\r\n\"b\":2}\n".getBytes(StandardCharsets.UTF_8));
+		assertEquals("id: 7\nevent: standings\ndata: {\"a\":1,\ndata: \"b\":2}\ndata: \n\n",
+				new String(frame, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void onePollerFansOutChangesAndStopsWhenClientsLeave() throws Exception {
+		AtomicReference<String> upstream = new AtomicReference<>(StandingsParserTest.LEAGUE);
+		AtomicInteger polls = new AtomicInteger();
+		AtomicInteger stored = new AtomicInteger();
+		WebServer.standingsCache = new UpstreamCache<>((league, season) -> StandingsPayload.of(upstream.get()),
+				5, TimeUnit.MINUTES, 16);
+		StandingsStreamHandler handler = new StandingsStreamHandler((league, season) -> {
+			polls.incrementAndGet();
+			return StandingsPayload.of(upstream.get());
+		}, (league, season, payload) -> stored.incrementAndGet(), 100);
+
+		ExecutorService executor = ServerExecutors.create("pool", 2, 16);
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/standings/stream", handler);
+		server.setExecutor(executor);
+		server.start();
+		HttpClient client = HttpClient.newHttpClient();
+		try {
+			URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/standings/stream?league=39&season=2023");
+			HttpResponse<Stream<String>> first = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofLines());
+			HttpResponse<Stream<String>> second = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofLines());
+			assertEquals(200, first.statusCode());
+			assertTrue(first.headers().firstValue("Content-Type").orElse("").startsWith("text/event-stream"));
+			Iterator<String> a = first.body().iterator();
+			Iterator<String> b = second.body().iterator();
+
+			// both start from the cached table, on one shared channel
+			assertEquals(StandingsParserTest.LEAGUE, readEvent(a));
+			assertEquals(StandingsParserTest.LEAGUE, readEvent(b));
+			assertEquals(1, handler.channelCount());
+			assertEquals(2, handler.subscriberCount());
+
+			// unchanged polls neither store nor bump the cached entry
+			long version = WebServer.standingsCache.getEntry("39", "2023").version;
+			int seen = polls.get();
+			while (polls.get() < seen + 3) {
+				Thread.sleep(20);
+			}
+			assertEquals(0, stored.get());
+			assertEquals(version, WebServer.standingsCache.getEntry("39", "2023").version);
+
+			upstream.set(StandingsParserTest.CUP);
+			assertEquals(StandingsParserTest.CUP, readEvent(a));
+			assertEquals(StandingsParserTest.CUP, readEvent(b));
+			assertEquals(StandingsParserTest.CUP, new String(WebServer.standingsCache.get("39", "2023").body, StandardCharsets.UTF_8));
+			assertEquals(1, stored.get());
+
+			first.body().close();
+			second.body().close();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (handler.channelCount() > 0 && System.nanoTime() < deadline) {
+				Thread.sleep(50);
+			}
+			assertEquals(0, handler.channelCount());
+			int after = polls.get();
+			Thread.sleep(300);
+			assertEquals(after, polls.get());
+		} finally {
+			server.stop(0);
+			executor.shutdownNow();
+			handler.shutdown();
+		}
+	}
+
+	@Test
+	void aClientThatStopsReadingIsDroppedWithoutStallingTheOthers() throws Exception {
+		// bodies of a few MB fill the socket buffers of a client that does not read in a few polls
+		String padding = " ".repeat(4 << 20);
+		AtomicInteger polls = new AtomicInteger();
+		WebServer.standingsCache = new UpstreamCache<>((league, season) -> StandingsPayload.of(StandingsParserTest.LEAGUE),
+				5, TimeUnit.MINUTES, 16);
+		StandingsStreamHandler handler = new StandingsStreamHandler((league, season) ->
+				StandingsPayload.of(StandingsParserTest.LEAGUE + padding.substring(polls.incrementAndGet() % 2)),
+				(league, season, payload) -> { }, 50);
+
+		ExecutorService executor = ServerExecutors.create("pool", 2, 16);
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/standings/stream", handler);
+		server.setExecutor(executor);
+		server.start();
+		try (Socket stuck = new Socket("127.0.0.1", server.getAddress().getPort())) {
+			stuck.setReceiveBufferSize(4096);
+			stuck.getOutputStream().write("GET /standings/stream?league=39&season=2023 HTTP/1.1\r\nHost: localhost\r\n\r\n"
+					.getBytes(StandardCharsets.US_ASCII));
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (handler.subscriberCount() < 1 && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+
+			URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/standings/stream?league=39&season=2023");
+			HttpResponse<InputStream> reader = HttpClient.newHttpClient().send(HttpRequest.newBuilder(uri).build(),
+					HttpResponse.BodyHandlers.ofInputStream());
+			try (InputStream in = reader.body()) {
+				byte[] buf = new byte[1 << 16];
+				while (handler.subscriberCount() > 1 && System.nanoTime() < deadline) {
+					in.read(buf);
+				}
+				assertEquals(1, handler.subscriberCount());
+				// the reader still gets every new table
+				int seen = polls.get();
+				while (polls.get() < seen + 3 && System.nanoTime() < deadline) {
+					assertTrue(in.read(buf) > 0);
+				}
+				assertTrue(polls.get() >= seen + 3);
+			}
+		} finally {
+			server.stop(0);
+			executor.shutdownNow();
+			handler.shutdown();
+		}
+	}
+
+	/** Data of the next event, skipping comments. */
+	private static String readEvent(Iterator<String> lines) {
+		StringBuilder data = null;
+		while (lines.hasNext()) {
+			String line = lines.next();
+			if (line.isEmpty()) {
+				if (data != null) {
+					return data.toString();
+				}
+			} else if (line.startsWith("data: ")) {
+				if (data == null) {
+					data = new StringBuilder();
+				} else {
+					data.append('\n');
+				}
+				data.append(line, 6, line.length());
+			}
+		}
+		throw new AssertionError("stream ended");
+	}
+}
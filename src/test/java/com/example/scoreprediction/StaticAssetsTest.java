@@ -0,0 +1,69 @@
+package com.example.scoreprediction;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaticAssetsTest {
+
+	@Test
+	void loadsPublicFolderWithGzipVariants() throws Exception {
+		StaticAssets assets = StaticAssets.load(StaticAssetsTest.class.getClassLoader(), "public");
+		StaticAssets.Asset index = assets.get("/index.html");
+		assertNotNull(index);
+		assertEquals("no-cache", index.cacheControl);
+		assertEquals("no-cache", assets.get("/app.js").cacheControl);
+		assertNotNull(index.gzipBody);
+		assertNotEquals(index.etag, index.gzipEtag);
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(index.gzipBody))) {
+			assertArrayEquals(index.body, in.readAllBytes());
+		}
+	}
+
+	@Test
+	void servesGzipAndAnswersConditionalRequestsWith304() throws Exception {
+		StaticAssets assets = StaticAssets.load(StaticAssetsTest.class.getClassLoader(), "public");
+		HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new WebServer.StaticFileHandler(assets));
+		server.start();
+		try {
+			HttpClient client = HttpClient.newHttpClient();
+			URI uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/app.js");
+
+			HttpResponse<byte[]> plain = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals(200, plain.statusCode());
+			assertArrayEquals(assets.get("/app.js").body, plain.body());
+
+			HttpResponse<byte[]> gzip = client.send(HttpRequest.newBuilder(uri).header("Accept-Encoding", "gzip, br").build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals("gzip", gzip.headers().firstValue("Content-Encoding").orElse(null));
+			String etag = gzip.headers().firstValue("ETag").orElseThrow();
+			assertTrue(gzip.body().length < plain.body().length);
+
+			HttpResponse<byte[]> notModified = client.send(HttpRequest.newBuilder(uri)
+					.header("Accept-Encoding", "gzip").header("If-None-Match", etag).build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals(304, notModified.statusCode());
+			assertEquals(0, notModified.body().length);
+
+			HttpResponse<byte[]> missing = client.send(HttpRequest.newBuilder(uri.resolve("/nope.js")).build(),
+					HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals(404, missing.statusCode());
+		} finally {
+			server.stop(0);
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package com.example.scoreprediction;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TeamIndexTest {
+
+	private static final String CLUBS = StandingsParserTest.CUP
+			.replace("\"Barcelona\"", "\"Atlético Madrid\"")
+			.replace("\"Porto\"", "\"Manchester United\"")
+			.replace("\"Copenhagen\"", "\"Manchester City\"");
+
+	private UpstreamCache<StandingsPayload> savedCache;
+
+	@BeforeEach
+	void saveCache() {
+		savedCache = WebServer.standingsCache;
+	}
+
+	@AfterEach
+	void restoreCache() {
+		WebServer.standingsCache = savedCache;
+	}
+
+	@Test
+	void findsTeamsByIdNameAndWordPrefix() throws Exception {
+		StandingsSnapshot s = StandingsParser.parse(CLUBS);
+		TeamIndex index = s.teamIndex();
+
+		assertEquals(3, index.rowOf(49));
+		assertEquals(TeamIndex.NOT_FOUND, index.rowOf(1));
+
+		// table order: group H (rows 0-1) before group A (rows 2-4)
+		assertArrayEquals(new int[] {1, 3}, index.search("man", 10));
+		assertArrayEquals(new int[] {1}, index.search("man", 1));
+		assertArrayEquals(new int[] {3}, index.search("CITY", 10));
+		assertArrayEquals(new int[] {0}, index.search("atletico m", 10));
+		assertArrayEquals(new int[0], index.search("  ", 10));
+
+		assertEquals(0, index.resolve("atlético"));
+		assertEquals(3, index.resolve("Manchester-City"));
+		assertEquals(TeamIndex.AMBIGUOUS, index.resolve("Manchester"));
+		assertEquals(TeamIndex.NOT_FOUND, index.resolve("Liverpool"));
+		assertEquals(0, s.groupOf(1));
+		assertEquals(1, s.groupOf(2));
+	}
+
+	@Test
+	void predictAndSearchAcceptIdsAndNames() throws Exception {
+		WebServer.standingsCache = new UpstreamCache<>((league, season) -> StandingsPayload.of(CLUBS),
+				5, TimeUnit.MINUTES, 16);
+		ExecutorService executor = ServerExecutors.create("pool", 4, 16);
+		HttpServer server = WebServer.createServer(new InetSocketAddress("127.0.0.1", 0), executor);
+		server.start();
+		try {
+			String base = "http://127.0.0.1:" + server.getAddress().getPort();
+
+			// ids and names settle the group; positions are read in it
+			JsonObject byId = get(base + "/predict?league=2&season=2023&team1Id=157&team2=3");
+			assertEquals("Bayern Munich", byId.get("team1Name").getAsString());
+			assertEquals("Galatasaray", byId.get("team2Name").getAsString());
+			assertEquals(1, byId.get("team1Index").getAsInt());
+			JsonObject byName = get(base + "/predict?league=2&season=2023&team1=galata&team2=Manchester%20City&model=poisson");
+			assertEquals(3, byName.get("team1Index").getAsInt());
+			assertEquals(2, byName.get("team2Index").getAsInt());
+
+			assertEquals(400, status(base + "/predict?league=2&season=2023&team1=manchester&team2=1"));
+			assertEquals(404, status(base + "/predict?league=2&season=2023&team1Id=1&team2=1"));
+			assertEquals(400, status(base + "/predict?league=2&season=2023&team1Id=157&team2Id=529"));
+
+			JsonArray teams = get(base + "/teams/search?league=2&season=2023&q=Man").getAsJsonArray("teams");
+			assertEquals(2, teams.size());
+			JsonObject united = teams.get(0).getAsJsonObject();
+			assertEquals(211, united.get("id").getAsInt());
+			assertEquals("Group H", united.get("group").getAsString());
+			assertEquals(2, united.get("position").getAsInt());
+		} finally {
+			server.stop(0);
+			executor.shutdownNow();
+		}
+	}
+
+	private static HttpResponse<String> send(String uri) throws Exception {
+		return HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(uri)).build(),
+				HttpResponse.BodyHandlers.ofString());
+	}
+
+	private static JsonObject get(String uri) throws Exception {
+		HttpResponse<String> response = send(uri);
+		assertEquals(200, response.statusCode(), response.body());
+		return new Gson().fromJson(response.body(), JsonObject.class);
+	}
+
+	private static int status(String uri) throws Exception {
+		return send(uri).statusCode();
+	}
+}
@@ -0,0 +1,210 @@
+package com.example.scoreprediction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamCacheTest {
+
+	@Test
+	void concurrentMissesCollapseIntoOneLoad() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		UpstreamCache<String> cache = new UpstreamCache<>((league, season) -> {
+			calls.incrementAndGet();
+			release.await();
+			return league + ":" + season;
+		}, 5, TimeUnit.MINUTES, 16);
+
+		int callers = 500;
+		ExecutorService pool = Executors.newFixedThreadPool(callers);
+		try {
+			CountDownLatch started = new CountDownLatch(callers);
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				results.add(pool.submit(() -> {
+					started.countDown();
+					return cache.get("39", "2023");
+				}));
+			}
+			started.await(10, TimeUnit.SECONDS);
+			release.countDown();
+			for (Future<String> f : results) {
+				assertEquals("39:2023", f.get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void versionsAreUniqueAcrossCachesAndStoresAreReported() throws Exception {
+		UpstreamCache<String> first = new UpstreamCache<>((league, season) -> "a", 5, TimeUnit.MINUTES, 16);
+		UpstreamCache<String> second = new UpstreamCache<>((league, season) -> "b", 5, TimeUnit.MINUTES, 16);
+		List<String> stored = new ArrayList<>();
+		second.onStore(key -> stored.add(key.toString()));
+
+		long a = first.getEntry("39", "2023").getVersion();
+		long b = second.getEntry("39", "2023").getVersion();
+		assertNotEquals(a, b);
+		second.put("39", "2023", "c");
+		assertEquals(List.of("39/2023", "39/2023"), stored);
+	}
+
+	@Test
+	void entriesExpireAfterTtl() throws Exception {
+		AtomicLong now = new AtomicLong();
+		AtomicInteger calls = new AtomicInteger();
+		UpstreamCache<Integer> cache = new UpstreamCache<>((league, season) -> calls.incrementAndGet(),
+				10, TimeUnit.SECONDS, 16, now::get);
+
+		long firstVersion = cache.getEntry("39", "2023").getVersion();
+		now.addAndGet(TimeUnit.SECONDS.toNanos(9));
+		assertEquals(firstVersion, cache.getEntry("39", "2023").getVersion());
+		now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		assertNotEquals(firstVersion, cache.getEntry("39", "2023").getVersion());
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void leastRecentlyUsedEntryIsEvicted() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		UpstreamCache<Integer> cache = new UpstreamCache<>((league, season) -> calls.incrementAndGet(),
+				5, TimeUnit.MINUTES, 2);
+
+		cache.get("1", "2023");
+		cache.get("2", "2023");
+		cache.get("1", "2023");
+		cache.get("3", "2023");
+		assertEquals(3, calls.get());
+		assertEquals(2, cache.size());
+
+		cache.get("1", "2023");
+		assertEquals(3, calls.get());
+		cache.get("2", "2023");
+		assertEquals(4, calls.get());
+	}
+
+	@Test
+	void failedLoadsAreNotCached() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		UpstreamCache<String> cache = new UpstreamCache<>((league, season) -> {
+			if (calls.incrementAndGet() == 1) {
+				throw new IllegalStateException("upstream down");
+			}
+			return "ok";
+		}, 5, TimeUnit.MINUTES, 16);
+
+		assertThrows(IllegalStateException.class, () -> cache.get("39", "2023"));
+		assertEquals("ok", cache.get("39", "2023"));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void warmedEntriesAreServedStaleAndRefreshedInBackground() throws Exception {
+		AtomicInteger calls = new AtomicInteger();
+		UpstreamCache<String> cache = new UpstreamCache<>((league, season) -> "fresh-" + calls.incrementAndGet(),
+				5, TimeUnit.MINUTES, 16);
+		List<Runnable> refreshes = new ArrayList<>();
+		cache.refresher = refreshes::add;
+
+		cache.warm("39", "2023", "from-disk");
+		UpstreamCache.Entry<String> stale = cache.getEntry("39", "2023");
+		assertEquals("from-disk", stale.getValue());
+		assertTrue(stale.isStale());
+		assertEquals(0, calls.get());
+		assertEquals(1, refreshes.size());
+
+		refreshes.get(0).run();
+		UpstreamCache.Entry<String> fresh = cache.getEntry("39", "2023");
+		assertEquals("fresh-1", fresh.getValue());
+		assertFalse(fresh.isStale());
+		assertEquals(1, cache.staleHitCount());
+
+		cache.warm("39", "2023", "older");
+		assertEquals("fresh-1", cache.get("39", "2023"));
+	}
+
+	@Test
+	void refreshAheadReloadsHotEntriesBeforeExpiryAndLetsColdOnesGo() throws Exception {
+		AtomicLong now = new AtomicLong();
+		AtomicInteger calls = new AtomicInteger();
+		UpstreamCache<String> cache = new UpstreamCache<>((league, season) -> league + "-" + calls.incrementAndGet(),
+				60, TimeUnit.SECONDS, 16, now::get);
+		List<Runnable> refreshes = new ArrayList<>();
+		cache.refresher = refreshes::add;
+		cache.refreshAhead(20, TimeUnit.SECONDS, 1);
+
+		assertEquals("39-1", cache.get("39", "2023"));
+		assertEquals("40-2", cache.get("40", "2023"));
+		for (int i = 0; i < 10; i++) {
+			now.addAndGet(TimeUnit.SECONDS.toNanos(3));
+			cache.get("39", "2023");
+		}
+
+		// 30 s old: not yet within 20 s of expiry
+		cache.sweepAhead();
+		assertEquals(0, refreshes.size());
+
+		now.addAndGet(TimeUnit.SECONDS.toNanos(15));
+		cache.sweepAhead();
+		cache.sweepAhead();
+		assertEquals(1, refreshes.size());
+		assertEquals(1, cache.refreshAheadSkippedCount());
+		refreshes.get(0).run();
+		assertEquals(1, cache.refreshAheadCount());
+
+		// past the original expiry: the hot key was reloaded in time, the cold one is loaded on demand
+		now.addAndGet(TimeUnit.SECONDS.toNanos(20));
+		assertEquals("39-3", cache.get("39", "2023"));
+		assertEquals("40-4", cache.get("40", "2023"));
+		assertEquals(4, calls.get());
+	}
+
+	@Test
+	void userMissDoesNotWaitOnAQueuedBackgroundReload() throws Exception {
+		AtomicLong now = new AtomicLong();
+		CountDownLatch refreshing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		UpstreamCache<String> cache = new UpstreamCache<>((league, season) -> {
+			if (UpstreamScheduler.currentLane() == UpstreamScheduler.Lane.REFRESH) {
+				// stands in for a reload waiting behind user requests in the quota
+				refreshing.countDown();
+				release.await();
+				return "refreshed";
+			}
+			return "user";
+		}, 60, TimeUnit.SECONDS, 16, now::get);
+		cache.refresher = r -> new Thread(r).start();
+
+		cache.warm("39", "2023", "older");
+		assertEquals("older", cache.get("39", "2023"));
+		assertTrue(refreshing.await(10, TimeUnit.SECONDS));
+
+		// the stale copy expires while its reload is still queued
+		now.addAndGet(TimeUnit.SECONDS.toNanos(61));
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Future<String> user = pool.submit(() -> cache.get("39", "2023"));
+			assertEquals("user", user.get(10, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+			pool.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package com.example.scoreprediction;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a local stub upstream. {@link #benchmarkSharedClientAgainstPerCallClient()}
+ * doubles as the latency benchmark: it prints the average per-request cost of
+ * building a new client per call versus reusing {@link UpstreamClient}.
+ */
+class UpstreamClientTest {
+
+	private static final byte[] BODY = "{\"response\":[]}".getBytes(StandardCharsets.UTF_8);
+
+	private HttpServer stub;
+	private ExecutorService stubExecutor;
+	private String url;
+	private final AtomicInteger concurrent = new AtomicInteger();
+	private final AtomicInteger maxConcurrent = new AtomicInteger();
+	private volatile long stubDelayMillis;
+
+	@BeforeEach
+	void startStub() throws Exception {
+		// Without TCP_NODELAY the JDK server stalls ~40 ms on every reused connection
+		// (Nagle + delayed ACK), which would hide the benefit of keep-alive.
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		stub.createContext("/standings", exchange -> {
+			int now = concurrent.incrementAndGet();
+			maxConcurrent.accumulateAndGet(now, Math::max);
+			try {
+				if (stubDelayMillis > 0) {
+					Thread.sleep(stubDelayMillis);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				// before responding, so the client cannot start its next request first
+				concurrent.decrementAndGet();
+			}
+			exchange.getResponseHeaders().set("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, BODY.length);
+			try (OutputStream os = exchange.getResponseBody()) {
+				os.write(BODY);
+			}
+		});
+		stubExecutor = Executors.newCachedThreadPool();
+		stub.setExecutor(stubExecutor);
+		stub.start();
+		url = "http://127.0.0.1:" + stub.getAddress().getPort() + "/standings?league=39&season=2023";
+	}
+
+	@AfterEach
+	void stopStub() {
+		stub.stop(0);
+		stubExecutor.shutdownNow();
+	}
+
+	@Test
+	void benchmarkSharedClientAgainstPerCallClient() throws Exception {
+		int requests = 200;
+		UpstreamClient client = new UpstreamClient(Duration.ofSeconds(5), Duration.ofSeconds(5), 16);
+
+		// warm up both paths
+		for (int i = 0; i < 20; i++) {
+			perCallClient(url);
+			client.get(url, "key", "host");
+		}
+
+		long start = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			assertEquals("{\"response\":[]}", perCallClient(url));
+		}
+		long perCallNanos = (System.nanoTime() - start) / requests;
+
+		start = System.nanoTime();
+		for (int i = 0; i < requests; i++) {
+			assertEquals("{\"response\":[]}", client.get(url, "key", "host"));
+		}
+		long sharedNanos = (System.nanoTime() - start) / requests;
+
+		System.out.printf("upstream latency: new client per call %d us/req, shared client %d us/req%n",
+				perCallNanos / 1000, sharedNanos / 1000);
+		assertTrue(sharedNanos > 0 && perCallNanos > 0);
+	}
+
+	@Test
+	void inFlightRequestsAreBounded() throws Exception {
+		stubDelayMillis = 50;
+		UpstreamClient client = new UpstreamClient(Duration.ofSeconds(5), Duration.ofSeconds(5), 2);
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 8; i++) {
+				results.add(callers.submit(() -> client.get(url, "key", "host")));
+			}
+			for (Future<String> f : results) {
+				assertEquals("{\"response\":[]}", f.get());
+			}
+		} finally {
+			callers.shutdownNow();
+		}
+		assertTrue(maxConcurrent.get() <= 2, "at most 2 upstream requests in flight, saw " + maxConcurrent.get());
+		assertEquals(2, client.availableSlots());
+	}
+
+	private static String perCallClient(String url) throws Exception {
+		HttpRequest request = HttpRequest.newBuilder().uri(new URI(url)).build();
+		return HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString()).body();
+	}
+}
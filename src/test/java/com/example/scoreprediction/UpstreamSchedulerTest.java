@@ -0,0 +1,138 @@
+package com.example.scoreprediction;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.http.HttpHeaders;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UpstreamSchedulerTest {
+
+	private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private static UpstreamScheduler scheduler(TokenBucket perMinute, TokenBucket perDay, long reserve, long maxWaitNanos) {
+		return new UpstreamScheduler(perMinute, perDay, reserve, new long[] {maxWaitNanos, maxWaitNanos, maxWaitNanos});
+	}
+
+	private static TokenBucket bucket(long capacity) {
+		// refills so slowly that nothing comes back during a test
+		return new TokenBucket(capacity, 1, 1, TimeUnit.DAYS);
+	}
+
+	@Test
+	void windowNeverAllowsMoreThanTheLimitPerPeriod() {
+		TokenBucket minute = UpstreamScheduler.window(60, TimeUnit.MINUTES);
+		int granted = 0;
+		while (minute.tryAcquire()) {
+			granted++;
+		}
+		// burst of a sixth, refilled at the remaining 50 per minute
+		assertEquals(10, granted);
+		assertTrue(minute.nanosUntilAvailable() > TimeUnit.MILLISECONDS.toNanos(1000));
+	}
+
+	@Test
+	void concurrentCallersNeverGetMoreThanTheQuota() throws Exception {
+		UpstreamScheduler scheduler = scheduler(bucket(25), bucket(1000), 0, 0);
+		int callers = 64;
+		ExecutorService pool = Executors.newFixedThreadPool(16);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Boolean>> results = new ArrayList<>();
+			for (int i = 0; i < callers; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					try {
+						scheduler.acquire(UpstreamScheduler.Lane.INTERACTIVE);
+						return true;
+					} catch (UpstreamScheduler.QuotaExceededException e) {
+						return false;
+					}
+				}));
+			}
+			start.countDown();
+			int granted = 0;
+			for (Future<Boolean> result : results) {
+				if (result.get(10, TimeUnit.SECONDS)) granted++;
+			}
+			assertEquals(25, granted);
+			assertEquals(25, scheduler.grantedCount(UpstreamScheduler.Lane.INTERACTIVE));
+			assertEquals(callers - 25, scheduler.shedCount(UpstreamScheduler.Lane.INTERACTIVE));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void interactiveCallsOvertakeQueuedBackfill() throws Exception {
+		// one token, the next one 300 ms later
+		TokenBucket minute = new TokenBucket(1, 1, 300, TimeUnit.MILLISECONDS);
+		UpstreamScheduler scheduler = scheduler(minute, bucket(1000), 0, 5 * SECOND);
+		scheduler.acquire(UpstreamScheduler.Lane.INTERACTIVE);
+
+		List<UpstreamScheduler.Lane> order = Collections.synchronizedList(new ArrayList<>());
+		Thread backfill = new Thread(() -> take(scheduler, UpstreamScheduler.Lane.BACKFILL, order));
+		Thread interactive = new Thread(() -> take(scheduler, UpstreamScheduler.Lane.INTERACTIVE, order));
+		backfill.start();
+		Thread.sleep(50);
+		interactive.start();
+		backfill.join(5000);
+		interactive.join(5000);
+
+		assertEquals(List.of(UpstreamScheduler.Lane.INTERACTIVE, UpstreamScheduler.Lane.BACKFILL), order);
+	}
+
+	private static void take(UpstreamScheduler scheduler, UpstreamScheduler.Lane lane, List<UpstreamScheduler.Lane> order) {
+		try {
+			scheduler.acquire(lane);
+			order.add(lane);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Test
+	void backgroundLanesLeaveTheDailyReserveToUsers() throws Exception {
+		UpstreamScheduler scheduler = scheduler(bucket(100), bucket(10), 8, SECOND);
+		scheduler.acquire(UpstreamScheduler.Lane.REFRESH);
+		scheduler.acquire(UpstreamScheduler.Lane.BACKFILL);
+
+		UpstreamScheduler.QuotaExceededException shed = assertThrows(UpstreamScheduler.QuotaExceededException.class,
+				() -> scheduler.acquire(UpstreamScheduler.Lane.BACKFILL));
+		assertTrue(shed.getRetryAfterSeconds() > 0);
+		for (int i = 0; i < 8; i++) {
+			scheduler.acquire(UpstreamScheduler.Lane.INTERACTIVE);
+		}
+		assertThrows(UpstreamScheduler.QuotaExceededException.class,
+				() -> scheduler.acquire(UpstreamScheduler.Lane.INTERACTIVE));
+	}
+
+	@Test
+	void rateLimitHeadersLowerTheBuckets() throws Exception {
+		UpstreamScheduler scheduler = scheduler(bucket(100), bucket(1000), 0, 0);
+		scheduler.observe(200, HttpHeaders.of(Map.of(
+				"X-RateLimit-Remaining", List.of("3"),
+				"x-ratelimit-requests-remaining", List.of("500")), (name, value) -> true));
+		assertEquals(3, scheduler.available());
+
+		scheduler.observe(200, HttpHeaders.of(Map.of("x-ratelimit-requests-remaining", List.of("1")), (name, value) -> true));
+		scheduler.acquire(UpstreamScheduler.Lane.INTERACTIVE);
+		assertThrows(UpstreamScheduler.QuotaExceededException.class,
+				() -> scheduler.acquire(UpstreamScheduler.Lane.INTERACTIVE));
+
+		UpstreamScheduler fresh = scheduler(bucket(100), bucket(1000), 0, 0);
+		fresh.observe(429, HttpHeaders.of(Map.of(), (name, value) -> true));
+		assertEquals(0, fresh.available());
+	}
+}
@@ -0,0 +1,98 @@
+package com.example.scoreprediction;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load test for the server executor modes. Every /standings request waits on a
+ * 100 ms fake upstream, and each request asks for a different league so the
+ * single-flight cache cannot merge them. With the dispatcher thread the requests
+ * serialize; with a worker pool throughput grows with the number of clients.
+ */
+class WebServerLoadTest {
+
+	private static final long UPSTREAM_DELAY_MILLIS = 100;
+
+	private UpstreamCache<StandingsPayload> savedCache;
+
+	@BeforeEach
+	void saveCache() {
+		savedCache = WebServer.standingsCache;
+	}
+
+	@AfterEach
+	void restoreCache() {
+		WebServer.standingsCache = savedCache;
+	}
+
+	@Test
+	void throughputScalesWithConcurrentClients() throws Exception {
+		AtomicInteger league = new AtomicInteger();
+		WebServer.standingsCache = new UpstreamCache<>((l, s) -> {
+			Thread.sleep(UPSTREAM_DELAY_MILLIS);
+			return StandingsPayload.of("{\"response\":[]}");
+		}, 0, TimeUnit.SECONDS, 16);
+
+		double dispatcher = requestsPerSecond(null, 16, league);
+		System.out.printf("executor=dispatcher clients=16 -> %.1f req/s%n", dispatcher);
+
+		double pooled16 = 0;
+		for (int clients : new int[] {1, 4, 16}) {
+			ExecutorService pool = ServerExecutors.create("pool", 32, 64);
+			try {
+				double rps = requestsPerSecond(pool, clients, league);
+				System.out.printf("executor=pool clients=%d -> %.1f req/s%n", clients, rps);
+				if (clients == 16) {
+					pooled16 = rps;
+				}
+			} finally {
+				pool.shutdownNow();
+			}
+		}
+
+		assertTrue(pooled16 > dispatcher * 4,
+				"pooled executor should not serialize requests: " + pooled16 + " vs " + dispatcher + " req/s");
+	}
+
+	private static double requestsPerSecond(ExecutorService executor, int clients, AtomicInteger league) throws Exception {
+		HttpServer server = WebServer.createServer(new InetSocketAddress("127.0.0.1", 0), executor);
+		server.start();
+		try {
+			HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+			String base = "http://127.0.0.1:" + server.getAddress().getPort() + "/standings?season=2023&league=";
+			int rounds = 2;
+			long start = System.nanoTime();
+			for (int round = 0; round < rounds; round++) {
+				List<CompletableFuture<HttpResponse<String>>> calls = new ArrayList<>();
+				for (int i = 0; i < clients; i++) {
+					HttpRequest request = HttpRequest.newBuilder(URI.create(base + league.incrementAndGet())).build();
+					calls.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+				}
+				for (CompletableFuture<HttpResponse<String>> call : calls) {
+					assertEquals(200, call.get(30, TimeUnit.SECONDS).statusCode());
+				}
+			}
+			double seconds = (System.nanoTime() - start) / 1e9;
+			return rounds * clients / seconds;
+		} finally {
+			server.stop(0);
+		}
+	}
+}